@@ -16,6 +16,7 @@ import roles.Student;
 import roles.Professor;
 import roles.Admin;
 import courses.Course;
+import courses.CourseCatalog;
 
 public class Controller {
     private static FileInfoReader fileInfoReader;
@@ -217,7 +218,7 @@ public class Controller {
 
         if (student != null) {
             System.out.println("Logged in as " + student.getName()); // Add this line to display the login message
-            student.manageOperations(allCourses, allStudents, scanner); // Pass the required lists
+            student.manageOperations(new CourseCatalog(allCourses), allStudents, scanner); // Pass the required lists
         } else {
             System.out.println("Invalid login. Please try again.");
         }
@@ -246,7 +247,7 @@ public class Controller {
         );
 
         if (professor != null) {
-            professor.manageOperations(allCourses, allStudents, scanner);
+            professor.manageOperations(new CourseCatalog(allCourses), allStudents, scanner);
         } else {
             System.out.println("Invalid login. Please try again.");
         }
@@ -274,7 +275,7 @@ public class Controller {
 
         if (admin != null) {
             adminInstance = admin; // Assuming admin objects are already created in the admins list
-            adminInstance.setCourses(new ArrayList<>(courses)); // Set the courses list
+            adminInstance.setCourses(new CourseCatalog(courses)); // Set the courses list
             adminInstance.setProfessors(professors); // Set the professors list
             adminInstance.manageAdminOperations(scanner);
         } else {
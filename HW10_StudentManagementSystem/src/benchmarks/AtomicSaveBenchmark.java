@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import files.AtomicFileWriter;
+import files.AtomicFileWriter.Durability;
+
+/**
+ * Measures how long an atomic save of a student file takes in each durability mode.
+ *
+ * Usage: java benchmarks.AtomicSaveBenchmark [rows] [iterations]
+ */
+public class AtomicSaveBenchmark {
+    private static final int WARMUP_ITERATIONS = 10;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        // Benchmark in the working directory rather than /tmp, which is often memory backed
+        Path dir = Files.createTempDirectory(Path.of("").toAbsolutePath(), "atomicSaveBenchmark");
+        try {
+            Path target = dir.resolve("studentinfo.txt");
+            // Build the lines once so only the save itself is timed
+            String[] lines = new String[rows];
+            for (int i = 0; i < rows; i++) {
+                lines[i] = String.format("%06d; Student %d; student%d; password590; CIT591: A, CIT592: Not Graded", i, i, i);
+            }
+            System.out.println("Rows per save: " + rows + ", measured iterations: " + iterations);
+            for (Durability durability : Durability.values()) {
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    save(target, lines, durability);
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    save(target, lines, durability);
+                }
+                double millisPerSave = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+                System.out.printf("%-26s %10.2f ms/save%n", durability, millisPerSave);
+            }
+        } finally {
+            Files.walk(dir)
+                 .sorted(Comparator.reverseOrder())
+                 .map(Path::toFile)
+                 .forEach(File::delete);
+        }
+    }
+
+    private static void save(Path target, String[] lines, Durability durability) throws IOException {
+        try (AtomicFileWriter file = new AtomicFileWriter(target.toString(), durability)) {
+            BufferedWriter writer = file.getWriter();
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+            file.commit();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small time-based benchmark harness in the spirit of JMH, for use without a build tool.
+ *
+ * Each benchmark is warmed up for a fixed time, then measured for a fixed time with at least
+ * MIN_ITERATIONS runs; the average time per run is reported. Results can be saved as CSV and
+ * compared with a saved baseline, flagging every benchmark that got slower than the tolerance.
+ */
+public class BenchmarkRunner {
+    private static final int MIN_ITERATIONS = 2;
+
+    /**
+     * One benchmarked operation. Returns a value derived from its work so it cannot be optimized away.
+     */
+    public interface Task {
+        long run() throws Exception;
+    }
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final Map<String, Double> results = new LinkedHashMap<>();
+    private long sink;
+
+    /**
+     * @param warmupMillis  How long to run each benchmark before measuring.
+     * @param measureMillis How long to measure each benchmark.
+     */
+    public BenchmarkRunner(long warmupMillis, long measureMillis) {
+        this.warmupNanos = warmupMillis * 1_000_000;
+        this.measureNanos = measureMillis * 1_000_000;
+    }
+
+    /**
+     * Runs and reports one benchmark.
+     *
+     * @param name       Unique name of the benchmark, used to match it against a baseline.
+     * @param rowsPerRun Rows processed by one run, for the rows/sec column.
+     * @param task       The operation to time.
+     * @return The average milliseconds per run.
+     * @throws Exception If the task fails.
+     */
+    public double run(String name, long rowsPerRun, Task task) throws Exception {
+        long end = System.nanoTime() + warmupNanos;
+        do {
+            sink += task.run();
+        } while (System.nanoTime() < end);
+
+        int iterations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += task.run();
+            iterations++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < measureNanos || iterations < MIN_ITERATIONS);
+
+        double millisPerRun = elapsed / 1_000_000.0 / iterations;
+        results.put(name, millisPerRun);
+        System.out.printf("%-40s %12.2f ms/op %,16.0f rows/sec  (%d runs)%n",
+                name, millisPerRun, rowsPerRun / (millisPerRun / 1000.0), iterations);
+        return millisPerRun;
+    }
+
+    /**
+     * Writes the results as "name,millisPerRun" lines.
+     *
+     * @param path The CSV file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeResults(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (Map.Entry<String, Double> result : results.entrySet()) {
+                writer.write(result.getKey() + "," + result.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Compares the results with a baseline written by writeResults.
+     *
+     * @param baseline  The baseline CSV file.
+     * @param tolerance Allowed slowdown as a fraction, e.g. 0.2 for 20%.
+     * @return The names of the benchmarks that regressed.
+     * @throws IOException If the baseline cannot be read.
+     */
+    public List<String> compareWithBaseline(Path baseline, double tolerance) throws IOException {
+        List<String> regressions = new ArrayList<>();
+        for (String line : Files.readAllLines(baseline)) {
+            String[] parts = line.split(",");
+            if (parts.length != 2 || !results.containsKey(parts[0])) {
+                continue;
+            }
+            double before = Double.parseDouble(parts[1]);
+            double now = results.get(parts[0]);
+            if (now > before * (1 + tolerance)) {
+                regressions.add(parts[0]);
+                System.out.printf("REGRESSION %-40s %10.2f -> %10.2f ms/op (%+.0f%%)%n",
+                        parts[0], before, now, (now / before - 1) * 100);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * @return The combined value returned by all runs, to print so the work is not optimized away.
+     */
+    public long getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes synthetic courseInfo/studentinfo/profInfo/adminInfo files in the same format as the
+ * files under src/, for use by the benchmarks.
+ */
+public class DataFileGenerator {
+    // Courses a generated student is spread over; keeps rosters realistic when linking
+    private static final int COURSE_SPREAD = 50;
+
+    private final Path courseInfo;
+    private final Path studentInfo;
+    private final Path profInfo;
+    private final Path adminInfo;
+
+    /**
+     * @param dir Directory the four data files are written to.
+     */
+    public DataFileGenerator(Path dir) {
+        this.courseInfo = dir.resolve("courseInfo.txt");
+        this.studentInfo = dir.resolve("studentinfo.txt");
+        this.profInfo = dir.resolve("profInfo.txt");
+        this.adminInfo = dir.resolve("adminInfo.txt");
+    }
+
+    /**
+     * Writes all four files with the given number of rows each.
+     *
+     * @param rows Rows per file.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void writeAll(int rows) throws IOException {
+        writeProfessors(rows);
+        writeCourses(rows);
+        writeStudents(rows);
+        writeAdmins(rows);
+    }
+
+    public void writeProfessors(int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(profInfo)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write("Professor Name" + i + "; " + i + "; prof" + i + "; password590");
+                writer.newLine();
+            }
+        }
+    }
+
+    public void writeCourses(int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(courseInfo)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write("CIT" + i + "; Course Title Number " + i + "; Professor Name" + i + "; MWF; 10:00; 11:30; 72");
+                writer.newLine();
+            }
+        }
+    }
+
+    public void writeStudents(int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(studentInfo)) {
+            for (int i = 0; i < rows; i++) {
+                int course = i % COURSE_SPREAD;
+                writer.write(i + "; Student Name" + i + "; student" + i + "; password590; CIT" + course
+                        + ": A, CIT" + (course + 1) + ": A-, CIT" + (course + 2) + ": Not Graded");
+                writer.newLine();
+            }
+        }
+    }
+
+    public void writeAdmins(int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(adminInfo)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(i + "; admin; admin" + i + "; password590");
+                writer.newLine();
+            }
+        }
+    }
+
+    public Path getCourseInfo() {
+        return courseInfo;
+    }
+
+    public Path getStudentInfo() {
+        return studentInfo;
+    }
+
+    public Path getProfInfo() {
+        return profInfo;
+    }
+
+    public Path getAdminInfo() {
+        return adminInfo;
+    }
+}
@@ -0,0 +1,112 @@
+package benchmarks;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import courses.CourseGradeMap;
+import courses.IdDictionary;
+import courses.IntSet;
+
+/**
+ * Heap used per enrollment by the String based layout (a HashMap of course ID to grade per
+ * student, a HashSet of student IDs per course) compared with the dictionary encoded one
+ * (a CourseGradeMap per student, an IntSet per course).
+ *
+ * Course IDs and grades are fresh Strings for every entry, as they are when parsed from the
+ * student file. Student IDs exist before either layout is built, as they do in Student objects.
+ *
+ * Run with a fixed heap for stable numbers, e.g. java -Xms2g -Xmx2g benchmarks.EnrollmentHeapBenchmark
+ *
+ * Usage: java benchmarks.EnrollmentHeapBenchmark [students] [coursesPerStudent] [courses]
+ */
+public class EnrollmentHeapBenchmark {
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C", "Not Graded"};
+
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int courseCount = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        String[] studentIds = new String[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            studentIds[i] = String.format("%07d", i);
+        }
+        long enrollments = (long) studentCount * perStudent;
+        System.out.printf("Students: %,d, courses: %,d, enrollments: %,d%n", studentCount, courseCount, enrollments);
+
+        long stringBytes = measure(() -> buildStringLayout(studentIds, perStudent, courseCount));
+        report("HashMap/HashSet", stringBytes, enrollments);
+        long encodedBytes = measure(() -> buildEncodedLayout(studentIds, perStudent, courseCount));
+        report("encoded", encodedBytes, enrollments);
+        System.out.printf("Saved %.1f%%%n", 100.0 * (stringBytes - encodedBytes) / stringBytes);
+    }
+
+    private static long measure(Supplier<Object> build) {
+        long before = usedHeap();
+        Object layout = build.get();
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(layout);
+        return bytes;
+    }
+
+    private static Object buildStringLayout(String[] studentIds, int perStudent, int courseCount) {
+        Random random = new Random(42);
+        List<Map<String, String>> students = new ArrayList<>(studentIds.length);
+        List<Set<String>> rosters = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            rosters.add(new HashSet<>());
+        }
+        for (String studentId : studentIds) {
+            Map<String, String> courses = new HashMap<>();
+            for (int j = 0; j < perStudent; j++) {
+                int course = random.nextInt(courseCount);
+                courses.put(new String(courseId(course)), new String(GRADES[random.nextInt(GRADES.length)]));
+                rosters.get(course).add(studentId);
+            }
+            students.add(courses);
+        }
+        return new Object[] {students, rosters};
+    }
+
+    private static Object buildEncodedLayout(String[] studentIds, int perStudent, int courseCount) {
+        Random random = new Random(42);
+        List<Map<String, String>> students = new ArrayList<>(studentIds.length);
+        List<IntSet> rosters = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            rosters.add(new IntSet());
+        }
+        for (String studentId : studentIds) {
+            Map<String, String> courses = new CourseGradeMap(perStudent);
+            for (int j = 0; j < perStudent; j++) {
+                int course = random.nextInt(courseCount);
+                courses.put(new String(courseId(course)), new String(GRADES[random.nextInt(GRADES.length)]));
+                rosters.get(course).add(IdDictionary.STUDENT_IDS.intern(studentId));
+            }
+            students.add(courses);
+        }
+        return new Object[] {students, rosters};
+    }
+
+    private static String courseId(int course) {
+        return "CIS" + (100 + course);
+    }
+
+    private static void report(String name, long bytes, long enrollments) {
+        System.out.printf("%-16s %,14d bytes  %6.1f bytes/enrollment%n", name, bytes, (double) bytes / enrollments);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import files.FileInfoReader;
+import files.FileInfoReader.ReadMode;
+
+/**
+ * Compares the rows/sec of the BUFFERED and MAPPED read modes of FileInfoReader.
+ * Generates data files of the requested size in a temporary directory, then times each read method.
+ *
+ * Usage: java benchmarks.FileInfoReaderBenchmark [rows] [iterations]
+ */
+public class FileInfoReaderBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path dir = Files.createTempDirectory("fileInfoReaderBenchmark");
+        try {
+            DataFileGenerator generator = new DataFileGenerator(dir);
+            generator.writeAll(rows);
+
+            System.out.println("Rows per file: " + rows + ", measured iterations: " + iterations);
+            for (ReadMode mode : ReadMode.values()) {
+                FileInfoReader reader = new FileInfoReader(generator.getCourseInfo().toString(), generator.getStudentInfo().toString(),
+                        generator.getProfInfo().toString(), generator.getAdminInfo().toString(), mode);
+                report(mode, "readCourseInfo", rows, iterations, () -> reader.readCourseInfo().size());
+                report(mode, "readStudentInfo", rows, iterations, () -> reader.readStudentInfo().size());
+                report(mode, "readProfInfo", rows, iterations, () -> reader.readProfInfo().size());
+                report(mode, "readAdminInfo", rows, iterations, () -> reader.readAdminInfo().size());
+            }
+        } finally {
+            Files.walk(dir)
+                 .sorted(Comparator.reverseOrder())
+                 .map(Path::toFile)
+                 .forEach(File::delete);
+        }
+    }
+
+    private interface ReadTask {
+        int run() throws IOException;
+    }
+
+    private static void report(ReadMode mode, String name, int rows, int iterations, ReadTask task) throws IOException {
+        int sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        double rowsPerSecond = (double) rows * iterations / (elapsed / 1_000_000_000.0);
+        System.out.printf("%-8s %-16s %,14.0f rows/sec  (checksum %d)%n", mode, name, rowsPerSecond, sink);
+    }
+}
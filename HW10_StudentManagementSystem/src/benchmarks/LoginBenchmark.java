@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import roles.Student;
+import roles.UsernameIndex;
+
+/**
+ * Login latency with the username index compared with a linear scan of all users.
+ *
+ * Usage: java benchmarks.LoginBenchmark [users] [logins]
+ */
+public class LoginBenchmark {
+
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int logins = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        List<Student> students = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            students.add(new Student(String.format("%07d", i), "Student " + i, "student" + i, "password590", new HashMap<>()));
+        }
+
+        long start = System.nanoTime();
+        UsernameIndex<Student> index = new UsernameIndex<>(students);
+        System.out.printf("Users: %,d, index built in %.1f ms%n", userCount, (System.nanoTime() - start) / 1_000_000.0);
+
+        Random random = new Random(42);
+        report("index", index, students, logins, random, true);
+        // The linear scan is far slower; time fewer logins so the run stays short
+        report("linear scan", index, students, Math.max(20, logins / 5_000), random, false);
+    }
+
+    private static void report(String name, UsernameIndex<Student> index, List<Student> students, int logins, Random random, boolean useIndex) {
+        long[] latencies = new long[logins];
+        int found = 0;
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int i = 0; i < logins; i++) {
+                String username = "student" + random.nextInt(students.size());
+                long start = System.nanoTime();
+                Student student = useIndex ? index.authenticate(username, "password590") : scan(students, username, "password590");
+                latencies[i] = System.nanoTime() - start;
+                found += student != null ? 1 : 0;
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-12s p50 %,12d ns  p99 %,12d ns  max %,12d ns  (%d logins, %d found)%n", name,
+                latencies[logins / 2], latencies[(int) (logins * 0.99)], latencies[logins - 1], logins, found);
+    }
+
+    private static Student scan(List<Student> students, String username, String password) {
+        return students.stream()
+                       .filter(user -> user.getUsername().equals(username) && user.getPassword().equals(password))
+                       .findFirst()
+                       .orElse(null);
+    }
+}
@@ -0,0 +1,139 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+import files.FileInfoReader;
+import files.FileInfoReader.ReadMode;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Load and save throughput of the persistence layer at 10k, 100k and 1M rows per data file.
+ *
+ * For every size, generates course, student, professor and admin files with DataFileGenerator,
+ * then times each FileInfoReader read method in both read modes, the Student save (through
+ * journal compaction) and the three Admin saves. Results can be kept as a baseline and later runs
+ * compared against it; the process exits with status 1 if any benchmark regressed.
+ *
+ * Usage: java benchmarks.PersistenceBenchmark [--sizes 10000,100000,1000000] [--warmup ms] [--measure ms]
+ *        [--out results.csv] [--baseline results.csv] [--tolerance 0.2]
+ */
+public class PersistenceBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String sizes = "10000,100000,1000000";
+        long warmupMillis = 2000;
+        long measureMillis = 3000;
+        String out = null;
+        String baseline = null;
+        double tolerance = 0.2;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1];
+                    break;
+                case "--warmup":
+                    warmupMillis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--measure":
+                    measureMillis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--out":
+                    out = args[i + 1];
+                    break;
+                case "--baseline":
+                    baseline = args[i + 1];
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measureMillis);
+        for (String size : sizes.split(",")) {
+            benchmarkSize(runner, Integer.parseInt(size.trim()));
+        }
+        System.out.println("Checksum: " + runner.getSink());
+
+        if (out != null) {
+            runner.writeResults(Paths.get(out));
+        }
+        if (baseline != null && !runner.compareWithBaseline(Paths.get(baseline), tolerance).isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    private static void benchmarkSize(BenchmarkRunner runner, int rows) throws Exception {
+        Path dir = Files.createTempDirectory("persistenceBenchmark");
+        try {
+            DataFileGenerator generator = new DataFileGenerator(dir);
+            generator.writeAll(rows);
+            System.out.println("--- " + rows + " rows per file ---");
+
+            FileInfoReader reader = null;
+            for (ReadMode mode : ReadMode.values()) {
+                FileInfoReader modeReader = new FileInfoReader(generator.getCourseInfo().toString(), generator.getStudentInfo().toString(),
+                        generator.getProfInfo().toString(), generator.getAdminInfo().toString(), mode);
+                String prefix = "read/" + mode + "/" + rows + "/";
+                runner.run(prefix + "readCourseInfo", rows, () -> modeReader.readCourseInfo().size());
+                runner.run(prefix + "readStudentInfo", rows, () -> modeReader.readStudentInfo().size());
+                runner.run(prefix + "readProfInfo", rows, () -> modeReader.readProfInfo().size());
+                runner.run(prefix + "readAdminInfo", rows, () -> modeReader.readAdminInfo().size());
+                reader = modeReader;
+            }
+
+            List<Course> courses = reader.readCourseInfo();
+            List<Student> students = reader.readStudentInfo();
+            List<Professor> professors = reader.readProfInfo();
+            Admin admin = new Admin("001", "admin", "admin01", "password590");
+            admin.setCourses(new CourseCatalog(courses));
+            admin.setStudents(students);
+            admin.setProfessors(professors);
+
+            // Keep the saves away from the real enrollment journal
+            EnrollmentJournal previousJournal = Student.getEnrollmentJournal();
+            Student.setEnrollmentJournal(new EnrollmentJournal(dir.resolve("studentinfo.journal").toString()));
+            try {
+                String studentOut = dir.resolve("studentinfo.out").toString();
+                String courseOut = dir.resolve("courseinfo.out").toString();
+                String profOut = dir.resolve("profinfo.out").toString();
+                String prefix = "save/" + rows + "/";
+                runner.run(prefix + "Student.saveStudentsToFile", rows,
+                        () -> Student.compactEnrollmentJournal(students, studentOut) ? 1 : 0);
+                runner.run(prefix + "Admin.saveStudentsToFile", rows, () -> {
+                    admin.saveStudentsToFile(studentOut);
+                    return new File(studentOut).length();
+                });
+                runner.run(prefix + "Admin.saveCoursesToFile", rows, () -> {
+                    admin.saveCoursesToFile(courseOut);
+                    return new File(courseOut).length();
+                });
+                runner.run(prefix + "Admin.saveProfessorsToFile", rows, () -> {
+                    admin.saveProfessorsToFile(profOut);
+                    return new File(profOut).length();
+                });
+            } finally {
+                Student.setEnrollmentJournal(previousJournal);
+            }
+        } finally {
+            Files.walk(dir)
+                 .sorted(Comparator.reverseOrder())
+                 .map(Path::toFile)
+                 .forEach(File::delete);
+        }
+    }
+}
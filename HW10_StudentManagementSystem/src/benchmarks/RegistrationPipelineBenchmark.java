@@ -0,0 +1,101 @@
+package benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+import roles.RegistrationPipeline;
+import roles.Student;
+
+/**
+ * Simulates registration opening: many threads add and drop the same few popular courses as fast
+ * as they can, once applying each request on its own thread under the course locks and once
+ * through the single-writer registration pipeline. Every change is journaled to a scratch file.
+ *
+ * Usage: java benchmarks.RegistrationPipelineBenchmark [threads] [requestsPerThread]
+ */
+public class RegistrationPipelineBenchmark {
+    private static final String[] DAYS = {"M", "T", "W", "R"};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int requestsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        List<Course> popular = new ArrayList<>();
+        for (int c = 0; c < DAYS.length; c++) {
+            popular.add(new Course("CIS" + (500 + c), "Popular " + c, "Professor", "P" + c, DAYS[c], "9:00", "10:30", threads * 10));
+        }
+        CourseCatalog catalog = new CourseCatalog(popular);
+        List<Student> students = new ArrayList<>();
+        for (int s = 0; s < threads * 10; s++) {
+            students.add(new Student(String.format("R%06d", s), "Student " + s, "r" + s, "password590", new HashMap<>()));
+        }
+
+        // Journal in the working directory rather than /tmp, which is often memory backed
+        Path dir = Files.createTempDirectory(Path.of("").toAbsolutePath(), "registrationPipelineBenchmark");
+        Path journal = dir.resolve("studentinfo.journal");
+        EnrollmentJournal original = Student.getEnrollmentJournal();
+        // Never compacted, so the student file is not rewritten during the run
+        Student.setEnrollmentJournal(new EnrollmentJournal(journal.toString(), Integer.MAX_VALUE));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long requests = (long) threads * requestsPerThread;
+        System.out.printf("Threads: %d, requests per run: %,d, popular courses: %d%n", threads, requests, popular.size());
+
+        BenchmarkRunner runner = new BenchmarkRunner(2_000, 5_000);
+        BenchmarkRunner.Task burst = () -> {
+            List<Callable<Long>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                tasks.add(() -> {
+                    long added = 0;
+                    for (int i = 0; i < requestsPerThread / 2; i++) {
+                        Student student = students.get(thread * 10 + i % 10);
+                        String courseId = popular.get(i % popular.size()).getCourseId();
+                        if (student.addCourse(catalog, students, courseId).equals("Course added successfully.")) {
+                            added++;
+                        }
+                        student.dropCourse(catalog, students, courseId, "unused");
+                    }
+                    return added;
+                });
+            }
+            long added = 0;
+            for (Future<Long> result : executor.invokeAll(tasks)) {
+                added += result.get();
+            }
+            Files.write(journal, new byte[0]);
+            return added;
+        };
+
+        try {
+            runner.run("registration/locks", requests, burst);
+
+            RegistrationPipeline pipeline = new RegistrationPipeline();
+            Student.setRegistrationPipeline(pipeline);
+            runner.run("registration/pipeline", requests, burst);
+            Student.setRegistrationPipeline(null);
+            pipeline.close();
+            System.out.printf("Pipeline: %,d requests in %,d batches (%.1f per batch)%n",
+                    pipeline.getAppliedCount(), pipeline.getBatchCount(),
+                    (double) pipeline.getAppliedCount() / pipeline.getBatchCount());
+            System.out.println("(checksum " + runner.getSink() + ")");
+        } finally {
+            executor.shutdown();
+            Student.setEnrollmentJournal(original);
+            for (File file : dir.toFile().listFiles()) {
+                file.delete();
+            }
+            dir.toFile().delete();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import courses.Course;
+
+/**
+ * Walks every roster of a catalog of full courses, once through the copying getEnrolledStudents
+ * and once through the shared roster snapshots, and reports the time and the bytes allocated per
+ * walk of all rosters.
+ *
+ * Usage: java benchmarks.RosterBenchmark [courses] [seats]
+ */
+public class RosterBenchmark {
+    public static void main(String[] args) throws Exception {
+        int courseCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int c = 0; c < courseCount; c++) {
+            Course course = new Course("CIS" + c, "Course " + c, "Professor", "P" + c, "MW", "9:00", "10:30", seats);
+            for (int s = 0; s < seats; s++) {
+                course.addStudent(String.format("%07d", c * 31 + s));
+            }
+            courses.add(course);
+        }
+        long enrollments = (long) courseCount * seats;
+        System.out.printf("Courses: %,d, seats per course: %d%n", courseCount, seats);
+
+        BenchmarkRunner runner = new BenchmarkRunner(1_000, 3_000);
+        BenchmarkRunner.Task copying = () -> {
+            long length = 0;
+            for (Course course : courses) {
+                for (String studentId : course.getEnrolledStudents()) {
+                    length += studentId.length();
+                }
+            }
+            return length;
+        };
+        BenchmarkRunner.Task snapshots = () -> {
+            long length = 0;
+            for (Course course : courses) {
+                for (String studentId : course.getRosterSnapshot()) {
+                    length += studentId.length();
+                }
+            }
+            return length;
+        };
+        BenchmarkRunner.Task forEach = () -> {
+            AtomicLong length = new AtomicLong();
+            for (Course course : courses) {
+                course.forEachEnrolledStudent(studentId -> length.addAndGet(studentId.length()));
+            }
+            return length.get();
+        };
+
+        runner.run("rosters/getEnrolledStudents", enrollments, copying);
+        runner.run("rosters/getRosterSnapshot", enrollments, snapshots);
+        runner.run("rosters/forEachEnrolledStudent", enrollments, forEach);
+
+        reportAllocation("getEnrolledStudents", copying);
+        reportAllocation("getRosterSnapshot", snapshots);
+        reportAllocation("forEachEnrolledStudent", forEach);
+        System.out.println("(checksum " + runner.getSink() + ")");
+    }
+
+    private static void reportAllocation(String name, BenchmarkRunner.Task task) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int walks = 20;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < walks; i++) {
+            task.run();
+        }
+        long bytes = (threads.getThreadAllocatedBytes(threadId) - before) / walks;
+        System.out.printf("%-24s %,14d bytes allocated per walk of all rosters%n", name, bytes);
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import courses.Course;
+import files.DataSnapshot;
+import files.FileChangeTracker.FileStamp;
+import files.FileInfoReader;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * Compares a cold start from the text data files with a start from the binary DataSnapshot.
+ *
+ * Usage: java benchmarks.SnapshotBenchmark [students] [iterations]
+ */
+public class SnapshotBenchmark {
+    private static final int COURSES = 1_000;
+    private static final int ADMINS = 10;
+
+    public static void main(String[] args) throws IOException {
+        int studentRows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Path dir = Files.createTempDirectory("snapshotBenchmark");
+        try {
+            DataFileGenerator generator = new DataFileGenerator(dir);
+            generator.writeProfessors(COURSES);
+            generator.writeCourses(COURSES);
+            generator.writeStudents(studentRows);
+            generator.writeAdmins(ADMINS);
+            String snapshotPath = dir.resolve("data.snapshot").toString();
+
+            Map<String, FileStamp> stamps = new LinkedHashMap<>();
+            for (Path path : List.of(generator.getCourseInfo(), generator.getStudentInfo(), generator.getProfInfo(), generator.getAdminInfo())) {
+                stamps.put(path.toString(), FileStamp.of(path.toString()));
+            }
+
+            long textNanos = Long.MAX_VALUE;
+            long snapshotNanos = Long.MAX_VALUE;
+            for (int i = 0; i <= iterations; i++) {
+                long start = System.nanoTime();
+                FileInfoReader reader = new FileInfoReader(generator.getCourseInfo().toString(), generator.getStudentInfo().toString(),
+                        generator.getProfInfo().toString(), generator.getAdminInfo().toString());
+                List<Course> courses = reader.readCourseInfo();
+                List<Student> students = reader.readStudentInfo();
+                List<Professor> professors = reader.readProfInfo();
+                List<Admin> admins = reader.readAdminInfo();
+                textNanos = Math.min(textNanos, System.nanoTime() - start);
+
+                if (i == 0) {
+                    new DataSnapshot(courses, students, professors, admins, stamps).write(snapshotPath);
+                }
+
+                start = System.nanoTime();
+                DataSnapshot snapshot = DataSnapshot.readIfFresh(snapshotPath);
+                snapshotNanos = Math.min(snapshotNanos, System.nanoTime() - start);
+                if (snapshot == null || snapshot.getStudents().size() != students.size()) {
+                    throw new IllegalStateException("Snapshot did not round-trip");
+                }
+            }
+
+            System.out.println("Students: " + studentRows + ", snapshot size: " + new File(snapshotPath).length() / 1024 + " KiB"
+                    + ", text size: " + generator.getStudentInfo().toFile().length() / 1024 + " KiB");
+            System.out.printf("Text files    best of %d: %,8d ms%n", iterations, textNanos / 1_000_000);
+            System.out.printf("Data snapshot best of %d: %,8d ms%n", iterations, snapshotNanos / 1_000_000);
+        } finally {
+            Files.walk(dir)
+                 .sorted(Comparator.reverseOrder())
+                 .map(Path::toFile)
+                 .forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import courses.CourseGradeMap;
+import roles.Student;
+import roles.StudentStore;
+
+/**
+ * Heap used per student when students are kept as Student objects compared with the columnar
+ * StudentStore, whose rows keep a flyweight Student view each.
+ *
+ * Run with a fixed heap for stable numbers, e.g. java -Xms4g -Xmx4g benchmarks.StudentStoreBenchmark
+ *
+ * Usage: java benchmarks.StudentStoreBenchmark [students] [coursesPerStudent]
+ */
+public class StudentStoreBenchmark {
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C", "Not Graded"};
+
+    public static void main(String[] args) {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        System.out.printf("Students: %,d, courses per student: %d%n", studentCount, perStudent);
+
+        long objectBytes = measure(() -> {
+            List<Student> students = new ArrayList<>(studentCount);
+            for (int i = 0; i < studentCount; i++) {
+                students.add(newStudent(i, perStudent));
+            }
+            return students;
+        });
+        report("objects", objectBytes, studentCount);
+
+        long columnarBytes = measure(() -> {
+            StudentStore store = new StudentStore();
+            List<Student> students = store.asList();
+            for (int i = 0; i < studentCount; i++) {
+                students.add(newStudent(i, perStudent));
+            }
+            return store;
+        });
+        report("columnar", columnarBytes, studentCount);
+    }
+
+    private static Student newStudent(int i, int perStudent) {
+        Random random = new Random(i);
+        Map<String, String> courses = new CourseGradeMap(perStudent);
+        for (int j = 0; j < perStudent; j++) {
+            courses.put("CIS" + (100 + random.nextInt(2_000)), GRADES[random.nextInt(GRADES.length)]);
+        }
+        return new Student(String.format("%07d", i), "Student Name " + i, "student" + i, "password" + i, courses);
+    }
+
+    private static long measure(Supplier<Object> build) {
+        long before = usedHeap();
+        Object built = build.get();
+        long bytes = usedHeap() - before;
+        Reference.reachabilityFence(built);
+        return bytes;
+    }
+
+    private static void report(String name, long bytes, int students) {
+        System.out.printf("%-16s %,14d bytes  %6.1f bytes/student%n", name, bytes, (double) bytes / students);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import courses.Course;
+import courses.CourseCatalog;
+import courses.EnrollmentIndex;
+import roles.Student;
+
+/**
+ * Promotes students from the waitlist of a one-seat course, with lines of growing length: each
+ * step drops the seated student, which hands the seat to the first in line, and puts the dropped
+ * student at the back. The time per promotion should not grow with the length of the line.
+ *
+ * Usage: java benchmarks.WaitlistBenchmark [promotionsPerRun]
+ */
+public class WaitlistBenchmark {
+    public static void main(String[] args) throws Exception {
+        int promotions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+
+        BenchmarkRunner runner = new BenchmarkRunner(1_000, 3_000);
+        for (int waiting : new int[] {1_000, 10_000, 100_000}) {
+            Course course = new Course("CIS" + waiting, "Hot Course", "Professor", "P1", "MW", "9:00", "10:30", 1);
+            EnrollmentIndex enrollments = new CourseCatalog(List.of(course)).getEnrollments();
+            List<Student> students = new ArrayList<>(waiting + 1);
+            for (int s = 0; s <= waiting; s++) {
+                students.add(new Student(String.format("W%07d", s), "Student " + s, "w" + s, "password590", new HashMap<>()));
+            }
+            enrollments.enroll(students.get(0), course, "Not Graded");
+            for (int s = 1; s <= waiting; s++) {
+                enrollments.joinWaitlist(students.get(s), course);
+            }
+
+            runner.run("waitlist/promote " + waiting + " waiting", promotions, () -> {
+                long promoted = 0;
+                for (int i = 0; i < promotions; i++) {
+                    Student seated = enrollments.getStudents(course).get(0);
+                    enrollments.drop(seated, course);
+                    enrollments.joinWaitlist(seated, course);
+                    promoted += enrollments.getStudents(course).size();
+                }
+                return promoted;
+            });
+            System.out.printf("%-40s %,d waiting%n", "", enrollments.getWaitlistSize(course));
+        }
+        System.out.println("(checksum " + runner.getSink() + ")");
+    }
+}
@@ -1,11 +1,23 @@
 package courses;
 
+import java.util.AbstractSet;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A course, its meeting times and its roster.
+ *
+ * The roster is an immutable RosterSnapshot swapped with compare-and-set: enrolling or dropping a
+ * student builds the next snapshot and installs it only if no one else changed the roster in the
+ * meantime, retrying otherwise. The capacity check and the membership check are made against the
+ * same snapshot that is replaced, so concurrent enrollments never take more seats than the course
+ * has and never enroll the same student twice, without taking a lock.
+ */
 public class Course {
     private String courseId;
     private String courseName;
@@ -14,9 +26,18 @@ public class Course {
     private String days;
     private String startTime;
     private String endTime;
-    private int capacity;
-    private Set<String> enrolledStudents; // Store student IDs
+    private volatile int capacity;
+    private final AtomicReference<RosterSnapshot> enrolledStudents = new AtomicReference<>(RosterSnapshot.EMPTY);
+    private final Set<String> roster = new RosterView();
+    private volatile MeetingPattern meetingPattern; // days, startTime and endTime, parsed
+    // Version of the fields above except the roster, for optimistic edits; retired when the course is deleted
+    private final VersionStamp version = new VersionStamp();
+
+    private static final AtomicInteger meetingTimesVersion = new AtomicInteger();
 
+    /**
+     * @throws IllegalArgumentException If the days or times are malformed; see MeetingPattern.
+     */
     public Course(String courseId, String courseName, String professorName, String professorId, String days, String startTime, String endTime, int capacity) {
         this.courseId = courseId;
         this.courseName = courseName;
@@ -25,8 +46,8 @@ public class Course {
         this.days = days;
         this.startTime = startTime;
         this.endTime = endTime;
+        this.meetingPattern = MeetingPattern.parse(days, startTime, endTime);
         this.capacity = capacity;
-        this.enrolledStudents = new HashSet<>();
     }
     // Override the toString method
     @Override
@@ -39,34 +60,57 @@ public class Course {
                ", endTime='" + endTime.trim() + '\'' +
                '}';
     }
+    /**
+     * Takes a seat for a student, if one is free.
+     *
+     * @param studentId The student's ID.
+     * @return true if the student got a seat, false if the ID is empty, the course is full or the student already has a seat.
+     */
     public boolean addStudent(String studentId) {
         if (studentId == null || studentId.isEmpty()) {
             return false; // Return false for invalid IDs
         }
 
-        if (enrolledStudents.size() < capacity) {
-            return enrolledStudents.add(studentId);
+        int code = IdDictionary.STUDENT_IDS.intern(studentId);
+        while (true) {
+            RosterSnapshot current = enrolledStudents.get();
+            if (current.size() >= capacity || current.containsCode(code)) {
+                return false;
+            }
+            if (enrolledStudents.compareAndSet(current, current.with(code))) {
+                return true;
+            }
         }
-
-        return false;
     }
 
+    /**
+     * Frees a student's seat.
+     *
+     * @param studentId The student's ID.
+     * @return true if the student had a seat.
+     */
     public boolean removeStudent(String studentId) {
-        return enrolledStudents.remove(studentId);
+        int code = IdDictionary.STUDENT_IDS.lookup(studentId);
+        while (true) {
+            RosterSnapshot current = enrolledStudents.get();
+            if (!current.containsCode(code)) {
+                return false;
+            }
+            if (enrolledStudents.compareAndSet(current, current.without(code))) {
+                return true;
+            }
+        }
     }
     
     public void enrollStudent(String studentId) {
-        if (enrolledStudents.size() < capacity) {
-            enrolledStudents.add(studentId);
-            // Additional logic if needed
-        } else {
+        if (!addStudent(studentId) && !isStudentEnrolled(studentId)) {
             System.out.println("Course is full. Cannot enroll student.");
         }
     }
 
     public void unenrollStudent(String studentId) {
-        if (enrolledStudents.contains(studentId)) {
-            enrolledStudents.remove(studentId);
+        if (isStudentEnrolled(studentId)) {
+            removeStudent(studentId);
             // Additional logic if needed
         } else {
             System.out.println("Student not enrolled in this course.");
@@ -74,8 +118,45 @@ public class Course {
     }
 
 
+    /**
+     * @return A new, modifiable copy of the IDs of the enrolled students. To read the roster without
+     *         copying it, use getRoster or getRosterSnapshot.
+     */
     public Set<String> getEnrolledStudents() {
-        return new HashSet<>(enrolledStudents); // Return a copy to preserve encapsulation
+        // Return a copy to preserve encapsulation
+        Set<String> studentIds = new HashSet<>();
+        getRosterSnapshot().forEach(studentIds::add);
+        return studentIds;
+    }
+
+    /**
+     * Returns the roster as a read-only Set that follows enrollments and drops. Its size and
+     * contains are answered from the roster itself; its iterators walk the snapshot current when
+     * they were created, so they never fail or see a change half made.
+     *
+     * @return The IDs of the enrolled students, a view that cannot be modified.
+     */
+    public Set<String> getRoster() {
+        return roster;
+    }
+
+    /**
+     * Returns the IDs of the students enrolled right now. The snapshot is the roster itself, shared
+     * by every caller until the roster next changes, so getting it allocates nothing.
+     *
+     * @return The enrolled students, an unmodifiable List that later changes do not affect.
+     */
+    public RosterSnapshot getRosterSnapshot() {
+        return enrolledStudents.get();
+    }
+
+    /**
+     * Calls the action for the ID of each enrolled student, as of the current roster snapshot.
+     *
+     * @param action The action to call.
+     */
+    public void forEachEnrolledStudent(Consumer<? super String> action) {
+        getRosterSnapshot().forEach(action);
     }
     
     /**
@@ -85,72 +166,62 @@ public class Course {
      * @param newEndTime   The end time of the new course.
      * @param newDays      The days the new course will take place.
      * @return true if there is a time conflict, false otherwise.
+     * @throws IllegalArgumentException If the given days or times are malformed.
      */
     public boolean hasTimeConflict(String newStartTime, String newEndTime, String newDays) {
-        // Check for day overlap first
-        if (!daysOverlap(this.days, newDays)) {
-            return false; // No day overlap, so no time conflict
-        }
-
-        // Check for time overlap
-        for (char day : newDays.toCharArray()) {
-            if (this.days.indexOf(day) != -1) {
-                if (timePeriodsOverlap(this.startTime, this.endTime, newStartTime, newEndTime)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return hasTimeConflict(MeetingPattern.parse(newDays, newStartTime, newEndTime));
     }
 
     /**
-     * Determines if the days of two courses overlap.
+     * Checks if this course has a time conflict with another course.
      *
-     * @param days1 The days of the first course.
-     * @param days2 The days of the second course.
-     * @return true if the days overlap, false otherwise.
-     */
-    private boolean daysOverlap(String days1, String days2) {
-        for (char day : days2.toCharArray()) {
-            if (days1.indexOf(day) != -1) {
-                return true; // Found a common day
-            }
-        }
-        return false;
+     * @param other The other course.
+     * @return true if there is a time conflict, false otherwise.
+     */
+    public boolean hasTimeConflict(Course other) {
+        return meetingPattern.overlaps(other.meetingPattern);
     }
 
     /**
-     * Determines if two time periods overlap.
+     * Checks if this course has a time conflict with a meeting pattern parsed beforehand, e.g. once
+     * for a new course that is checked against many existing ones.
      *
-     * @param startTime1 First period start time.
-     * @param endTime1   First period end time.
-     * @param startTime2 Second period start time.
-     * @param endTime2   Second period end time.
-     * @return true if periods overlap, false otherwise.
+     * @param pattern The meeting pattern.
+     * @return true if there is a time conflict, false otherwise.
      */
-    private boolean timePeriodsOverlap(String startTime1, String endTime1, String startTime2, String endTime2) {
-        int start1 = timeToInt(startTime1);
-        int end1 = timeToInt(endTime1);
-        int start2 = timeToInt(startTime2);
-        int end2 = timeToInt(endTime2);
+    public boolean hasTimeConflict(MeetingPattern pattern) {
+        return meetingPattern.overlaps(pattern);
+    }
 
-        // Check if one period starts during the other
-        return (start1 <= end2 && end1 >= start2);
+    /**
+     * @return The days and times of this course, parsed.
+     */
+    public MeetingPattern getMeetingPattern() {
+        return meetingPattern;
     }
 
+    /**
+     * @return The weekly slots this course occupies.
+     */
+    public WeeklySchedule getWeeklySchedule() {
+        return meetingPattern.getWeeklySchedule();
+    }
 
     /**
-     * Converts a time string in "HH:mm" format to an integer representing minutes since midnight.
+     * Counts changes to the meeting days or times of any course, so a cached schedule built from
+     * courses can tell whether it is still current.
      *
-     * @param time The time string.
-     * @return The number of minutes since midnight.
+     * @return A number that changes whenever a meeting time is set.
      */
-    private int timeToInt(String time) {
-        String[] parts = time.trim().split(":"); // Trim the time string before splitting
-        int hours = Integer.parseInt(parts[0]);
-        int minutes = Integer.parseInt(parts[1]);
-        return hours * 60 + minutes; // Convert time to minutes since midnight
+    public static int getMeetingTimesVersion() {
+        return meetingTimesVersion.get();
+    }
+
+    private void setMeetingPattern(MeetingPattern pattern) {
+        meetingPattern = pattern;
+        meetingTimesVersion.incrementAndGet();
     }
+
     
    
     private List<Course> allCourses;
@@ -167,7 +238,7 @@ public class Course {
 
     // Check if a student is enrolled in the course
     public boolean isStudentEnrolled(String studentId) {
-        return enrolledStudents.contains(studentId);
+        return enrolledStudents.get().containsCode(IdDictionary.STUDENT_IDS.lookup(studentId));
     }
 
     // Getters and setters for all fields
@@ -213,24 +284,58 @@ public class Course {
         return days;
     }
 
+    /**
+     * @param days The new days.
+     * @throws IllegalArgumentException If it is malformed; the course is then unchanged.
+     */
     public void setDays(String days) {
+        MeetingPattern pattern = MeetingPattern.parse(days, startTime, endTime);
         this.days = days;
+        setMeetingPattern(pattern);
     }
 
     public String getStartTime() {
         return startTime;
     }
 
+    /**
+     * @param startTime The new start time.
+     * @throws IllegalArgumentException If it is malformed; the course is then unchanged.
+     */
     public void setStartTime(String startTime) {
+        MeetingPattern pattern = MeetingPattern.parse(days, startTime, endTime);
         this.startTime = startTime;
+        setMeetingPattern(pattern);
     }
 
     public String getEndTime() {
         return endTime;
     }
 
+    /**
+     * @param endTime The new end time.
+     * @throws IllegalArgumentException If it is malformed; the course is then unchanged.
+     */
     public void setEndTime(String endTime) {
+        MeetingPattern pattern = MeetingPattern.parse(days, startTime, endTime);
         this.endTime = endTime;
+        setMeetingPattern(pattern);
+    }
+
+    /**
+     * Sets the days and both times together, so no one sees a mix of old and new.
+     *
+     * @param days      The new days.
+     * @param startTime The new start time.
+     * @param endTime   The new end time.
+     * @throws IllegalArgumentException If any is malformed; the course is then unchanged.
+     */
+    public void setMeetingTimes(String days, String startTime, String endTime) {
+        MeetingPattern pattern = MeetingPattern.parse(days, startTime, endTime);
+        this.days = days;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        setMeetingPattern(pattern);
     }
 
     public int getCapacity() {
@@ -242,7 +347,41 @@ public class Course {
     }
 
     public int getCurrentEnrollment() {
-        return enrolledStudents.size();
+        return enrolledStudents.get().size();
+    }
+
+    /**
+     * @return The version of the course's details, for optimistic edits. The roster is not covered;
+     *         it changes through its own compare-and-set.
+     */
+    public VersionStamp getVersion() {
+        return version;
+    }
+
+    /**
+     * The read-only roster returned by getRoster.
+     */
+    private final class RosterView extends AbstractSet<String> {
+        @Override
+        public int size() {
+            return getCurrentEnrollment();
+        }
+
+        @Override
+        public boolean contains(Object studentId) {
+            return studentId instanceof String && isStudentEnrolled((String) studentId);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            // The snapshot is unmodifiable, so its iterator already refuses remove
+            return getRosterSnapshot().iterator();
+        }
+
+        @Override
+        public void forEach(Consumer<? super String> action) {
+            getRosterSnapshot().forEach(action);
+        }
     }
 }
 
@@ -0,0 +1,205 @@
+package courses;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * All courses offered, in file order, indexed by course ID.
+ *
+ * The catalog is a List, so it can be iterated, merged and saved like the plain course list it
+ * replaces, and keeps a hash index in step with every add and remove so findById takes constant
+ * time however many courses there are. If several courses share an ID, findById returns the
+ * first one in list order, like the stream().filter(...).findFirst() lookups it replaces.
+ *
+ * The index is keyed by the ID a course had when it was added; change the ID of a catalog
+ * course through changeCourseId, not Course.setCourseId.
+ *
+ * Each catalog carries the EnrollmentIndex of its courses. Removing a course from the list does
+ * not unlink it there, since merges replace the list with one holding mostly the same courses
+ * (see setAll); a course that is really gone has to be passed to EnrollmentIndex.unlinkCourse.
+ *
+ * Courses are looked up far more often than they are added or removed, and from many sessions at
+ * once, so the list is copy-on-write and the index a ConcurrentHashMap: lookups and iteration take
+ * no lock and never fail because of a concurrent change, while changes are made one at a time.
+ * Iterators walk the courses as they were when the iterator was created.
+ */
+public class CourseCatalog extends AbstractList<Course> implements RandomAccess {
+    // Each replaced in one step by setAll; between the two a lookup may still find a course just removed
+    private volatile List<Course> courses;
+    private volatile Map<String, Course> coursesById;
+    private final EnrollmentIndex enrollments = new EnrollmentIndex();
+    private volatile int version;
+
+    public CourseCatalog() {
+        this.courses = new CopyOnWriteArrayList<>();
+        this.coursesById = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a catalog holding the given courses in order.
+     *
+     * @param courses The courses to index.
+     */
+    public CourseCatalog(Collection<Course> courses) {
+        this.courses = new CopyOnWriteArrayList<>(courses);
+        this.coursesById = new ConcurrentHashMap<>((int) (courses.size() / 0.75f) + 1);
+        for (Course course : this.courses) {
+            coursesById.putIfAbsent(course.getCourseId(), course);
+        }
+    }
+
+    /**
+     * Finds a course by its ID.
+     *
+     * @param courseId The ID of the course to find.
+     * @return The course, or null if there is none with this ID.
+     */
+    public Course findById(String courseId) {
+        return coursesById.get(courseId);
+    }
+
+    /**
+     * @param courseId A course ID.
+     * @return true if a course with this ID is in the catalog.
+     */
+    public boolean containsId(String courseId) {
+        return coursesById.containsKey(courseId);
+    }
+
+    /**
+     * @return Who is enrolled in the courses of this catalog.
+     */
+    public EnrollmentIndex getEnrollments() {
+        return enrollments;
+    }
+
+    /**
+     * @return A number that changes whenever a course is added, removed, replaced or given a new ID.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Changes the ID of a course in the catalog and moves it in the index.
+     *
+     * @param course   A course in this catalog.
+     * @param courseId The new ID.
+     */
+    public synchronized void changeCourseId(Course course, String courseId) {
+        unindex(course);
+        course.setCourseId(courseId);
+        coursesById.putIfAbsent(courseId, course);
+        version++;
+    }
+
+    @Override
+    public Course get(int index) {
+        return courses.get(index);
+    }
+
+    @Override
+    public int size() {
+        return courses.size();
+    }
+
+    @Override
+    public Iterator<Course> iterator() {
+        return courses.iterator();
+    }
+
+    @Override
+    public synchronized boolean add(Course course) {
+        add(courses.size(), course);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object course) {
+        int index = courses.indexOf(course);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized Course set(int index, Course course) {
+        Course previous = courses.set(index, course);
+        unindex(previous);
+        coursesById.putIfAbsent(course.getCourseId(), course);
+        version++;
+        return previous;
+    }
+
+    @Override
+    public synchronized void add(int index, Course course) {
+        courses.add(index, course);
+        Course indexed = coursesById.get(course.getCourseId());
+        // Keep the index pointing at the first course with this ID
+        if (indexed == null || (index < courses.size() - 1 && courses.indexOf(indexed) > index)) {
+            coursesById.put(course.getCourseId(), course);
+        }
+        modCount++;
+        version++;
+    }
+
+    @Override
+    public synchronized Course remove(int index) {
+        Course removed = courses.remove(index);
+        unindex(removed);
+        modCount++;
+        version++;
+        return removed;
+    }
+
+    @Override
+    public synchronized void clear() {
+        courses.clear();
+        coursesById.clear();
+        modCount++;
+        version++;
+    }
+
+    /**
+     * Replaces all courses at once: iterators and get see either the courses before or the courses
+     * after, never an empty or half filled catalog. Courses in both keep being found by ID throughout.
+     *
+     * @param replacement The new courses, in order.
+     */
+    public synchronized void setAll(Collection<Course> replacement) {
+        List<Course> replacementCourses = new CopyOnWriteArrayList<>(replacement);
+        Map<String, Course> replacementIndex = new ConcurrentHashMap<>((int) (replacementCourses.size() / 0.75f) + 1);
+        for (Course course : replacementCourses) {
+            replacementIndex.putIfAbsent(course.getCourseId(), course);
+        }
+        courses = replacementCourses;
+        coursesById = replacementIndex;
+        modCount++;
+        version++;
+    }
+
+    /**
+     * Drops a course from the index, promoting the next course with the same ID if there is one.
+     */
+    private void unindex(Course course) {
+        String courseId = course.getCourseId();
+        if (coursesById.get(courseId) != course) {
+            return;
+        }
+        coursesById.remove(courseId);
+        for (Course other : courses) {
+            if (other != course && courseId.equals(other.getCourseId())) {
+                coursesById.put(courseId, other);
+                break;
+            }
+        }
+    }
+}
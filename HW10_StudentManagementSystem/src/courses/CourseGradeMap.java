@@ -0,0 +1,351 @@
+package courses;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A student's courses and grades, stored as an int array of course ID codes
+ * (IdDictionary.COURSE_IDS) and a parallel byte array of Grade codes instead of a HashMap of
+ * Strings. A grade that is not a known Grade is kept as text on the side.
+ *
+ * A student takes a handful of courses, so lookups scan the array; there are no entry objects
+ * and no per-student copies of the ID and grade Strings. Entries keep the order they were added in.
+ * Seen from outside it is an ordinary mutable Map of course ID to grade.
+ *
+ * The map keeps its GPA totals, the number of courses with a grade that counts toward a GPA and
+ * the sum of their grade points, up to date on every change, so asking for the GPA does not
+ * look at the grades again.
+ */
+public class CourseGradeMap extends AbstractMap<String, String> {
+    private static final byte NO_GRADE = -1;
+    private static final byte OTHER_GRADE = -2;
+
+    private int[] courseCodes;
+    private byte[] gradeCodes;
+    private String[] otherGrades; // Grades that are not a known Grade, by index; allocated on first use
+    private int size;
+    private int gpaCourses;
+    private int gpaPoints;
+    private int modCount;
+    private Set<Map.Entry<String, String>> entrySet;
+
+    public CourseGradeMap() {
+        this(4);
+    }
+
+    /**
+     * @param expected The number of courses the map should hold without growing.
+     */
+    public CourseGradeMap(int expected) {
+        courseCodes = new int[Math.max(expected, 1)];
+        gradeCodes = new byte[courseCodes.length];
+    }
+
+    /**
+     * Creates a map holding the entries of another one, in its iteration order.
+     *
+     * @param courses Course IDs and grades.
+     */
+    public CourseGradeMap(Map<String, String> courses) {
+        this(courses.size());
+        putAll(courses);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object courseId) {
+        return indexOf(courseId) >= 0;
+    }
+
+    @Override
+    public String get(Object courseId) {
+        int index = indexOf(courseId);
+        return index < 0 ? null : grade(index);
+    }
+
+    @Override
+    public String put(String courseId, String grade) {
+        int courseCode = IdDictionary.COURSE_IDS.intern(courseId);
+        for (int i = 0; i < size; i++) {
+            if (courseCodes[i] == courseCode) {
+                String previous = grade(i);
+                uncount(i);
+                setGrade(i, grade);
+                return previous;
+            }
+        }
+        if (size == courseCodes.length) {
+            courseCodes = Arrays.copyOf(courseCodes, size * 2);
+            gradeCodes = Arrays.copyOf(gradeCodes, size * 2);
+            if (otherGrades != null) {
+                otherGrades = Arrays.copyOf(otherGrades, size * 2);
+            }
+        }
+        courseCodes[size] = courseCode;
+        setGrade(size, grade);
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public String remove(Object courseId) {
+        int index = indexOf(courseId);
+        if (index < 0) {
+            return null;
+        }
+        String previous = grade(index);
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        otherGrades = null;
+        gpaCourses = 0;
+        gpaPoints = 0;
+        modCount++;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        int expected = modCount;
+        for (int i = 0; i < size; i++) {
+            action.accept(IdDictionary.COURSE_IDS.name(courseCodes[i]), grade(i));
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * @return A number that changes whenever a course is added or removed, but not when a grade changes.
+     */
+    public int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * @param courseId A course ID.
+     * @return The grade of the course, or null if the student does not take it or its grade is not a known Grade.
+     */
+    public Grade getGrade(String courseId) {
+        int index = indexOf(courseId);
+        return index < 0 || gradeCodes[index] < 0 ? null : Grade.ofCode(gradeCodes[index]);
+    }
+
+    /**
+     * @return The number of courses with a grade that counts toward the GPA.
+     */
+    public int getGpaCourseCount() {
+        return gpaCourses;
+    }
+
+    /**
+     * @return The sum of the grade points of the courses counted toward the GPA, in hundredths.
+     */
+    public int getGradePoints() {
+        return gpaPoints;
+    }
+
+    /**
+     * @return The GPA, or 0 if no course counts toward it.
+     */
+    public double getGpa() {
+        return Grade.gpa(gpaPoints, gpaCourses);
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(Object courseId) {
+        if (!(courseId instanceof String)) {
+            return -1;
+        }
+        int courseCode = IdDictionary.COURSE_IDS.lookup((String) courseId);
+        return courseCode < 0 ? -1 : indexOfCode(courseCode);
+    }
+
+    private int indexOfCode(int courseCode) {
+        for (int i = 0; i < size; i++) {
+            if (courseCodes[i] == courseCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private String grade(int index) {
+        byte gradeCode = gradeCodes[index];
+        if (gradeCode == NO_GRADE) {
+            return null;
+        }
+        return gradeCode == OTHER_GRADE ? otherGrades[index] : Grade.ofCode(gradeCode).getLabel();
+    }
+
+    /**
+     * Stores the grade at an index and adds it to the GPA totals.
+     */
+    private void setGrade(int index, String label) {
+        Grade grade = Grade.parse(label);
+        if (grade != null) {
+            gradeCodes[index] = grade.getCode();
+            if (grade.countsTowardGpa()) {
+                gpaCourses++;
+                gpaPoints += grade.getPoints();
+            }
+        } else if (label == null) {
+            gradeCodes[index] = NO_GRADE;
+        } else {
+            if (otherGrades == null) {
+                otherGrades = new String[gradeCodes.length];
+            }
+            gradeCodes[index] = OTHER_GRADE;
+            otherGrades[index] = label;
+        }
+    }
+
+    /**
+     * Takes the grade at an index out of the GPA totals.
+     */
+    private void uncount(int index) {
+        byte gradeCode = gradeCodes[index];
+        if (gradeCode >= 0 && Grade.ofCode(gradeCode).countsTowardGpa()) {
+            gpaCourses--;
+            gpaPoints -= Grade.ofCode(gradeCode).getPoints();
+        }
+        if (otherGrades != null) {
+            otherGrades[index] = null;
+        }
+    }
+
+    private void removeAt(int index) {
+        uncount(index);
+        int moved = size - index - 1;
+        System.arraycopy(courseCodes, index + 1, courseCodes, index, moved);
+        System.arraycopy(gradeCodes, index + 1, gradeCodes, index, moved);
+        if (otherGrades != null) {
+            System.arraycopy(otherGrades, index + 1, otherGrades, index, moved);
+            otherGrades[size - 1] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, String>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CourseGradeMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+            return new Iterator<Map.Entry<String, String>>() {
+                private int next;
+                private int last = -1;
+                private int expected = modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, String> next() {
+                    if (modCount != expected) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    return new Entry(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    if (modCount != expected) {
+                        throw new ConcurrentModificationException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                    expected = modCount;
+                }
+            };
+        }
+    }
+
+    /**
+     * An entry read through to the arrays, so setValue updates the map.
+     */
+    private final class Entry implements Map.Entry<String, String> {
+        private final int courseCode;
+
+        Entry(int index) {
+            this.courseCode = courseCodes[index];
+        }
+
+        @Override
+        public String getKey() {
+            return IdDictionary.COURSE_IDS.name(courseCode);
+        }
+
+        @Override
+        public String getValue() {
+            int index = indexOfCode(courseCode);
+            return index < 0 ? null : grade(index);
+        }
+
+        @Override
+        public String setValue(String grade) {
+            return put(getKey(), grade);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return getKey().equals(entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            String value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,609 @@
+package courses;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import roles.Student;
+
+/**
+ * Who is enrolled in what, kept in both directions with object references: the students of a
+ * course and the courses of a student are each one lookup away.
+ *
+ * Each student record lists its courses and grades, and each course keeps a roster of student IDs
+ * that enforces its capacity. Every add and drop goes through this index, which updates the roster,
+ * the student's course map and both directions of the index together, so no reader of the index
+ * sees a half applied change.
+ *
+ * Changes lock only the student and the courses involved, through striped locks taken in a fixed
+ * order, so registrations of different students for different courses run in parallel. Callers
+ * that need to check something before changing it, such as a schedule conflict, do both inside
+ * transact.
+ *
+ * Students and courses are matched by identity, the same objects the rest of the program holds.
+ * Every change to a student's course map is a write of the student's VersionStamp, so an admin
+ * editing the student optimistically sees it; deleted students and courses, whose stamps are
+ * retired, are turned away.
+ *
+ * Rosters are read as unmodifiable snapshots: getStudents hands every caller the same List until
+ * the course's roster changes, so walking a roster does not copy it.
+ *
+ * Each course can have a waitlist. While anyone is waiting, enroll turns newcomers away, and a seat
+ * freed by a drop, a swap or a deleted student goes to the first in line once the transaction that
+ * freed it has released its locks. Seats added by raising a course's capacity are handed out the
+ * same way by fillFreeSeats. A promotion locks only the course and the promoted student and
+ * takes constant time however long the line is. Waitlists are kept in memory only.
+ */
+public class EnrollmentIndex {
+    private static final int LOCK_STRIPES = 64;
+
+    // The outer maps are concurrent; each inner set is only changed under the lock of its key
+    private final Map<Course, Set<Student>> studentsByCourse = new ConcurrentHashMap<>();
+    private final Map<Student, Set<Course>> coursesByStudent = new ConcurrentHashMap<>();
+    // Snapshots handed out by getStudents, dropped when the course's roster changes
+    private final Map<Course, List<Student>> rosterSnapshots = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private final Map<Course, Waitlist<Student>> waitlists = new ConcurrentHashMap<>();
+    // The courses each student is waiting for, changed under the lock of both
+    private final Map<Student, Set<Course>> waitlistedByStudent = new ConcurrentHashMap<>();
+    // Courses that had a seat freed in the calling thread's transaction; null outside of one
+    private final ThreadLocal<Set<Course>> freedSeats = new ThreadLocal<>();
+    private volatile BiConsumer<Student, Course> promotionListener = (student, course) -> { };
+
+    /**
+     * Sets what to do when a student is promoted from a waitlist, e.g. journal the enrollment.
+     * Called while the student and the course are locked, before the promotion is visible to others.
+     *
+     * @param listener Takes the promoted student and the course.
+     */
+    public void setPromotionListener(BiConsumer<Student, Course> listener) {
+        this.promotionListener = listener;
+    }
+
+    /**
+     * Runs an action as one registration transaction: while it runs, no other change to the
+     * student or to any of the courses can be made through this index. The action may call the
+     * other methods of the index for the same student and courses, but must not touch others.
+     *
+     * @param student The student.
+     * @param courses The courses involved.
+     * @param action  The checks and changes to make.
+     * @return What the action returned.
+     */
+    public <T> T transact(Student student, Collection<Course> courses, Supplier<T> action) {
+        Object[] keys = new Object[courses.size() + 1];
+        keys[0] = student;
+        int i = 1;
+        for (Course course : courses) {
+            keys[i++] = course;
+        }
+        return locked(keys, action);
+    }
+
+    /**
+     * Enrolls a student in a course if it has a free seat, recording the grade in the student's course map.
+     *
+     * @param student The student.
+     * @param course  The course.
+     * @param grade   The grade to record, e.g. "Not Graded".
+     * @return true if the student got a seat, false if the course is full, has a waitlist, or the
+     *         student is already on its roster, or the student or course has been deleted.
+     */
+    public boolean enroll(Student student, Course course, String grade) {
+        return locked(new Object[] {student, course}, () -> {
+            if (hasWaitlist(course) || course.getVersion().isRetired() || !course.addStudent(student.getId())) {
+                return false;
+            }
+            if (!student.getVersion().write()) {
+                course.removeStudent(student.getId());
+                return false;
+            }
+            try {
+                student.getCourses().put(course.getCourseId(), grade);
+                index(student, course);
+            } finally {
+                student.getVersion().endWrite();
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Drops a student from a course, removing it from the student's course map and freeing the seat.
+     *
+     * @param student The student.
+     * @param course  The course.
+     * @return true if the student's course map listed the course, false if it did not or the
+     *         student has been deleted.
+     */
+    public boolean drop(Student student, Course course) {
+        return locked(new Object[] {student, course}, () -> {
+            if (!student.getVersion().write()) {
+                return false;
+            }
+            try {
+                freeSeat(student, course);
+                unindex(student, course);
+                return student.getCourses().remove(course.getCourseId()) != null;
+            } finally {
+                student.getVersion().endWrite();
+            }
+        });
+    }
+
+    /**
+     * Moves a student from one course to another in one step: the student either ends up in the new
+     * course and out of the old one, or, if the new course has no free seat, keeps the old one.
+     *
+     * @param student The student.
+     * @param from    The course to leave; the student's course map must list it.
+     * @param to      The course to join.
+     * @param grade   The grade to record for the new course, e.g. "Not Graded".
+     * @return true if the student was moved.
+     */
+    public boolean swap(Student student, Course from, Course to, String grade) {
+        return locked(new Object[] {student, from, to}, () -> {
+            if (!student.getCourses().containsKey(from.getCourseId()) || hasWaitlist(to) || to.getVersion().isRetired()
+                    || !to.addStudent(student.getId())) {
+                return false;
+            }
+            if (!student.getVersion().write()) {
+                to.removeStudent(student.getId());
+                return false;
+            }
+            try {
+                freeSeat(student, from);
+                unindex(student, from);
+                student.getCourses().remove(from.getCourseId());
+                student.getCourses().put(to.getCourseId(), grade);
+                index(student, to);
+            } finally {
+                student.getVersion().endWrite();
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Puts a student at the back of a course's waitlist. If the course has a free seat after all, e.g.
+     * because its capacity was raised, the first in line gets it when the caller's transaction ends.
+     *
+     * @param student The student.
+     * @param course  The course.
+     * @return The student's place in line, or 0 if they are on the course's roster or already waiting,
+     *         or the student or course has been deleted.
+     */
+    public int joinWaitlist(Student student, Course course) {
+        return locked(new Object[] {student, course}, () -> {
+            if (course.isStudentEnrolled(student.getId()) || course.getVersion().isRetired() || student.getVersion().isRetired()) {
+                return 0;
+            }
+            Waitlist<Student> waitlist = waitlists.computeIfAbsent(course, key -> new Waitlist<>());
+            if (!waitlist.join(student)) {
+                return 0;
+            }
+            waitlistedByStudent.computeIfAbsent(student, key -> ConcurrentHashMap.newKeySet()).add(course);
+            freedSeats.get().add(course);
+            return waitlist.size();
+        });
+    }
+
+    /**
+     * Gives the free seats of a course to the students waiting for it, e.g. after its capacity was
+     * raised. Inside a transaction the seats are handed out once it has released its locks.
+     *
+     * @param course The course.
+     */
+    public void fillFreeSeats(Course course) {
+        locked(new Object[] {course}, () -> {
+            if (hasWaitlist(course)) {
+                freedSeats.get().add(course);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Takes a student off a course's waitlist.
+     *
+     * @param student The student.
+     * @param course  The course.
+     * @return true if the student was waiting.
+     */
+    public boolean leaveWaitlist(Student student, Course course) {
+        return locked(new Object[] {student, course}, () -> {
+            Waitlist<Student> waitlist = waitlists.get(course);
+            if (waitlist == null || !waitlist.leave(student)) {
+                return false;
+            }
+            forgetWaitlisted(student, course);
+            return true;
+        });
+    }
+
+    /**
+     * @param student A student.
+     * @param course  A course.
+     * @return The student's place in the course's waitlist, 1 for the first in line, or 0 if they are
+     *         not waiting. Walks the line, so it is meant for showing to the student.
+     */
+    public int getWaitlistPosition(Student student, Course course) {
+        Waitlist<Student> waitlist = waitlists.get(course);
+        return waitlist == null ? 0 : waitlist.positionOf(student);
+    }
+
+    /**
+     * @param course A course.
+     * @return The number of students waiting for it.
+     */
+    public int getWaitlistSize(Course course) {
+        Waitlist<Student> waitlist = waitlists.get(course);
+        return waitlist == null ? 0 : waitlist.size();
+    }
+
+    /**
+     * @param student A student.
+     * @return The courses the student is waiting for.
+     */
+    public List<Course> getWaitlistedCourses(Student student) {
+        Set<Course> courses = waitlistedByStudent.get(student);
+        return courses == null ? Collections.emptyList() : new ArrayList<>(courses);
+    }
+
+    /**
+     * Puts a student on the roster of a course that their course map already lists, e.g. after loading.
+     *
+     * @param student The student.
+     * @param course  The course.
+     * @return true if the student got a seat, false if the course is full.
+     */
+    public boolean link(Student student, Course course) {
+        return locked(new Object[] {student, course}, () -> {
+            if (!course.addStudent(student.getId())) {
+                return false;
+            }
+            index(student, course);
+            return true;
+        });
+    }
+
+    /**
+     * Takes a student off the roster of a course without touching their course map.
+     *
+     * @param student The student.
+     * @param course  The course.
+     */
+    public void unlink(Student student, Course course) {
+        locked(new Object[] {student, course}, () -> {
+            course.removeStudent(student.getId());
+            unindex(student, course);
+            return null;
+        });
+    }
+
+    /**
+     * Links every student to the courses their course map lists.
+     *
+     * @param catalog  The courses to link against.
+     * @param students The students.
+     */
+    public void linkAll(CourseCatalog catalog, Collection<Student> students) {
+        for (Student student : students) {
+            for (String courseId : student.getCourses().keySet()) {
+                Course course = catalog.findById(courseId);
+                if (course != null) {
+                    link(student, course);
+                }
+            }
+        }
+    }
+
+    /**
+     * Links a newly added course to every student whose course map lists it.
+     *
+     * @param course   The new course.
+     * @param students All students.
+     */
+    public void linkCourse(Course course, Collection<Student> students) {
+        for (Student student : students) {
+            if (student.getCourses().containsKey(course.getCourseId())) {
+                link(student, course);
+            }
+        }
+    }
+
+    /**
+     * Takes a student off every roster and waitlist, e.g. when the student is deleted. The seats they
+     * free go to the students waiting for them.
+     *
+     * @param student The student.
+     */
+    public void unlinkStudent(Student student) {
+        for (Course course : getWaitlistedCourses(student)) {
+            leaveWaitlist(student, course);
+        }
+        while (true) {
+            // Lock the student with every course they are in; if they joined another course before
+            // the locks were taken, try again with that one included
+            List<Course> courses = getCourses(student);
+            Object[] keys = new Object[courses.size() + 1];
+            keys[0] = student;
+            for (int i = 0; i < courses.size(); i++) {
+                keys[i + 1] = courses.get(i);
+            }
+            boolean done = locked(keys, () -> {
+                Set<Course> current = coursesByStudent.get(student);
+                if (current == null) {
+                    return true;
+                }
+                if (!courses.containsAll(current)) {
+                    return false;
+                }
+                for (Course course : courses) {
+                    freeSeat(student, course);
+                    unindex(student, course);
+                }
+                coursesByStudent.remove(student);
+                return true;
+            });
+            if (done) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forgets a course and its waitlist, e.g. when it is deleted. Student course maps are left as they are.
+     *
+     * @param course The course.
+     */
+    public void unlinkCourse(Course course) {
+        Waitlist<Student> waitlist = waitlists.remove(course);
+        if (waitlist != null) {
+            for (Student student : waitlistedByStudent.keySet()) {
+                locked(new Object[] {student, course}, () -> {
+                    forgetWaitlisted(student, course);
+                    return null;
+                });
+            }
+        }
+        while (true) {
+            List<Student> students = getStudents(course);
+            Object[] keys = new Object[students.size() + 1];
+            keys[0] = course;
+            for (int i = 0; i < students.size(); i++) {
+                keys[i + 1] = students.get(i);
+            }
+            StripedLocks.Hold hold = locks.lock(keys);
+            try {
+                Set<Student> current = studentsByCourse.get(course);
+                if (current != null && !students.containsAll(current)) {
+                    continue;
+                }
+                studentsByCourse.remove(course);
+                rosterSnapshots.remove(course);
+                for (Student student : students) {
+                    Set<Course> courses = coursesByStudent.get(student);
+                    if (courses != null) {
+                        courses.remove(course);
+                        if (courses.isEmpty()) {
+                            coursesByStudent.remove(student);
+                        }
+                    }
+                }
+                return;
+            } finally {
+                hold.unlock();
+            }
+        }
+    }
+
+    /**
+     * @param course A course.
+     * @return The students on the course's roster, in enrollment order, as an unmodifiable snapshot
+     *         that later changes do not affect.
+     */
+    public List<Student> getStudents(Course course) {
+        List<Student> snapshot = rosterSnapshots.get(course);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        StripedLocks.Hold hold = locks.lock(course);
+        try {
+            snapshot = rosterSnapshots.get(course);
+            if (snapshot == null) {
+                Set<Student> students = studentsByCourse.get(course);
+                if (students == null) {
+                    return Collections.emptyList();
+                }
+                snapshot = List.copyOf(students);
+                rosterSnapshots.put(course, snapshot);
+            }
+            return snapshot;
+        } finally {
+            hold.unlock();
+        }
+    }
+
+    /**
+     * @param student A student.
+     * @return The courses whose roster the student is on.
+     */
+    public List<Course> getCourses(Student student) {
+        StripedLocks.Hold hold = locks.lock(student);
+        try {
+            Set<Course> courses = coursesByStudent.get(student);
+            return courses == null ? Collections.emptyList() : new ArrayList<>(courses);
+        } finally {
+            hold.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the roster of a course was filled through this index. A course whose roster was
+     * filled directly with Course.addStudent is not tracked and has to be resolved by student ID.
+     *
+     * @param course A course.
+     * @return true if the index knows the course's roster.
+     */
+    public boolean tracks(Course course) {
+        return studentsByCourse.containsKey(course);
+    }
+
+    /**
+     * Runs an action holding the locks of the given objects. The outermost call on a thread, once it
+     * has released its locks, hands the seats freed meanwhile to the students waiting for them.
+     * Promoting inside the transaction would mean locking students the transaction did not lock
+     * in stripe order.
+     */
+    private <T> T locked(Object[] keys, Supplier<T> action) {
+        boolean outermost = freedSeats.get() == null;
+        if (outermost) {
+            freedSeats.set(new LinkedHashSet<>());
+        }
+        try {
+            StripedLocks.Hold hold = locks.lock(keys);
+            try {
+                return action.get();
+            } finally {
+                hold.unlock();
+            }
+        } finally {
+            if (outermost) {
+                Set<Course> freed = freedSeats.get();
+                freedSeats.remove();
+                for (Course course : freed) {
+                    promote(course);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes a student off a course's roster and, if that freed a seat someone is waiting for,
+     * remembers to promote them; the caller holds the locks of both.
+     */
+    private void freeSeat(Student student, Course course) {
+        if (course.removeStudent(student.getId()) && hasWaitlist(course)) {
+            freedSeats.get().add(course);
+        }
+    }
+
+    /**
+     * Fills the free seats of a course from the front of its waitlist. Each step locks the course
+     * and the student first in line only. Students who meanwhile enrolled in the course, or in one
+     * that meets at the same time, lose their place and the seat goes to the next in line.
+     */
+    private void promote(Course course) {
+        Waitlist<Student> waitlist = waitlists.get(course);
+        if (waitlist == null) {
+            return;
+        }
+        while (true) {
+            Student next = waitlist.peek();
+            if (next == null) {
+                return;
+            }
+            boolean more = locked(new Object[] {course, next}, () -> {
+                // Leaving and promoting hold the course's lock, so the line cannot move under us
+                // except at the back
+                if (waitlist.peek() != next) {
+                    return true;
+                }
+                if (course.getCurrentEnrollment() >= course.getCapacity()) {
+                    return false;
+                }
+                waitlist.pollIf(next);
+                forgetWaitlisted(next, course);
+                if (next.getCourses().containsKey(course.getCourseId()) || conflictsWithCourses(next, course)) {
+                    return true;
+                }
+                if (course.getVersion().isRetired() || !course.addStudent(next.getId())) {
+                    return false;
+                }
+                if (!next.getVersion().write()) {
+                    course.removeStudent(next.getId());
+                    return true;
+                }
+                try {
+                    next.getCourses().put(course.getCourseId(), Grade.NOT_GRADED.getLabel());
+                    index(next, course);
+                } finally {
+                    next.getVersion().endWrite();
+                }
+                promotionListener.accept(next, course);
+                return true;
+            });
+            if (!more) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Checks a course against the courses a student is on the roster of; the caller holds the
+     * student's lock.
+     */
+    private boolean conflictsWithCourses(Student student, Course course) {
+        Set<Course> courses = coursesByStudent.get(student);
+        if (courses != null) {
+            for (Course other : courses) {
+                if (other != course && other.hasTimeConflict(course)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasWaitlist(Course course) {
+        Waitlist<Student> waitlist = waitlists.get(course);
+        return waitlist != null && !waitlist.isEmpty();
+    }
+
+    /**
+     * Removes a course from the ones a student is waiting for; the caller holds the locks of both.
+     */
+    private void forgetWaitlisted(Student student, Course course) {
+        Set<Course> courses = waitlistedByStudent.get(student);
+        if (courses != null) {
+            courses.remove(course);
+            if (courses.isEmpty()) {
+                waitlistedByStudent.remove(student);
+            }
+        }
+    }
+
+    /**
+     * Records an enrollment in both directions; the caller holds the locks of both.
+     */
+    private void index(Student student, Course course) {
+        rosterSnapshots.remove(course);
+        studentsByCourse.computeIfAbsent(course, key -> new LinkedHashSet<>()).add(student);
+        coursesByStudent.computeIfAbsent(student, key -> new LinkedHashSet<>()).add(course);
+    }
+
+    /**
+     * Removes an enrollment from both directions; the caller holds the locks of both.
+     */
+    private void unindex(Student student, Course course) {
+        Set<Student> students = studentsByCourse.get(course);
+        if (students != null && students.remove(student)) {
+            rosterSnapshots.remove(course);
+        }
+        Set<Course> courses = coursesByStudent.get(student);
+        if (courses != null) {
+            courses.remove(course);
+            if (courses.isEmpty()) {
+                coursesByStudent.remove(student);
+            }
+        }
+    }
+}
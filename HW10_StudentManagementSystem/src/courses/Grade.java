@@ -0,0 +1,110 @@
+package courses;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The grades a course can be given, on the usual 4.0 scale, with "Not Graded" for a course that
+ * is still in progress.
+ *
+ * Each grade has a byte code, its position in this list, so grades can be stored one byte per
+ * enrollment. Grade points are kept in hundredths so GPA totals add up exactly.
+ *
+ * Grades are read from their labels, e.g. "A-", through a parse table. Labels that are not in the
+ * table (anything an admin typed that is not a letter grade) have no Grade and are kept as text by
+ * whoever stores them; they do not count toward a GPA.
+ */
+public enum Grade {
+    A_PLUS("A+", 400),
+    A("A", 400),
+    A_MINUS("A-", 370),
+    B_PLUS("B+", 330),
+    B("B", 300),
+    B_MINUS("B-", 270),
+    C_PLUS("C+", 230),
+    C("C", 200),
+    C_MINUS("C-", 170),
+    D_PLUS("D+", 130),
+    D("D", 100),
+    F("F", 0),
+    NOT_GRADED("Not Graded", -1);
+
+    private static final Grade[] CODES = values();
+    private static final Map<String, Grade> BY_LABEL = new HashMap<>();
+
+    static {
+        for (Grade grade : CODES) {
+            BY_LABEL.put(grade.label, grade);
+        }
+    }
+
+    private final String label;
+    private final int points;
+
+    Grade(String label, int points) {
+        this.label = label;
+        this.points = points;
+    }
+
+    /**
+     * Looks up a grade by its label.
+     *
+     * @param label The label, e.g. "A-" or "Not Graded".
+     * @return The grade, or null if the label is not a known grade.
+     */
+    public static Grade parse(String label) {
+        return label == null ? null : BY_LABEL.get(label);
+    }
+
+    /**
+     * @param code A code returned by getCode.
+     * @return The grade with this code.
+     */
+    public static Grade ofCode(byte code) {
+        return CODES[code];
+    }
+
+    /**
+     * @return The byte the grade is stored as.
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @return The label the grade is written as, e.g. "A-".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return true if the grade counts toward a GPA.
+     */
+    public boolean countsTowardGpa() {
+        return points >= 0;
+    }
+
+    /**
+     * @return The grade points in hundredths, e.g. 370 for an A-, or -1 if the grade does not count toward a GPA.
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Computes a GPA from its totals.
+     *
+     * @param points  The sum of the grade points of the graded courses, in hundredths.
+     * @param courses The number of graded courses.
+     * @return The GPA, or 0 if there are no graded courses.
+     */
+    public static double gpa(int points, int courses) {
+        return courses == 0 ? 0 : points / (100.0 * courses);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,77 @@
+package courses;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives each distinct String a dense int code, 0, 1, 2, ... in the order they are first seen,
+ * so enrollments can be stored as primitive ints instead of boxed Strings.
+ *
+ * Codes are never reused or released: a dictionary only grows, by one entry per distinct ID ever
+ * seen, which is far smaller than the enrollments that refer to them.
+ *
+ * Lookups are lock free; interning a String not seen before takes a lock.
+ */
+public final class IdDictionary {
+    /** Student IDs, as stored in course rosters. */
+    public static final IdDictionary STUDENT_IDS = new IdDictionary();
+    /** Course IDs, as stored in student course maps. */
+    public static final IdDictionary COURSE_IDS = new IdDictionary();
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+
+    /**
+     * Returns the code of a String, assigning the next free code if it has none yet.
+     *
+     * @param name The String to encode; not null.
+     * @return Its code.
+     */
+    public int intern(String name) {
+        Integer code = codes.get(name);
+        return code != null ? code : assign(name);
+    }
+
+    private synchronized int assign(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        int next = codes.size();
+        String[] current = names;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, next * 2);
+        }
+        current[next] = name;
+        // Publish the name before the code, so whoever finds the code can also find the name
+        names = current;
+        codes.put(name, next);
+        return next;
+    }
+
+    /**
+     * Returns the code of a String without assigning one.
+     *
+     * @param name The String to look up.
+     * @return Its code, or -1 if it was never interned.
+     */
+    public int lookup(String name) {
+        Integer code = name == null ? null : codes.get(name);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * @param code A code returned by intern.
+     * @return The String it stands for.
+     */
+    public String name(int code) {
+        return names[code];
+    }
+
+    /**
+     * @return The number of distinct Strings interned.
+     */
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,172 @@
+package courses;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hash set of non-negative ints stored in one int array, with no boxing and no per-entry objects.
+ *
+ * Uses open addressing with linear probing; removal shifts the following entries back instead of
+ * leaving tombstones, so the table never fills up with deleted slots. Not thread safe.
+ */
+public class IntSet {
+    private static final int FREE = -1;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] slots;
+    private int size;
+
+    public IntSet() {
+        this(0);
+    }
+
+    /**
+     * @param expected The number of values the set should hold without growing.
+     */
+    public IntSet(int expected) {
+        slots = newTable(tableSizeFor(expected));
+    }
+
+    /**
+     * @param value The value to add; must not be negative.
+     * @return true if the value was not already in the set.
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != FREE) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+        if (++size * 4 > slots.length * 3) {
+            rehash(slots.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @param value A value.
+     * @return true if the value was in the set.
+     */
+    public boolean remove(int value) {
+        int slot = find(value);
+        if (slot < 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        // Shift back every entry in the probe run that would no longer be reachable
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slots[next] != FREE) {
+            int home = hash(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    /**
+     * @param value A value.
+     * @return true if the value is in the set.
+     */
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+    }
+
+    /**
+     * Calls the action for each value, in no particular order.
+     *
+     * @param action The action to call.
+     */
+    public void forEach(IntConsumer action) {
+        for (int value : slots) {
+            if (value != FREE) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return The values, in no particular order.
+     */
+    public int[] toArray() {
+        int[] values = new int[size];
+        int i = 0;
+        for (int value : slots) {
+            if (value != FREE) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    private int find(int value) {
+        if (value < 0) {
+            return -1;
+        }
+        int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != FREE) {
+            if (slots[slot] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = newTable(capacity);
+        size = 0;
+        for (int value : old) {
+            if (value != FREE) {
+                add(value);
+            }
+        }
+    }
+
+    private static int hash(int value) {
+        // Dense codes are sequential; spread them so runs do not collide in neighbouring slots
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expected * 4 + 4) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, FREE);
+        return table;
+    }
+}
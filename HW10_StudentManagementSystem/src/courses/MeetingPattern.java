@@ -0,0 +1,164 @@
+package courses;
+
+/**
+ * When a course meets, parsed once: the days as a bit mask and the start and end as minutes
+ * since midnight, with the weekly slots they occupy.
+ *
+ * Days are written as in the course file, e.g. "MWF" or "TR": M, T, W, R, F, S and U stand for
+ * Monday to Sunday, "Th" also means Thursday, and whitespace is ignored. Times are "H:mm" or
+ * "HH:mm" on a 24 hour clock, optionally surrounded by whitespace. Anything else is rejected with
+ * an IllegalArgumentException when the pattern is parsed.
+ *
+ * Patterns are immutable.
+ */
+public final class MeetingPattern {
+    private final int dayMask;
+    private final int startMinute;
+    private final int endMinute;
+    private final WeeklySchedule weeklySchedule;
+
+    private MeetingPattern(int dayMask, int startMinute, int endMinute) {
+        this.dayMask = dayMask;
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+        this.weeklySchedule = WeeklySchedule.of(dayMask, startMinute, endMinute);
+    }
+
+    /**
+     * Parses a meeting pattern.
+     *
+     * @param days      The meeting days, e.g. "MWF".
+     * @param startTime The start time, e.g. "9:00".
+     * @param endTime   The end time, e.g. "10:30".
+     * @return The parsed pattern.
+     * @throws IllegalArgumentException If the days or either time is malformed.
+     */
+    public static MeetingPattern parse(String days, String startTime, String endTime) {
+        return new MeetingPattern(parseDays(days), parseTime(startTime), parseTime(endTime));
+    }
+
+    /**
+     * Parses meeting days into a day mask, bit 0 for Monday to bit 6 for Sunday.
+     *
+     * @param days The meeting days, e.g. "MWF" or "TTh".
+     * @return The day mask.
+     * @throws IllegalArgumentException If the days are missing or contain anything but day letters and whitespace.
+     */
+    public static int parseDays(String days) {
+        if (days == null) {
+            throw new IllegalArgumentException("Missing meeting days");
+        }
+        int mask = 0;
+        for (int i = 0; i < days.length(); i++) {
+            char c = days.charAt(i);
+            switch (c) {
+                case 'M': mask |= 1; break;
+                case 'T':
+                    if (i + 1 < days.length() && days.charAt(i + 1) == 'h') {
+                        mask |= 1 << 3;
+                        i++;
+                    } else {
+                        mask |= 1 << 1;
+                    }
+                    break;
+                case 'W': mask |= 1 << 2; break;
+                case 'R': mask |= 1 << 3; break;
+                case 'F': mask |= 1 << 4; break;
+                case 'S': mask |= 1 << 5; break;
+                case 'U': mask |= 1 << 6; break;
+                default:
+                    if (!Character.isWhitespace(c)) {
+                        throw new IllegalArgumentException("Invalid meeting days '" + days + "': use M, T, W, R, F, S and U");
+                    }
+            }
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("Missing meeting days");
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a time of day.
+     *
+     * @param time The time, "H:mm" or "HH:mm".
+     * @return The minutes since midnight.
+     * @throws IllegalArgumentException If the time is malformed or out of range.
+     */
+    public static int parseTime(String time) {
+        if (time == null) {
+            throw new IllegalArgumentException("Missing time");
+        }
+        int start = 0;
+        int end = time.length();
+        while (start < end && Character.isWhitespace(time.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(time.charAt(end - 1))) {
+            end--;
+        }
+        int colon = time.indexOf(':', start);
+        int hourDigits = colon - start;
+        if (colon < 0 || colon >= end || hourDigits < 1 || hourDigits > 2 || end - colon - 1 != 2) {
+            throw new IllegalArgumentException("Invalid time '" + time + "': expected HH:mm");
+        }
+        int hours = digits(time, start, colon);
+        int minutes = digits(time, colon + 1, end);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            throw new IllegalArgumentException("Invalid time '" + time + "': expected HH:mm");
+        }
+        return hours * 60 + minutes;
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Checks if two patterns meet at the same time on a common day, ends included. The weekly slot
+     * bitmaps are compared first, and the exact minutes only if they share a slot.
+     *
+     * @param other Another pattern.
+     * @return true if the two overlap.
+     */
+    public boolean overlaps(MeetingPattern other) {
+        return weeklySchedule.intersects(other.weeklySchedule)
+                && startMinute <= other.endMinute && endMinute >= other.startMinute;
+    }
+
+    /**
+     * @return The days, bit 0 for Monday to bit 6 for Sunday.
+     */
+    public int getDayMask() {
+        return dayMask;
+    }
+
+    /**
+     * @return The start, in minutes since midnight.
+     */
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    /**
+     * @return The end, in minutes since midnight.
+     */
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    /**
+     * @return The weekly slots the pattern occupies.
+     */
+    public WeeklySchedule getWeeklySchedule() {
+        return weeklySchedule;
+    }
+}
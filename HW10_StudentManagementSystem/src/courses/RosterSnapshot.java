@@ -0,0 +1,82 @@
+package courses;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * The student IDs on a course roster at one moment, as an unmodifiable List.
+ *
+ * A snapshot holds the roster's IdDictionary.STUDENT_IDS codes, sorted, and decodes them as they
+ * are read, so getting one does not copy any Strings and membership is a binary search. Snapshots
+ * never change: a course's roster is its current snapshot, and enrolling or dropping a student
+ * replaces it with a new one, so a snapshot handed out earlier stays as it was.
+ */
+public final class RosterSnapshot extends AbstractList<String> implements RandomAccess {
+    static final RosterSnapshot EMPTY = new RosterSnapshot(new int[0]);
+
+    private final int[] studentCodes; // sorted
+
+    private RosterSnapshot(int[] studentCodes) {
+        this.studentCodes = studentCodes;
+    }
+
+    /**
+     * @param code A student ID code, or -1.
+     * @return true if the code is on the roster.
+     */
+    boolean containsCode(int code) {
+        return code >= 0 && Arrays.binarySearch(studentCodes, code) >= 0;
+    }
+
+    /**
+     * @param code A student ID code not on the roster.
+     * @return A snapshot that also holds the code.
+     */
+    RosterSnapshot with(int code) {
+        int insertion = -Arrays.binarySearch(studentCodes, code) - 1;
+        int[] codes = new int[studentCodes.length + 1];
+        System.arraycopy(studentCodes, 0, codes, 0, insertion);
+        codes[insertion] = code;
+        System.arraycopy(studentCodes, insertion, codes, insertion + 1, studentCodes.length - insertion);
+        return new RosterSnapshot(codes);
+    }
+
+    /**
+     * @param code A student ID code on the roster.
+     * @return A snapshot without the code.
+     */
+    RosterSnapshot without(int code) {
+        int index = Arrays.binarySearch(studentCodes, code);
+        if (studentCodes.length == 1) {
+            return EMPTY;
+        }
+        int[] codes = new int[studentCodes.length - 1];
+        System.arraycopy(studentCodes, 0, codes, 0, index);
+        System.arraycopy(studentCodes, index + 1, codes, index, codes.length - index);
+        return new RosterSnapshot(codes);
+    }
+
+    @Override
+    public String get(int index) {
+        return IdDictionary.STUDENT_IDS.name(studentCodes[index]);
+    }
+
+    @Override
+    public int size() {
+        return studentCodes.length;
+    }
+
+    @Override
+    public boolean contains(Object studentId) {
+        return studentId instanceof String && containsCode(IdDictionary.STUDENT_IDS.lookup((String) studentId));
+    }
+
+    @Override
+    public void forEach(Consumer<? super String> action) {
+        for (int code : studentCodes) {
+            action.accept(IdDictionary.STUDENT_IDS.name(code));
+        }
+    }
+}
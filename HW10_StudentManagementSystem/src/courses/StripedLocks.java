@@ -0,0 +1,83 @@
+package courses;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by many objects: each object maps to one lock, its stripe, by
+ * identity hash. Objects on different stripes can be locked in parallel, while the number of locks
+ * stays constant however many objects there are.
+ *
+ * Several objects are always locked in ascending stripe order, whatever order they are passed in,
+ * so two threads locking overlapping sets of objects can never deadlock. Locks are reentrant: a
+ * thread holding some stripes may lock any of them again, but must not lock a lower stripe it
+ * does not hold yet.
+ */
+final class StripedLocks {
+    private final ReentrantLock[] stripes;
+
+    /**
+     * @param count The number of stripes; rounded up to a power of two.
+     */
+    StripedLocks(int count) {
+        int size = count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the stripes of the given objects, in stripe order.
+     *
+     * @param keys The objects to lock; nulls are ignored.
+     * @return The held locks, to be released with unlock, in a finally block.
+     */
+    Hold lock(Object... keys) {
+        int[] indexes = new int[keys.length];
+        int count = 0;
+        for (Object key : keys) {
+            if (key != null) {
+                indexes[count++] = stripeOf(key);
+            }
+        }
+        Arrays.sort(indexes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || indexes[distinct - 1] != indexes[i]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        int[] held = Arrays.copyOf(indexes, distinct);
+        for (int index : held) {
+            stripes[index].lock();
+        }
+        return new Hold(held);
+    }
+
+    private int stripeOf(Object key) {
+        int h = System.identityHashCode(key);
+        h ^= h >>> 16;
+        return h & (stripes.length - 1);
+    }
+
+    /**
+     * A set of locked stripes.
+     */
+    final class Hold {
+        private final int[] held;
+
+        private Hold(int[] held) {
+            this.held = held;
+        }
+
+        /**
+         * Releases the stripes, in reverse order.
+         */
+        void unlock() {
+            for (int i = held.length - 1; i >= 0; i--) {
+                stripes[held[i]].unlock();
+            }
+        }
+    }
+}
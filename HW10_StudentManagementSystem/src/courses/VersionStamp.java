@@ -0,0 +1,222 @@
+package courses;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The version of one record, e.g. a student or a course, for optimistic concurrency in the style
+ * of a sequence lock.
+ *
+ * The version is even while the record is stable and odd while a write is in progress. A reader
+ * notes the version, reads the record and checks that the version is unchanged; if it is not, the
+ * read may be torn and is repeated. An editor that read the record earlier, e.g. before prompting
+ * for changes, writes only if the version is still the one it read (compare-and-set), and
+ * otherwise re-reads and retries, so edits made meanwhile are neither blocked nor overwritten.
+ *
+ * Writes are short and never wait on anything else, so whoever finds a write in progress just
+ * spins until it ends. A deleted record is retired: writes to it fail from then on. Writes do not
+ * nest; a thread holding a write must not start another on the same record.
+ */
+public final class VersionStamp {
+    private static final long RETIRED = -2;
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Starts an optimistic read, waiting out a write in progress.
+     *
+     * @return The stamp to validate the read with, or to write with later.
+     */
+    public long readStamp() {
+        while (true) {
+            long current = version.get();
+            if ((current & 1) == 0) {
+                return current;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @param stamp A stamp from readStamp.
+     * @return true if the record has not been written since the stamp was taken.
+     */
+    public boolean validate(long stamp) {
+        // Keeps the plain reads of the record from being reordered after the version check, as in StampedLock.validate
+        VarHandle.acquireFence();
+        return version.get() == stamp;
+    }
+
+    /**
+     * A consistent read of a record together with the version it was read at, for an editor that
+     * writes its changes back later only if the record is still as read.
+     *
+     * @param <T> What was read.
+     */
+    public final class Snapshot<T> {
+        private final long stamp;
+        private final T value;
+
+        private Snapshot(long stamp, T value) {
+            this.stamp = stamp;
+            this.value = value;
+        }
+
+        /**
+         * @return What the reader returned.
+         */
+        public T get() {
+            return value;
+        }
+
+        /**
+         * Applies a change if the record has not been written since it was read.
+         *
+         * @param change The change.
+         * @return true if the change was applied, false if the record changed meanwhile or was retired.
+         */
+        public boolean tryUpdate(Runnable change) {
+            return VersionStamp.this.tryUpdate(stamp, change);
+        }
+    }
+
+    /**
+     * Reads the record consistently: runs the reader until no write happened while it ran. A reader
+     * that fails on a torn record is run again too.
+     *
+     * @param reader Reads the record; must not write anything.
+     * @return What the reader returned from a consistent read.
+     */
+    public <T> T read(Supplier<T> reader) {
+        return readSnapshot(reader).get();
+    }
+
+    /**
+     * Reads the record consistently, as read does, and remembers the version it was read at.
+     *
+     * @param reader Reads the record; must not write anything.
+     * @return The consistent read, to write changes back with.
+     */
+    public <T> Snapshot<T> readSnapshot(Supplier<T> reader) {
+        while (true) {
+            long stamp = readStamp();
+            T result;
+            try {
+                result = reader.get();
+            } catch (RuntimeException e) {
+                if (validate(stamp)) {
+                    throw e;
+                }
+                continue;
+            }
+            if (validate(stamp)) {
+                return new Snapshot<>(stamp, result);
+            }
+        }
+    }
+
+    /**
+     * Starts a write if the record has not been written since the stamp was taken.
+     *
+     * @param stamp A stamp from readStamp.
+     * @return true if the write started and must be ended with endWrite.
+     */
+    public boolean tryWrite(long stamp) {
+        if (stamp < 0 || (stamp & 1) != 0 || !version.compareAndSet(stamp, stamp + 1)) {
+            return false;
+        }
+        // The odd version is visible before any write to the record is
+        VarHandle.storeStoreFence();
+        return true;
+    }
+
+    /**
+     * Starts a write whatever the version, waiting out a write in progress.
+     *
+     * @return true if the write started and must be ended with endWrite, false if the record is retired.
+     */
+    public boolean write() {
+        while (true) {
+            long current = version.get();
+            if (current == RETIRED) {
+                return false;
+            }
+            if ((current & 1) == 0 && version.compareAndSet(current, current + 1)) {
+                // The odd version is visible before any write to the record is
+                VarHandle.storeStoreFence();
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Ends a write started with write or tryWrite, publishing a new version.
+     */
+    public void endWrite() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Applies a change if the record has not been written since the stamp was taken.
+     *
+     * @param stamp  A stamp from readStamp.
+     * @param change The change.
+     * @return true if the change was applied, false if the record changed meanwhile and has to be re-read.
+     */
+    public boolean tryUpdate(long stamp, Runnable change) {
+        if (!tryWrite(stamp)) {
+            return false;
+        }
+        try {
+            change.run();
+        } finally {
+            endWrite();
+        }
+        return true;
+    }
+
+    /**
+     * Applies a change whatever the version.
+     *
+     * @param change The change.
+     * @return true if the change was applied, false if the record is retired.
+     */
+    public boolean update(Runnable change) {
+        if (!write()) {
+            return false;
+        }
+        try {
+            change.run();
+        } finally {
+            endWrite();
+        }
+        return true;
+    }
+
+    /**
+     * Marks the record as deleted once any write in progress has ended; every later write fails.
+     *
+     * @return true if this call retired the record, false if it already was.
+     */
+    public boolean retire() {
+        while (true) {
+            long current = version.get();
+            if (current == RETIRED) {
+                return false;
+            }
+            if ((current & 1) == 0 && version.compareAndSet(current, RETIRED)) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return true if the record has been deleted.
+     */
+    public boolean isRetired() {
+        return version.get() == RETIRED;
+    }
+}
@@ -0,0 +1,144 @@
+package courses;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A first come, first served waitlist, safe for concurrent use without locks.
+ *
+ * Each join takes a ticket and queues it. Leaving only cancels the ticket; the queued entry stays
+ * behind and is skipped when it reaches the head. Joining, leaving, looking at the head and taking
+ * it off are therefore constant time however long the list is, with cancelled entries costing
+ * one skip each, once. Someone who leaves and joins again goes to the back with a new ticket.
+ *
+ * @param <T> Who waits; compared with equals.
+ */
+public final class Waitlist<T> {
+    private final ConcurrentLinkedQueue<Entry<T>> queue = new ConcurrentLinkedQueue<>();
+    // The live ticket of everyone waiting
+    private final Map<T, Long> tickets = new ConcurrentHashMap<>();
+    private final AtomicLong nextTicket = new AtomicLong();
+
+    private static final class Entry<T> {
+        final T waiter;
+        final long ticket;
+
+        Entry(T waiter, long ticket) {
+            this.waiter = waiter;
+            this.ticket = ticket;
+        }
+    }
+
+    /**
+     * Adds someone at the back of the list.
+     *
+     * @param waiter Who joins.
+     * @return true if they joined, false if they were already waiting.
+     */
+    public boolean join(T waiter) {
+        long ticket = nextTicket.incrementAndGet();
+        if (tickets.putIfAbsent(waiter, ticket) != null) {
+            return false;
+        }
+        queue.offer(new Entry<>(waiter, ticket));
+        return true;
+    }
+
+    /**
+     * Takes someone off the list, wherever they are in it.
+     *
+     * @param waiter Who leaves.
+     * @return true if they were waiting.
+     */
+    public boolean leave(T waiter) {
+        return tickets.remove(waiter) != null;
+    }
+
+    /**
+     * @param waiter Someone.
+     * @return true if they are waiting.
+     */
+    public boolean contains(T waiter) {
+        return tickets.containsKey(waiter);
+    }
+
+    /**
+     * @return The number of people waiting.
+     */
+    public int size() {
+        return tickets.size();
+    }
+
+    public boolean isEmpty() {
+        return tickets.isEmpty();
+    }
+
+    /**
+     * @return Who is first in line, or null if no one is waiting.
+     */
+    public T peek() {
+        Entry<T> head = head();
+        return head == null ? null : head.waiter;
+    }
+
+    /**
+     * Takes the first in line off the list, provided it is still the given waiter.
+     *
+     * @param waiter Who is expected to be first, as returned by peek.
+     * @return true if the waiter was first and has been taken off.
+     */
+    public boolean pollIf(T waiter) {
+        Entry<T> head = head();
+        if (head == null || !head.waiter.equals(waiter) || !tickets.remove(waiter, head.ticket)) {
+            return false;
+        }
+        queue.remove(head);
+        return true;
+    }
+
+    /**
+     * Finds someone's place in line. Walks the list, so it is meant for showing to a person, not for
+     * use on every registration.
+     *
+     * @param waiter Someone.
+     * @return Their position, 1 for the first in line, or 0 if they are not waiting.
+     */
+    public int positionOf(T waiter) {
+        Long ticket = tickets.get(waiter);
+        if (ticket == null) {
+            return 0;
+        }
+        int position = 0;
+        for (Iterator<Entry<T>> it = queue.iterator(); it.hasNext(); ) {
+            Entry<T> entry = it.next();
+            if (isLive(entry)) {
+                position++;
+                if (entry.ticket == ticket) {
+                    return position;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the first live entry, dropping cancelled ones in front of it.
+     */
+    private Entry<T> head() {
+        while (true) {
+            Entry<T> head = queue.peek();
+            if (head == null || isLive(head)) {
+                return head;
+            }
+            queue.remove(head);
+        }
+    }
+
+    private boolean isLive(Entry<T> entry) {
+        Long ticket = tickets.get(entry.waiter);
+        return ticket != null && ticket == entry.ticket;
+    }
+}
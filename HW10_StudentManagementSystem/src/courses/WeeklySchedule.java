@@ -0,0 +1,92 @@
+package courses;
+
+/**
+ * The time slots of a week that something occupies, as a bitmap: 7 days of 5-minute slots,
+ * 2016 bits in 32 longs. Whether two schedules share a slot is 32 word ANDs, whatever they hold.
+ *
+ * A meeting occupies every slot from the one holding its start minute to the one holding its end
+ * minute, both included, so two meetings whose times overlap always share a slot. The reverse is
+ * only true to the slot: meetings that touch the same 5 minutes without overlapping also share a
+ * slot, so a caller that needs minute precision confirms an intersection with the exact times.
+ *
+ * Schedules are immutable.
+ */
+public final class WeeklySchedule {
+    public static final int SLOT_MINUTES = 5;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int SLOTS_PER_DAY = MINUTES_PER_DAY / SLOT_MINUTES;
+    private static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    /** A schedule with no slots occupied. */
+    public static final WeeklySchedule EMPTY = new WeeklySchedule(new long[WORDS]);
+
+    private final long[] words;
+
+    private WeeklySchedule(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Builds the schedule of a meeting held on the same times on each of its days.
+     *
+     * @param dayMask     The days, bit 0 for Monday to bit 6 for Sunday.
+     * @param startMinute The start, in minutes since midnight.
+     * @param endMinute   The end, in minutes since midnight.
+     * @return The occupied slots.
+     */
+    public static WeeklySchedule of(int dayMask, int startMinute, int endMinute) {
+        int first = clamp(Math.min(startMinute, endMinute)) / SLOT_MINUTES;
+        int last = clamp(Math.max(startMinute, endMinute)) / SLOT_MINUTES;
+        long[] words = new long[WORDS];
+        for (int day = 0; day < 7; day++) {
+            if ((dayMask & (1 << day)) != 0) {
+                setRange(words, day * SLOTS_PER_DAY + first, day * SLOTS_PER_DAY + last);
+            }
+        }
+        return new WeeklySchedule(words);
+    }
+
+    /**
+     * @param other Another schedule.
+     * @return true if the two schedules occupy at least one common slot.
+     */
+    public boolean intersects(WeeklySchedule other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param other Another schedule.
+     * @return A schedule occupying the slots of both.
+     */
+    public WeeklySchedule union(WeeklySchedule other) {
+        long[] union = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            union[i] = words[i] | other.words[i];
+        }
+        return new WeeklySchedule(union);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(MINUTES_PER_DAY - 1, minute));
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        for (int bit = from; bit <= to; bit++) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+}
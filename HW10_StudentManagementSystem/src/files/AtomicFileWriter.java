@@ -0,0 +1,172 @@
+package files;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces a file without ever leaving it half written.
+ *
+ * The new contents go to a temporary file in the same directory, which is moved over the target
+ * in one step by commit. If the program dies before that, the old file is untouched; closing the
+ * writer without committing deletes the temporary file.
+ *
+ * How hard commit works to survive a power loss is set by the Durability mode. The default comes
+ * from the system property "sis.durability" (NONE, FSYNC_FILE or FSYNC_FILE_AND_DIRECTORY) and is
+ * FSYNC_FILE when the property is not set.
+ *
+ * Usage:
+ * <pre>
+ * try (AtomicFileWriter file = new AtomicFileWriter(path)) {
+ *     file.getWriter().write(...);
+ *     file.commit();
+ * }
+ * </pre>
+ */
+public class AtomicFileWriter implements Closeable {
+
+    /**
+     * How much of the replacement is forced to disk before commit returns.
+     */
+    public enum Durability {
+        /** Leave flushing to the operating system. The move is still atomic, but a power loss can lose the new contents. */
+        NONE,
+        /** fsync the new contents before moving them into place. */
+        FSYNC_FILE,
+        /** Also fsync the directory, so the move itself survives a power loss. */
+        FSYNC_FILE_AND_DIRECTORY
+    }
+
+    private static final AtomicLong tempCounter = new AtomicLong();
+    private static volatile Durability defaultDurability = durabilityFromProperty();
+
+    private final Path target;
+    private final Path temp;
+    private final Durability durability;
+    private final FileChannel channel;
+    private final OutputStream out;
+    private BufferedWriter writer;
+    private boolean committed;
+
+    public AtomicFileWriter(String path) throws IOException {
+        this(path, defaultDurability);
+    }
+
+    /**
+     * Opens a temporary file next to the target.
+     *
+     * @param path       The file to replace.
+     * @param durability How much of the replacement to force to disk on commit.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    public AtomicFileWriter(String path, Durability durability) throws IOException {
+        this.target = Paths.get(path).toAbsolutePath();
+        this.temp = target.resolveSibling("." + target.getFileName() + "." + ProcessHandle.current().pid()
+                + "." + tempCounter.incrementAndGet() + ".tmp");
+        this.durability = durability;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.out = Channels.newOutputStream(channel);
+    }
+
+    /**
+     * @return A character writer for the new contents, in UTF-8, the charset the data files are read with.
+     */
+    public BufferedWriter getWriter() {
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    /**
+     * @return A byte stream for the new contents. Do not mix with getWriter.
+     */
+    public OutputStream getOutputStream() {
+        return out;
+    }
+
+    /**
+     * Moves the new contents into place, forcing them to disk first as the durability mode requires.
+     *
+     * @throws IOException If the contents cannot be written or moved; the target is then unchanged.
+     */
+    public void commit() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        out.flush();
+        if (durability != Durability.NONE) {
+            channel.force(true);
+        }
+        channel.close();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+        if (durability == Durability.FSYNC_FILE_AND_DIRECTORY) {
+            forceDirectory(target.getParent());
+        }
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Some platforms (e.g. Windows) cannot open or sync a directory; the file itself is already synced
+        }
+    }
+
+    /**
+     * Discards the temporary file unless commit succeeded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public static Durability getDefaultDurability() {
+        return defaultDurability;
+    }
+
+    /**
+     * Sets the durability mode used by writers created without an explicit one.
+     *
+     * @param durability The new default.
+     */
+    public static void setDefaultDurability(Durability durability) {
+        defaultDurability = durability;
+    }
+
+    private static Durability durabilityFromProperty() {
+        String value = System.getProperty("sis.durability");
+        if (value != null) {
+            try {
+                return Durability.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown sis.durability '" + value + "', using FSYNC_FILE");
+            }
+        }
+        return Durability.FSYNC_FILE;
+    }
+}
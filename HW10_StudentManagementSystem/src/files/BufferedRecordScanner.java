@@ -0,0 +1,61 @@
+package files;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scans a semicolon separated data file through a BufferedReader.
+ * A line is only split once one of its fields is requested. The file is decoded as UTF-8, like
+ * MappedRecordScanner does, so both read modes see the same text.
+ */
+final class BufferedRecordScanner implements RecordScanner {
+    private final BufferedReader reader;
+    private String line;
+    private String[] parts;
+
+    BufferedRecordScanner(String path) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean nextLine() throws IOException {
+        line = reader.readLine();
+        parts = null;
+        return line != null;
+    }
+
+    private String[] parts() {
+        if (parts == null) {
+            parts = line.split(";");
+        }
+        return parts;
+    }
+
+    @Override
+    public int fieldCount() {
+        return parts().length;
+    }
+
+    @Override
+    public String field(int index) {
+        return parts()[index].trim();
+    }
+
+    @Override
+    public String rawField(int index) {
+        return parts()[index];
+    }
+
+    @Override
+    public int intField(int index) {
+        return Integer.parseInt(field(index));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,67 @@
+package files;
+
+import java.util.Map;
+
+import courses.CourseGradeMap;
+
+/**
+ * Parses the course column of a student line, e.g. "CIT592: A, CIT593: A-", into a map of
+ * course ID to grade.
+ *
+ * The column is scanned once: entries are separated by ',' and each entry is "courseId:grade",
+ * with whitespace around either part ignored. An entry without exactly one ':' or without a
+ * grade after it is skipped, as the old split(",")/split(":") parsing did. The entries go into a
+ * CourseGradeMap sized up front for the number of entries, which keeps them as dictionary codes.
+ */
+public final class CourseGradeParser {
+
+    private CourseGradeParser() {
+    }
+
+    /**
+     * Parses a course column.
+     *
+     * @param column The raw course column.
+     * @return A mutable map of course ID to grade, sized for the column.
+     */
+    public static Map<String, String> parse(String column) {
+        int length = column.length();
+        int entries = 1;
+        for (int i = 0; i < length; i++) {
+            if (column.charAt(i) == ',') {
+                entries++;
+            }
+        }
+        Map<String, String> courses = new CourseGradeMap(entries);
+
+        int entryStart = 0;
+        int colon = -1;
+        int colons = 0;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? column.charAt(i) : ',';
+            if (c == ':') {
+                colon = i;
+                colons++;
+            } else if (c == ',') {
+                // The grade part must be non-empty before trimming, as with split(":")
+                if (colons == 1 && colon + 1 < i) {
+                    courses.put(trimmed(column, entryStart, colon), trimmed(column, colon + 1, i));
+                }
+                entryStart = i + 1;
+                colon = -1;
+                colons = 0;
+            }
+        }
+        return courses;
+    }
+
+    private static String trimmed(String column, int start, int end) {
+        while (start < end && column.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && column.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return column.substring(start, end);
+    }
+}
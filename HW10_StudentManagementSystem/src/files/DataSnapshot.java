@@ -0,0 +1,409 @@
+package files;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import courses.Course;
+import courses.CourseGradeMap;
+import files.FileChangeTracker.FileStamp;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+/**
+ * A compact binary copy of the four data files, used to start up without parsing the text files.
+ *
+ * Layout (all ints are big-endian, "varint" is an unsigned LEB128 int):
+ * <pre>
+ *   int     magic "SMSS"
+ *   int     format version
+ *   varint  number of source files, then per file: path (as a string), long size, long modification time
+ *   varint  number of strings in the string table, then per string:
+ *           varint (byte length << 1 | 1 if ASCII), UTF-8 bytes
+ *   four sections (courses, students, professors, admins), each:
+ *     varint  record count, then per record: varint byte length, record bytes
+ *   int     magic again, as an end marker
+ * </pre>
+ * Every text value in a record is a varint index into the string table, so repeated values such as
+ * course IDs, grades and default passwords are stored once. The length prefix on each record lets a
+ * reader step over records it does not need.
+ *
+ * A snapshot remembers the size and modification time of the text files it was built from and is
+ * only used while all of them are unchanged.
+ */
+public class DataSnapshot {
+    public static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x534D5353;
+    // Stands in for null values in the string table; contains a character that cannot appear in the text files
+    private static final String NULL_MARKER = "\u0000null";
+
+    private final List<Course> courses;
+    private final List<Student> students;
+    private final List<Professor> professors;
+    private final List<Admin> admins;
+    private final Map<String, FileStamp> sourceStamps;
+
+    public DataSnapshot(List<Course> courses, List<Student> students, List<Professor> professors, List<Admin> admins,
+            Map<String, FileStamp> sourceStamps) {
+        this.courses = courses;
+        this.students = students;
+        this.professors = professors;
+        this.admins = admins;
+        this.sourceStamps = sourceStamps;
+    }
+
+    /**
+     * Writes the snapshot to a file.
+     *
+     * @param path Path of the snapshot file.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void write(String path) throws IOException {
+        StringTable strings = new StringTable();
+        for (Course course : courses) {
+            strings.addAll(course.getCourseId(), course.getCourseName(), course.getProfessorName(), course.getProfessorId(),
+                    course.getDays(), course.getStartTime(), course.getEndTime());
+        }
+        for (Student student : students) {
+            strings.addAll(student.getId(), student.getName(), student.getUsername(), student.getPassword());
+            for (Map.Entry<String, String> entry : student.getCourses().entrySet()) {
+                strings.addAll(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Professor professor : professors) {
+            strings.addAll(professor.getId(), professor.getName(), professor.getUsername(), professor.getPassword());
+        }
+        for (Admin admin : admins) {
+            strings.addAll(admin.getId(), admin.getName(), admin.getUsername(), admin.getPassword());
+        }
+
+        // The snapshot can always be rebuilt from the text files, so it is replaced atomically but not synced
+        try (AtomicFileWriter file = new AtomicFileWriter(path, AtomicFileWriter.Durability.NONE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.getOutputStream(), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+
+            writeVarInt(out, sourceStamps.size());
+            for (Map.Entry<String, FileStamp> entry : sourceStamps.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().getSize());
+                out.writeLong(entry.getValue().getLastModifiedNanos());
+            }
+
+            writeVarInt(out, strings.values.size());
+            for (String value : strings.values) {
+                writeString(out, value);
+            }
+
+            RecordBuffer record = new RecordBuffer();
+            writeVarInt(out, courses.size());
+            for (Course course : courses) {
+                record.reset();
+                record.writeVarInt(strings.indexOf(course.getCourseId()));
+                record.writeVarInt(strings.indexOf(course.getCourseName()));
+                record.writeVarInt(strings.indexOf(course.getProfessorName()));
+                record.writeVarInt(strings.indexOf(course.getProfessorId()));
+                record.writeVarInt(strings.indexOf(course.getDays()));
+                record.writeVarInt(strings.indexOf(course.getStartTime()));
+                record.writeVarInt(strings.indexOf(course.getEndTime()));
+                record.writeVarInt(course.getCapacity());
+                record.writeTo(out);
+            }
+
+            writeVarInt(out, students.size());
+            for (Student student : students) {
+                record.reset();
+                writeAccount(record, strings, student.getId(), student.getName(), student.getUsername(), student.getPassword());
+                record.writeVarInt(student.getCourses().size());
+                for (Map.Entry<String, String> entry : student.getCourses().entrySet()) {
+                    record.writeVarInt(strings.indexOf(entry.getKey()));
+                    record.writeVarInt(strings.indexOf(entry.getValue()));
+                }
+                record.writeTo(out);
+            }
+
+            writeVarInt(out, professors.size());
+            for (Professor professor : professors) {
+                record.reset();
+                writeAccount(record, strings, professor.getId(), professor.getName(), professor.getUsername(), professor.getPassword());
+                record.writeTo(out);
+            }
+
+            writeVarInt(out, admins.size());
+            for (Admin admin : admins) {
+                record.reset();
+                writeAccount(record, strings, admin.getId(), admin.getName(), admin.getUsername(), admin.getPassword());
+                record.writeTo(out);
+            }
+
+            out.writeInt(MAGIC);
+            out.flush();
+            file.commit();
+        }
+    }
+
+    /**
+     * Reads a snapshot if it exists, has the current format version, and all of its source files
+     * are unchanged since it was written.
+     *
+     * @param path Path of the snapshot file.
+     * @return The snapshot, or null if there is none or it is stale.
+     * @throws IOException If the snapshot exists but cannot be read or is corrupt.
+     */
+    public static DataSnapshot readIfFresh(String path) throws IOException {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Data snapshot too large to map: " + path);
+            }
+            SnapshotReader in = new SnapshotReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a data snapshot: " + path);
+            }
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            Map<String, FileStamp> sourceStamps = new LinkedHashMap<>();
+            int sourceCount = in.readVarInt();
+            for (int i = 0; i < sourceCount; i++) {
+                String sourcePath = in.readString();
+                FileStamp stamp = FileStamp.of(in.readLong(), in.readLong());
+                if (!stamp.equals(FileStamp.of(sourcePath))) {
+                    return null; // A text file changed after the snapshot was written
+                }
+                sourceStamps.put(sourcePath, stamp);
+            }
+
+            String[] strings = new String[in.readVarInt()];
+            for (int i = 0; i < strings.length; i++) {
+                String value = in.readString();
+                strings[i] = NULL_MARKER.equals(value) ? null : value;
+            }
+
+            int courseCount = in.readVarInt();
+            List<Course> courses = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                int end = in.beginRecord();
+                courses.add(new Course(strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()],
+                        strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()], in.readVarInt()));
+                in.endRecord(end);
+            }
+
+            int studentCount = in.readVarInt();
+            List<Student> students = new ArrayList<>(studentCount);
+            for (int i = 0; i < studentCount; i++) {
+                int end = in.beginRecord();
+                String id = strings[in.readVarInt()];
+                String name = strings[in.readVarInt()];
+                String username = strings[in.readVarInt()];
+                String password = strings[in.readVarInt()];
+                int enrolled = in.readVarInt();
+                Map<String, String> studentCourses = new CourseGradeMap(enrolled);
+                for (int j = 0; j < enrolled; j++) {
+                    studentCourses.put(strings[in.readVarInt()], strings[in.readVarInt()]);
+                }
+                students.add(new Student(id, name, username, password, studentCourses));
+                in.endRecord(end);
+            }
+
+            int professorCount = in.readVarInt();
+            List<Professor> professors = new ArrayList<>(professorCount);
+            for (int i = 0; i < professorCount; i++) {
+                int end = in.beginRecord();
+                professors.add(new Professor(strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()],
+                        strings[in.readVarInt()], new ArrayList<>()));
+                in.endRecord(end);
+            }
+
+            int adminCount = in.readVarInt();
+            List<Admin> admins = new ArrayList<>(adminCount);
+            for (int i = 0; i < adminCount; i++) {
+                int end = in.beginRecord();
+                admins.add(new Admin(strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()], strings[in.readVarInt()]));
+                in.endRecord(end);
+            }
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Data snapshot is truncated: " + path);
+            }
+            return new DataSnapshot(courses, students, professors, admins, sourceStamps);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Data snapshot is corrupt: " + path, e);
+        }
+    }
+
+    private static void writeAccount(RecordBuffer record, StringTable strings, String id, String name, String username, String password) {
+        record.writeVarInt(strings.indexOf(id));
+        record.writeVarInt(strings.indexOf(name));
+        record.writeVarInt(strings.indexOf(username));
+        record.writeVarInt(strings.indexOf(password));
+    }
+
+    // Strings are written as varint (byte length << 1 | 1 if pure ASCII), then the UTF-8 bytes.
+    // ASCII strings can then be decoded as Latin-1, which is a plain copy.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int ascii = bytes.length == value.length() ? 1 : 0;
+        writeVarInt(out, bytes.length << 1 | ascii);
+        out.write(bytes);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Assigns each distinct string an index. Null is stored as its own entry so it round-trips.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void addAll(String... strings) {
+            for (String value : strings) {
+                String key = value == null ? NULL_MARKER : value;
+                if (!indexes.containsKey(key)) {
+                    indexes.put(key, values.size());
+                    values.add(key);
+                }
+            }
+        }
+
+        int indexOf(String value) {
+            return indexes.get(value == null ? NULL_MARKER : value);
+        }
+    }
+
+    /**
+     * Builds one record in memory so its length can be written before it.
+     */
+    private static final class RecordBuffer {
+        private byte[] bytes = new byte[256];
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        void writeVarInt(int value) {
+            if (length + 5 > bytes.length) {
+                byte[] larger = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, larger, 0, length);
+                bytes = larger;
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            DataSnapshot.writeVarInt(out, length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Reads snapshot values straight out of the mapped file.
+     */
+    private static final class SnapshotReader {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        SnapshotReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = buffer.get() & 0xFF;
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in data snapshot");
+        }
+
+        String readString() throws IOException {
+            int header = readVarInt();
+            int length = header >>> 1;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, (header & 1) != 0 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads a record length prefix.
+         *
+         * @return The buffer position where the record ends.
+         */
+        int beginRecord() throws IOException {
+            int length = readVarInt();
+            return buffer.position() + length;
+        }
+
+        /**
+         * Moves to the end of a record, skipping any fields this version does not know about.
+         */
+        void endRecord(int end) throws IOException {
+            if (buffer.position() > end) {
+                throw new IOException("Record overrun in data snapshot");
+            }
+            buffer.position(end);
+        }
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<Professor> getProfessors() {
+        return professors;
+    }
+
+    public List<Admin> getAdmins() {
+        return admins;
+    }
+
+    public Map<String, FileStamp> getSourceStamps() {
+        return sourceStamps;
+    }
+}
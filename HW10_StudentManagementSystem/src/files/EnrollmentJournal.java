@@ -0,0 +1,282 @@
+package files;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import roles.Student;
+
+/**
+ * Append-only journal of enrollment changes made after studentinfo.txt was last written.
+ *
+ * Instead of rewriting every student line for a single add or drop, each change is appended here as
+ * one line ("ADD;studentId;courseId;grade", "DROP;studentId;courseId" or "GRADE;studentId;courseId;grade").
+ * On startup the journal is replayed over the students read from studentinfo.txt. Once it holds
+ * compactionThreshold entries the caller rewrites studentinfo.txt and truncates the journal (see compact).
+ *
+ * Every entry sets or removes one course of one student, so replaying the journal over data that
+ * already contains some of its entries gives the same result. That makes a crash between rewriting
+ * studentinfo.txt and truncating the journal harmless.
+ *
+ * A thread applying many changes in a row can batch them: between beginBatch and commitBatch its
+ * appends are buffered in order and then written with a single write.
+ */
+public class EnrollmentJournal {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /**
+     * Kinds of journal entries.
+     */
+    public enum Event {
+        ADD,
+        DROP,
+        GRADE
+    }
+
+    /**
+     * Rewrites studentinfo.txt during compaction.
+     */
+    public interface Rewrite {
+        /**
+         * @return true if the file was written successfully and the journal may be truncated.
+         */
+        boolean run();
+    }
+
+    private final String path;
+    private final int compactionThreshold;
+    private FileChannel channel;
+    private int entryCount = -1;
+    // The entries appended by the calling thread since beginBatch; null when not batching
+    private final ThreadLocal<Batch> batch = new ThreadLocal<>();
+
+    private static final class Batch {
+        final StringBuilder lines = new StringBuilder(4096);
+        int entries;
+    }
+
+    public EnrollmentJournal(String path) {
+        this(path, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public EnrollmentJournal(String path, int compactionThreshold) {
+        this.path = path;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns the journal path that belongs to a student data file, e.g. src/studentinfo.journal
+     * for src/studentinfo.txt.
+     *
+     * @param studentInfoPath Path of the student data file.
+     * @return The journal path.
+     */
+    public static String pathFor(String studentInfoPath) {
+        if (studentInfoPath.endsWith(".txt")) {
+            return studentInfoPath.substring(0, studentInfoPath.length() - 4) + ".journal";
+        }
+        return studentInfoPath + ".journal";
+    }
+
+    /**
+     * Appends one entry to the journal, or to the calling thread's batch if it has begun one.
+     *
+     * @param event     The kind of change.
+     * @param studentId The student whose enrollment changed.
+     * @param courseId  The course added, dropped or graded.
+     * @param grade     The grade for ADD and GRADE entries; ignored for DROP.
+     * @throws IOException If the entry cannot be written.
+     */
+    public synchronized void append(Event event, String studentId, String courseId, String grade) throws IOException {
+        StringBuilder line = new StringBuilder(48)
+                .append(event.name()).append(';')
+                .append(studentId).append(';')
+                .append(courseId);
+        if (event != Event.DROP) {
+            line.append(';').append(grade);
+        }
+        line.append('\n');
+
+        Batch pending = batch.get();
+        if (pending != null) {
+            pending.lines.append(line);
+            pending.entries++;
+            return;
+        }
+        write(line, 1);
+    }
+
+    /**
+     * Starts buffering the calling thread's appends until commitBatch. A batch that was begun and
+     * not committed is discarded.
+     */
+    public void beginBatch() {
+        batch.set(new Batch());
+    }
+
+    /**
+     * Writes the entries the calling thread appended since beginBatch, in order, with one write,
+     * and ends the batch.
+     *
+     * @return The number of entries written.
+     * @throws IOException If the entries cannot be written; they are then not in the journal.
+     */
+    public synchronized int commitBatch() throws IOException {
+        Batch pending = batch.get();
+        batch.remove();
+        if (pending == null || pending.entries == 0) {
+            return 0;
+        }
+        write(pending.lines, pending.entries);
+        return pending.entries;
+    }
+
+    private void write(CharSequence lines, int entries) throws IOException {
+        int entriesBefore = size();
+        if (channel == null) {
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        entryCount = entriesBefore + entries;
+    }
+
+    /**
+     * Applies the journal to students freshly read from studentinfo.txt.
+     *
+     * @param students The students to update in place.
+     * @return The number of entries applied.
+     * @throws IOException If the journal exists but cannot be read.
+     */
+    public synchronized int replay(List<Student> students) throws IOException {
+        File file = new File(path);
+        if (!file.isFile()) {
+            entryCount = 0;
+            return 0;
+        }
+
+        Map<String, Student> studentsById = new HashMap<>();
+        for (Student student : students) {
+            studentsById.put(student.getId(), student);
+        }
+
+        int applied = 0;
+        int entries = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(";");
+                if (parts.length < 3) {
+                    continue; // A torn final line from a crash mid-append
+                }
+                entries++;
+                Student student = studentsById.get(parts[1]);
+                if (student == null) {
+                    continue; // Student was deleted since
+                }
+                switch (parts[0]) {
+                    case "ADD":
+                    case "GRADE":
+                        if (parts.length == 4) {
+                            student.getCourses().put(parts[2], parts[3]);
+                            applied++;
+                        }
+                        break;
+                    case "DROP":
+                        student.getCourses().remove(parts[2]);
+                        applied++;
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        entryCount = entries;
+        return applied;
+    }
+
+    /**
+     * @return The number of entries in the journal.
+     */
+    public synchronized int size() {
+        if (entryCount < 0) {
+            entryCount = countEntries();
+        }
+        return entryCount;
+    }
+
+    private int countEntries() {
+        File file = new File(path);
+        if (!file.isFile()) {
+            return 0;
+        }
+        int count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                count++;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading enrollment journal: " + e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * @return true once the journal has grown to the compaction threshold.
+     */
+    public synchronized boolean needsCompaction() {
+        return size() >= compactionThreshold;
+    }
+
+    /**
+     * Folds the journal back into studentinfo.txt: runs the rewrite and, if it succeeded, empties the journal.
+     *
+     * @param rewrite Writes the current students to studentinfo.txt.
+     * @return true if the journal was compacted.
+     */
+    public synchronized boolean compact(Rewrite rewrite) {
+        if (!rewrite.run()) {
+            return false;
+        }
+        try {
+            truncate();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error truncating enrollment journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Empties the journal. Only call this right after studentinfo.txt was rewritten from data that
+     * includes every journaled change.
+     *
+     * @throws IOException If the journal cannot be truncated.
+     */
+    public synchronized void truncate() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+        } else if (new File(path).isFile()) {
+            try (FileChannel truncating = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE)) {
+                truncating.truncate(0);
+            }
+        }
+        entryCount = 0;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
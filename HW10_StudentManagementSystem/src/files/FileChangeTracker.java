@@ -0,0 +1,131 @@
+package files;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the size and modification time of data files so callers can tell
+ * whether a file changed since it was last read, without reading it.
+ */
+public class FileChangeTracker {
+    private final Map<String, FileStamp> seenStamps = new HashMap<>();
+
+    /**
+     * Size and modification time of a file at one point in time.
+     * A missing or unreadable file has size and modification time -1.
+     */
+    public static final class FileStamp {
+        private final long size;
+        private final long lastModifiedNanos;
+
+        private FileStamp(long size, long lastModifiedNanos) {
+            this.size = size;
+            this.lastModifiedNanos = lastModifiedNanos;
+        }
+
+        /**
+         * Recreates a stamp from previously stored values.
+         *
+         * @param size              File size in bytes.
+         * @param lastModifiedNanos Modification time in nanoseconds since the epoch.
+         * @return The stamp.
+         */
+        public static FileStamp of(long size, long lastModifiedNanos) {
+            return new FileStamp(size, lastModifiedNanos);
+        }
+
+        /**
+         * Reads the current stamp of a file.
+         *
+         * @param path Path of the file.
+         * @return The current stamp.
+         */
+        public static FileStamp of(String path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
+                return new FileStamp(attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+            } catch (IOException | RuntimeException e) {
+                return new FileStamp(-1, -1);
+            }
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModifiedNanos() {
+            return lastModifiedNanos;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof FileStamp)) {
+                return false;
+            }
+            FileStamp stamp = (FileStamp) other;
+            return size == stamp.size && lastModifiedNanos == stamp.lastModifiedNanos;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModifiedNanos);
+        }
+    }
+
+    /**
+     * Returns the current stamp of a file if it differs from the last one recorded, otherwise null.
+     * Take the stamp before reading the file and pass it to markSeen afterwards, so a write that
+     * lands while the file is being read is still picked up on the next check.
+     *
+     * @param path Path of the file.
+     * @return The new stamp, or null if the file has not changed.
+     */
+    public synchronized FileStamp changedStamp(String path) {
+        FileStamp current = FileStamp.of(path);
+        return current.equals(seenStamps.get(path)) ? null : current;
+    }
+
+    /**
+     * Checks whether a file changed since it was last marked as seen.
+     *
+     * @param path Path of the file.
+     * @return true if the file changed or was never seen.
+     */
+    public boolean hasChanged(String path) {
+        return changedStamp(path) != null;
+    }
+
+    /**
+     * Returns the stamp recorded when a file was last marked as seen.
+     *
+     * @param path Path of the file.
+     * @return The recorded stamp, or null if the file was never marked as seen.
+     */
+    public synchronized FileStamp getSeenStamp(String path) {
+        return seenStamps.get(path);
+    }
+
+    /**
+     * Records the current state of a file as seen.
+     *
+     * @param path Path of the file.
+     */
+    public void markSeen(String path) {
+        markSeen(path, FileStamp.of(path));
+    }
+
+    /**
+     * Records a previously taken stamp of a file as seen.
+     *
+     * @param path  Path of the file.
+     * @param stamp The stamp taken before the file was read.
+     */
+    public synchronized void markSeen(String path, FileStamp stamp) {
+        seenStamps.put(path, stamp);
+    }
+}
@@ -1,12 +1,17 @@
 package files;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import roles.Admin;
 import roles.Professor;
@@ -28,12 +33,33 @@ public class FileInfoReader {
     private String profInfoPath;
     private String adminInfoPath;
     private Map<String, String> professorNameToIdMap = new HashMap<>();
+    private ReadMode readMode;
+
+    private static volatile ReadMode defaultReadMode = readModeFromProperty();
+
+    /**
+     * How the data files are read.
+     * BUFFERED reads each line through a BufferedReader and splits it into Strings.
+     * MAPPED maps the file into memory and scans the fields in place (see MappedRecordScanner),
+     * which is considerably faster for large files.
+     * Both decode the files as UTF-8. The default comes from the system property "sis.readMode"
+     * (BUFFERED or MAPPED) and is BUFFERED when the property is not set.
+     */
+    public enum ReadMode {
+        BUFFERED,
+        MAPPED
+    }
 
     public FileInfoReader(String courseInfoPath, String studentInfoPath, String profInfoPath, String adminInfoPath) {
+        this(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath, defaultReadMode);
+    }
+
+    public FileInfoReader(String courseInfoPath, String studentInfoPath, String profInfoPath, String adminInfoPath, ReadMode readMode) {
         this.courseInfoPath = courseInfoPath;
         this.studentInfoPath = studentInfoPath;
         this.profInfoPath = profInfoPath;
         this.adminInfoPath = adminInfoPath;
+        this.readMode = readMode;
         try {
             loadProfessorNameToIdMap(); // Load mapping when instance is created
         } catch (IOException e) {
@@ -44,22 +70,42 @@ public class FileInfoReader {
         } // Load mapping when instance is created
     }
     
+    /**
+     * Called once per record by the visit methods.
+     *
+     * @param <T> The type of record visited.
+     */
+    public interface RecordVisitor<T> {
+        /**
+         * @param record The current record.
+         * @return true to continue with the next record, false to stop the scan.
+         */
+        boolean visit(T record);
+    }
+
+    /**
+     * The data files this reader knows about, for scanning raw records with visitRecords.
+     */
+    public enum DataFile {
+        COURSES,
+        STUDENTS,
+        PROFESSORS,
+        ADMINS
+    }
+
     /**
      * Loads a mapping of professor names to IDs from a file.
      *
      * @throws IOException If an I/O error occurs.
      */
     private void loadProfessorNameToIdMap() throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(profInfoPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length >= 2) {
-                    // Name as key, ID as value
-                    professorNameToIdMap.put(parts[0].trim(), parts[1].trim());
-                }
+        visitRecords(profInfoPath, record -> {
+            if (record.fieldCount() >= 2) {
+                // Name as key, ID as value
+                professorNameToIdMap.put(record.field(0), record.field(1));
             }
-        }
+            return true;
+        });
     }
 
     /**
@@ -70,29 +116,10 @@ public class FileInfoReader {
      */
     public List<Course> readCourseInfo() throws IOException {
         List<Course> courses = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(courseInfoPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length == 7) {
-                    int capacity = Integer.parseInt(parts[6].trim());
-                    String professorName = parts[2].trim();
-                    String professorId = professorNameToIdMap.get(professorName);
-
-                    if (professorId == null) {
-                        continue; // Skip adding this course if the professor ID is not found
-                    }
-
-                    Course course = new Course(parts[0], parts[1], professorName, professorId, parts[3], parts[4], parts[5], capacity);
-                    courses.add(course);
-                }
-            }
-        }
+        visitCourses(courses::add);
         return courses;
     }
 
-
-
     /**
      * Reads student information from a file and returns a list of Student objects.
      *
@@ -101,31 +128,10 @@ public class FileInfoReader {
      */
     public List<Student> readStudentInfo() throws IOException {
         List<Student> students = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(studentInfoPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length >= 5) {
-                    String id = parts[0].trim();
-                    String name = parts[1].trim();
-                    String username = parts[2].trim();
-                    String password = parts[3].trim();
-                    Map<String, String> courses = new HashMap<>();
-                    String[] courseDetails = parts[4].split(",");
-                    for (String courseDetail : courseDetails) {
-                        String[] course = courseDetail.split(":");
-                        if (course.length == 2) {
-                            courses.put(course[0].trim(), course[1].trim());
-                        }
-                    }
-                    Student student = new Student(id, name, username, password, courses);
-                    students.add(student);
-                }
-            }
-        }
+        visitStudents(students::add);
         return students;
     }
-    
+
     /**
      * Reads professor information from a file and returns a list of Professor objects.
      *
@@ -134,20 +140,7 @@ public class FileInfoReader {
      */
     public List<Professor> readProfInfo() throws IOException {
         List<Professor> professors = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(profInfoPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length == 4) {
-                    String id = parts[0].trim(); // Correctly assign the first part to id
-                    String name = parts[1].trim(); // Correctly assign the second part to name
-                    String username = parts[2].trim();
-                    String password = parts[3].trim();
-                    Professor professor = new Professor(name, id, username, password, new ArrayList<>());
-                    professors.add(professor);
-                }
-            }
-        }
+        visitProfessors(professors::add);
         return professors;
     }
 
@@ -159,21 +152,280 @@ public class FileInfoReader {
      */
     public List<Admin> readAdminInfo() throws IOException {
         List<Admin> admins = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(adminInfoPath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length == 4) {
-                    String id = parts[0].trim(); // Trim the parts to remove whitespace
-                    String name = parts[1].trim();
-                    String username = parts[2].trim();
-                    String password = parts[3].trim();
-                    Admin admin = new Admin(id, name, username, password);
-                    admins.add(admin);
+        visitAdmins(admins::add);
+        return admins;
+    }
+
+    /**
+     * Passes each course in the course file to a visitor without keeping the others in memory.
+     *
+     * @param visitor Receives each course; returning false stops the scan.
+     * @return The number of courses visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int visitCourses(RecordVisitor<? super Course> visitor) throws IOException {
+        return visitParsed(courseInfoPath, this::toCourse, visitor);
+    }
+
+    /**
+     * Passes each student in the student file to a visitor without keeping the others in memory.
+     *
+     * @param visitor Receives each student; returning false stops the scan.
+     * @return The number of students visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int visitStudents(RecordVisitor<? super Student> visitor) throws IOException {
+        return visitParsed(studentInfoPath, this::toStudent, visitor);
+    }
+
+    /**
+     * Passes each professor in the professor file to a visitor without keeping the others in memory.
+     *
+     * @param visitor Receives each professor; returning false stops the scan.
+     * @return The number of professors visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int visitProfessors(RecordVisitor<? super Professor> visitor) throws IOException {
+        return visitParsed(profInfoPath, this::toProfessor, visitor);
+    }
+
+    /**
+     * Passes each admin in the admin file to a visitor without keeping the others in memory.
+     *
+     * @param visitor Receives each admin; returning false stops the scan.
+     * @return The number of admins visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int visitAdmins(RecordVisitor<? super Admin> visitor) throws IOException {
+        return visitParsed(adminInfoPath, this::toAdmin, visitor);
+    }
+
+    /**
+     * Passes every line of a data file to a visitor as a lazily parsed RecordView, without
+     * building Course, Student, Professor or Admin objects. Useful for validation and reports
+     * that only look at a few columns. Malformed lines are passed on as well.
+     *
+     * @param file    The data file to scan.
+     * @param visitor Receives the view of each line; returning false stops the scan.
+     * @return The number of lines visited.
+     * @throws IOException If an I/O error occurs.
+     */
+    public int visitRecords(DataFile file, RecordVisitor<? super RecordView> visitor) throws IOException {
+        return visitRecords(pathOf(file), visitor);
+    }
+
+    /**
+     * Returns the courses of the course file as a lazily read stream.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     *
+     * @return A stream of Course objects.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<Course> streamCourses() throws IOException {
+        return stream(courseInfoPath, this::toCourse);
+    }
+
+    /**
+     * Returns the students of the student file as a lazily read stream.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     *
+     * @return A stream of Student objects.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<Student> streamStudents() throws IOException {
+        return stream(studentInfoPath, this::toStudent);
+    }
+
+    /**
+     * Returns the professors of the professor file as a lazily read stream.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     *
+     * @return A stream of Professor objects.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<Professor> streamProfessors() throws IOException {
+        return stream(profInfoPath, this::toProfessor);
+    }
+
+    /**
+     * Returns the admins of the admin file as a lazily read stream.
+     * The stream holds the file open and must be closed, e.g. with try-with-resources.
+     *
+     * @return A stream of Admin objects.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Stream<Admin> streamAdmins() throws IOException {
+        return stream(adminInfoPath, this::toAdmin);
+    }
+
+    private String pathOf(DataFile file) {
+        switch (file) {
+            case COURSES:
+                return courseInfoPath;
+            case STUDENTS:
+                return studentInfoPath;
+            case PROFESSORS:
+                return profInfoPath;
+            default:
+                return adminInfoPath;
+        }
+    }
+
+    private RecordScanner openScanner(String path) throws IOException {
+        return readMode == ReadMode.MAPPED ? new MappedRecordScanner(path) : new BufferedRecordScanner(path);
+    }
+
+    private int visitRecords(String path, RecordVisitor<? super RecordView> visitor) throws IOException {
+        int visited = 0;
+        try (RecordScanner scanner = openScanner(path)) {
+            while (scanner.nextLine()) {
+                visited++;
+                if (!visitor.visit(scanner)) {
+                    break;
                 }
             }
         }
-        return admins;
+        return visited;
+    }
+
+    private <T> int visitParsed(String path, Function<RecordView, T> parser, RecordVisitor<? super T> visitor) throws IOException {
+        int visited = 0;
+        try (RecordScanner scanner = openScanner(path)) {
+            while (scanner.nextLine()) {
+                T record = parser.apply(scanner);
+                if (record == null) {
+                    continue;
+                }
+                visited++;
+                if (!visitor.visit(record)) {
+                    break;
+                }
+            }
+        }
+        return visited;
+    }
+
+    private <T> Stream<T> stream(String path, Function<RecordView, T> parser) throws IOException {
+        RecordScanner scanner = openScanner(path);
+        Spliterator<T> records = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (scanner.nextLine()) {
+                        T record = parser.apply(scanner);
+                        if (record != null) {
+                            action.accept(record);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(records, false).onClose(() -> {
+            try {
+                scanner.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Builds a course from one line of the course file.
+     *
+     * @return The course, or null if the line is malformed, including its meeting days or times, or its professor is unknown.
+     */
+    private Course toCourse(RecordView record) {
+        if (record.fieldCount() != 7) {
+            return null;
+        }
+        int capacity = record.intField(6);
+        String professorName = record.field(2);
+        String professorId = professorNameToIdMap.get(professorName);
+
+        if (professorId == null) {
+            return null; // Skip adding this course if the professor ID is not found
+        }
+        try {
+            return new Course(record.rawField(0), record.rawField(1), professorName, professorId,
+                    record.rawField(3), record.rawField(4), record.rawField(5), capacity);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Skipping course " + record.field(0) + ": " + e.getMessage());
+            return null;
+        }
     }
 
+    /**
+     * Builds a student from one line of the student file.
+     *
+     * @return The student, or null if the line is malformed.
+     */
+    private Student toStudent(RecordView record) {
+        if (record.fieldCount() < 5) {
+            return null;
+        }
+        Map<String, String> courses = CourseGradeParser.parse(record.rawField(4));
+        return new Student(record.field(0), record.field(1), record.field(2), record.field(3), courses);
+    }
+
+    /**
+     * Builds a professor from one line of the professor file.
+     *
+     * @return The professor, or null if the line is malformed.
+     */
+    private Professor toProfessor(RecordView record) {
+        if (record.fieldCount() != 4) {
+            return null;
+        }
+        // The file holds "name; id; ..." and Professor takes (name, id), so these are passed through swapped twice
+        return new Professor(record.field(1), record.field(0), record.field(2), record.field(3), new ArrayList<>());
+    }
+
+    /**
+     * Builds an admin from one line of the admin file.
+     *
+     * @return The admin, or null if the line is malformed.
+     */
+    private Admin toAdmin(RecordView record) {
+        if (record.fieldCount() != 4) {
+            return null;
+        }
+        return new Admin(record.field(0), record.field(1), record.field(2), record.field(3));
+    }
+
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+
+    public void setReadMode(ReadMode readMode) {
+        this.readMode = readMode;
+    }
+
+    public static ReadMode getDefaultReadMode() {
+        return defaultReadMode;
+    }
+
+    /**
+     * Sets the read mode used by readers created without an explicit one.
+     *
+     * @param readMode The new default.
+     */
+    public static void setDefaultReadMode(ReadMode readMode) {
+        defaultReadMode = readMode;
+    }
+
+    private static ReadMode readModeFromProperty() {
+        String value = System.getProperty("sis.readMode");
+        if (value != null) {
+            try {
+                return ReadMode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown sis.readMode '" + value + "', using BUFFERED");
+            }
+        }
+        return ReadMode.BUFFERED;
+    }
 }
@@ -0,0 +1,256 @@
+package files;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Scans a semicolon separated data file that has been mapped into memory with FileChannel.map.
+ * Lines and field boundaries are located directly over the mapped bytes, so nothing is allocated
+ * per row; a String is only created when the caller asks for a field it wants to keep.
+ *
+ * Field numbering and counting follow String.split(";"), so a line is accepted or rejected exactly
+ * as the BufferedReader based parsing in FileInfoReader would do it.
+ *
+ * close releases the mapping right away instead of leaving it to the garbage collector, since a
+ * file that is still mapped cannot be replaced on Windows (see AtomicFileWriter). The scanner and
+ * the views it handed out must not be used after that.
+ */
+public final class MappedRecordScanner implements RecordScanner {
+    private static final byte SEPARATOR = ';';
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    private int[] fieldStart = new int[8];
+    private int[] fieldEnd = new int[8];
+    private int fieldCount;
+    private byte[] scratch = new byte[128];
+
+    /**
+     * Maps the given file read-only.
+     *
+     * @param path Path of the file to scan.
+     * @throws IOException If the file cannot be opened or is too large to map in one piece.
+     */
+    public MappedRecordScanner(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("File too large to map: " + path);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.limit = (int) size;
+        this.position = 0;
+    }
+
+    /**
+     * Advances to the next line and records where its fields start and end.
+     *
+     * @return true if a line was read, false at the end of the file.
+     */
+    @Override
+    public boolean nextLine() {
+        if (position >= limit) {
+            return false;
+        }
+        fieldCount = 0;
+        int start = position;
+        int i = position;
+        while (i < limit) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            if (b == SEPARATOR) {
+                addField(start, i);
+                start = i + 1;
+            }
+            i++;
+        }
+        addField(start, i);
+
+        // Step over the line terminator ("\n", "\r" or "\r\n") like BufferedReader.readLine
+        if (i < limit && buffer.get(i) == '\r') {
+            i++;
+            if (i < limit && buffer.get(i) == '\n') {
+                i++;
+            }
+        } else if (i < limit) {
+            i++;
+        }
+        position = i;
+
+        // String.split drops trailing empty fields
+        while (fieldCount > 1 && fieldStart[fieldCount - 1] == fieldEnd[fieldCount - 1]) {
+            fieldCount--;
+        }
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStart.length) {
+            int[] newStart = new int[fieldCount * 2];
+            int[] newEnd = new int[fieldCount * 2];
+            System.arraycopy(fieldStart, 0, newStart, 0, fieldCount);
+            System.arraycopy(fieldEnd, 0, newEnd, 0, fieldCount);
+            fieldStart = newStart;
+            fieldEnd = newEnd;
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * @return The number of fields on the current line, counted like String.split(";").
+     */
+    @Override
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns a field with surrounding whitespace removed, as String.trim() would.
+     *
+     * @param index Zero based field index.
+     * @return The trimmed field value.
+     */
+    @Override
+    public String field(int index) {
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        return decode(start, end);
+    }
+
+    /**
+     * Returns a field exactly as it appears in the file.
+     *
+     * @param index Zero based field index.
+     * @return The untrimmed field value.
+     */
+    @Override
+    public String rawField(int index) {
+        return decode(fieldStart[index], fieldEnd[index]);
+    }
+
+    /**
+     * Parses a field as a decimal int without creating a String for it.
+     *
+     * @param index Zero based field index.
+     * @return The parsed value.
+     * @throws NumberFormatException If the trimmed field is not a valid int.
+     */
+    @Override
+    public int intField(int index) {
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new NumberFormatException("Empty numeric field");
+        }
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) {
+                throw new NumberFormatException("Sign without digits");
+            }
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + decode(fieldStart[index], fieldEnd[index]) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Value out of int range");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range");
+        }
+        return (int) value;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        position = limit;
+        try {
+            channel.close();
+        } finally {
+            if (mapped != null) {
+                unmap(mapped);
+            }
+        }
+    }
+
+    private static void unmap(MappedByteBuffer mapped) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke((ByteBuffer) mapped);
+        } catch (Throwable e) {
+            // The mapping is released by the garbage collector instead
+        }
+    }
+
+    /**
+     * Looks up Unsafe.invokeCleaner, the only way to unmap a buffer before it is collected.
+     *
+     * @return The method bound to the Unsafe instance, or null if it is not available.
+     */
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
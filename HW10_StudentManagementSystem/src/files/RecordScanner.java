@@ -0,0 +1,19 @@
+package files;
+
+import java.io.IOException;
+
+/**
+ * A RecordView that walks a data file one line at a time.
+ */
+interface RecordScanner extends RecordView, AutoCloseable {
+    /**
+     * Advances to the next line.
+     *
+     * @return true if a line was read, false at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    boolean nextLine() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,41 @@
+package files;
+
+/**
+ * Read-only view of the current line of a semicolon separated data file.
+ * Fields are only decoded when asked for, so a caller that looks at one or two
+ * columns does not pay for turning the whole line into Strings.
+ *
+ * A view is reused for every line of a scan and is only valid inside the callback
+ * that received it; copy out any field that has to outlive it.
+ */
+public interface RecordView {
+    /**
+     * @return The number of fields on the current line, counted like String.split(";").
+     */
+    int fieldCount();
+
+    /**
+     * Returns a field with surrounding whitespace removed, as String.trim() would.
+     *
+     * @param index Zero based field index.
+     * @return The trimmed field value.
+     */
+    String field(int index);
+
+    /**
+     * Returns a field exactly as it appears in the file.
+     *
+     * @param index Zero based field index.
+     * @return The untrimmed field value.
+     */
+    String rawField(int index);
+
+    /**
+     * Parses a field as a decimal int.
+     *
+     * @param index Zero based field index.
+     * @return The parsed value.
+     * @throws NumberFormatException If the trimmed field is not a valid int.
+     */
+    int intField(int index);
+}
@@ -0,0 +1,123 @@
+package files;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces rewrites of data files that change many times in a row.
+ *
+ * Each data file is registered once under a name together with the action that rewrites it.
+ * Instead of rewriting the file after every change, callers mark it dirty; dirty files are
+ * written together, once each, when either the window has passed since the first unsaved change
+ * or maxPendingMutations changes have piled up, and whenever flush is called explicitly.
+ *
+ * The window is checked when a change is marked rather than by a background timer, because the
+ * write actions read the same lists the caller is modifying. Callers therefore flush at the end
+ * of a session and before the program exits so the last changes are not left unsaved.
+ */
+public class WriteBehindPersister {
+    public static final long DEFAULT_WINDOW_MILLIS = 5000;
+    public static final int DEFAULT_MAX_PENDING_MUTATIONS = 100;
+
+    private final long windowNanos;
+    private final int maxPendingMutations;
+    private final Map<String, Runnable> writers = new LinkedHashMap<>();
+    private final Set<String> dirty = new LinkedHashSet<>();
+    private int pendingMutations;
+    private long firstPendingAt;
+    private int flushCount;
+
+    public WriteBehindPersister() {
+        this(DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_PENDING_MUTATIONS);
+    }
+
+    /**
+     * @param windowMillis        How long a change may stay unsaved before the next change triggers a flush.
+     * @param maxPendingMutations How many changes may pile up before they are flushed.
+     */
+    public WriteBehindPersister(long windowMillis, int maxPendingMutations) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxPendingMutations = Math.max(1, maxPendingMutations);
+    }
+
+    /**
+     * Registers the action that rewrites a data file.
+     *
+     * @param name   Name the file is marked dirty under, e.g. its path.
+     * @param writer Rewrites the whole file from the current data.
+     */
+    public synchronized void register(String name, Runnable writer) {
+        writers.put(name, writer);
+    }
+
+    /**
+     * Records a change to a data file, flushing all dirty files if the window has passed or
+     * too many changes are pending.
+     *
+     * @param name The registered name of the changed file.
+     */
+    public void markDirty(String name) {
+        boolean flushNow;
+        synchronized (this) {
+            if (!writers.containsKey(name)) {
+                throw new IllegalArgumentException("No writer registered for " + name);
+            }
+            long now = System.nanoTime();
+            if (pendingMutations == 0) {
+                firstPendingAt = now;
+            }
+            dirty.add(name);
+            pendingMutations++;
+            flushNow = pendingMutations >= maxPendingMutations || now - firstPendingAt >= windowNanos;
+        }
+        if (flushNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every dirty file once.
+     *
+     * @return The number of files written.
+     */
+    public synchronized int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        List<String> toWrite = new ArrayList<>(dirty);
+        dirty.clear();
+        pendingMutations = 0;
+        for (String name : toWrite) {
+            writers.get(name).run();
+        }
+        flushCount++;
+        return toWrite.size();
+    }
+
+    /**
+     * @param name The registered name of a file.
+     * @return true if the file has changes that are not written yet.
+     */
+    public synchronized boolean isDirty(String name) {
+        return dirty.contains(name);
+    }
+
+    /**
+     * @return The number of changes since the last flush.
+     */
+    public synchronized int getPendingMutations() {
+        return pendingMutations;
+    }
+
+    /**
+     * @return How many times dirty files were written.
+     */
+    public synchronized int getFlushCount() {
+        return flushCount;
+    }
+}
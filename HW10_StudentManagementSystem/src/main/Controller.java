@@ -4,36 +4,100 @@ import java.util.Scanner;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import files.FileChangeTracker;
+import files.FileChangeTracker.FileStamp;
+import files.DataSnapshot;
+import files.EnrollmentJournal;
 import files.FileInfoReader;
+import files.WriteBehindPersister;
 import java.util.List;
 import java.util.Map;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.Objects;
+
+import roles.RegistrationPipeline;
+import roles.ResidentList;
 import roles.Student;
+import roles.StudentStore;
+import roles.UsernameIndex;
 import roles.Professor;
 import roles.Admin;
+import roles.User;
 import courses.Course;
+import courses.CourseCatalog;
+import courses.EnrollmentIndex;
+import courses.VersionStamp;
 
 public class Controller {
     private static FileInfoReader fileInfoReader;
-    private static List<Student> students;
-    private static List<Professor> professors;
-    private static List<Admin> admins;
-    private static List<Course> courses;
-    private static Admin adminInstance; // Admin instance
+    // Shared by every session; a refresh replaces their contents in one step with setAll
+    private static ResidentList<Student> students;
+    private static ResidentList<Professor> professors;
+    private static ResidentList<Admin> admins;
+    private static CourseCatalog courses;
+
+    // Batches the file rewrites of every admin session, so one admin's flush cannot overwrite another's changes
+    private static final WriteBehindPersister adminSaves = new WriteBehindPersister();
+
+    // Applies student adds and drops on one writer thread when selected with -Dsis.registration=pipeline
+    private static RegistrationPipeline registrationPipeline;
+
+    // Port of the session server when started with --serve and no port
+    private static final int DEFAULT_SERVER_PORT = 5590;
+
+    // Username indexes used to authenticate logins; kept current by refreshData and Admin
+    private static final UsernameIndex<Student> studentLogins = new UsernameIndex<>();
+    private static final UsernameIndex<Professor> professorLogins = new UsernameIndex<>();
+    private static final UsernameIndex<Admin> adminLogins = new UsernameIndex<>();
     
     // Declare file path variables as static fields
     private static String courseInfoPath;
     private static String studentInfoPath;
     private static String profInfoPath;
     private static String adminInfoPath;
+    private static String snapshotPath;
+
+    // Workers for loadData: one per data file, linking stages reuse them once their inputs are parsed
+    private static final ExecutorService loadExecutor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "data-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A read of one data file, run on a loader worker.
+     */
+    private interface DataFileTask<T> {
+        T read() throws IOException;
+    }
+
+    // Size and modification time of each data file as of the last load or refresh
+    private static final FileChangeTracker changeTracker = new FileChangeTracker();
+    // Source file stamps of the data snapshot on disk, null if there is none
+    private static Map<String, FileStamp> snapshotStamps;
+
+    private static String[] dataFilePaths() {
+        return new String[] {courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath};
+    }
 
     /**
      * Loads data from specified file paths into the system.
      * Initializes lists of courses, students, professors, and admins.
+     * Each file is parsed on its own worker, and the course/professor and student/course linking
+     * stages start as soon as the files they need are parsed, so the load takes roughly as long
+     * as the largest file rather than the sum of all four.
      *
      * @param courseInfoPath  Path to the course information file.
      * @param studentInfoPath Path to the student information file.
@@ -41,66 +105,493 @@ public class Controller {
      * @param adminInfoPath   Path to the admin information file.
      */
     private static void loadData(String courseInfoPath, String studentInfoPath, String profInfoPath, String adminInfoPath) {
+        // Stamp the files before reading them so a write made during the load is seen by the next refresh
+        for (String path : dataFilePaths()) {
+            changeTracker.markSeen(path);
+        }
         fileInfoReader = new FileInfoReader(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
 
+        CompletableFuture<CourseCatalog> coursesFuture = readAsync(() -> new CourseCatalog(fileInfoReader.readCourseInfo()));
+        CompletableFuture<ResidentList<Student>> studentsFuture = readAsync(Controller::readStudentsWithJournal);
+        CompletableFuture<List<Professor>> professorsFuture = readAsync(fileInfoReader::readProfInfo);
+        CompletableFuture<List<Admin>> adminsFuture = readAsync(fileInfoReader::readAdminInfo);
+
+        // The two linking stages touch different parts of a Course, so they can run side by side
+        CompletableFuture<Void> professorLinks = coursesFuture.thenAcceptBothAsync(professorsFuture, Controller::linkCoursesToProfessors, loadExecutor);
+        CompletableFuture<Void> studentLinks = coursesFuture.thenAcceptBothAsync(studentsFuture, Controller::linkStudentsToCourses, loadExecutor);
+
         try {
-            courses = fileInfoReader.readCourseInfo();
-            students = fileInfoReader.readStudentInfo();
-            professors = fileInfoReader.readProfInfo();
-            admins = fileInfoReader.readAdminInfo();
-
-         // Create a map for quick professor lookups by ID
-            Map<String, Professor> professorIdMap = new HashMap<>();
-            for (Professor professor : professors) {
-                professorIdMap.put(professor.getId(), professor);
+            CompletableFuture.allOf(professorLinks, studentLinks, adminsFuture).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                System.err.println("Error loading data: " + e.getCause().getCause().getMessage());
+                System.exit(1);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
+        }
 
-            // Link courses with professors
-            for (Course course : courses) {
-                // Assuming course.getProfessorName() returns the professor's ID
-                String professorId = course.getProfessorName(); 
-                if (professorIdMap.containsKey(professorId)) {
-                    Professor professor = professorIdMap.get(professorId);
-                    professor.getCourses().add(course.getCourseId());
-                    course.setProfessorId(professor.getId()); // This line might be redundant now
-                } else {
-                    System.out.println("No matching professor found for Course: " + course.getCourseName() + ", Professor ID: " + course.getProfessorName());
-                }
+        courses = coursesFuture.join();
+        students = studentsFuture.join();
+        professors = new ResidentList<>(professorsFuture.join());
+        admins = new ResidentList<>(adminsFuture.join());
+        rebuildLoginIndexes();
+    }
+
+    /**
+     * Rebuilds the username indexes from the resident users.
+     */
+    private static void rebuildLoginIndexes() {
+        studentLogins.rebuild(students);
+        professorLogins.rebuild(professors);
+        adminLogins.rebuild(admins);
+    }
+
+    /**
+     * Reads the student file and applies the enrollment changes journaled since it was last written.
+     * With the columnar student store selected, each student is moved into the store as it is read.
+     *
+     * @return The students, as a list that can be shared between sessions.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static ResidentList<Student> readStudentsWithJournal() throws IOException {
+        ResidentList<Student> loadedStudents;
+        if (StudentStore.isSelected()) {
+            StudentStore store = new StudentStore();
+            fileInfoReader.visitStudents(store.asList()::add);
+            loadedStudents = store.residentList();
+        } else {
+            loadedStudents = new ResidentList<>(fileInfoReader.readStudentInfo());
+        }
+        Student.getEnrollmentJournal().replay(loadedStudents);
+        return loadedStudents;
+    }
+
+    /**
+     * Starts reading a data file on a loader worker.
+     *
+     * @param task The read to perform.
+     * @return A future holding the parsed records.
+     */
+    private static <T> CompletableFuture<T> readAsync(DataFileTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
+        }, loadExecutor);
+    }
 
+    /**
+     * Links each course with the professor who teaches it.
+     *
+     * @param courses    The parsed courses.
+     * @param professors The parsed professors.
+     */
+    private static void linkCoursesToProfessors(List<Course> courses, List<Professor> professors) {
+        // Create a map for quick professor lookups by ID
+        Map<String, Professor> professorIdMap = new HashMap<>();
+        for (Professor professor : professors) {
+            professorIdMap.put(professor.getId(), professor);
+        }
 
-            // Create a map for quick course lookups
-            Map<String, Course> courseMap = new HashMap<>();
-            for (Course course : courses) {
-                courseMap.put(course.getCourseId(), course);
+        // Link courses with professors
+        for (Course course : courses) {
+            // Assuming course.getProfessorName() returns the professor's ID
+            String professorId = course.getProfessorName(); 
+            if (professorIdMap.containsKey(professorId)) {
+                Professor professor = professorIdMap.get(professorId);
+                professor.getCourses().add(course.getCourseId());
+                course.setProfessorId(professor.getId()); // This line might be redundant now
+            } else {
+                System.out.println("No matching professor found for Course: " + course.getCourseName() + ", Professor ID: " + course.getProfessorName());
             }
+        }
+    }
 
-            // Link students with courses
-            for (Student student : students) {
-                Map<String, String> studentCourses = student.getCourses();
-                for (String courseId : studentCourses.keySet()) {
-                    Course course = courseMap.get(courseId);
-                    if (course != null) {
-                        course.addStudent(student.getId());
-                    }
-                }
+    /**
+     * Enrolls each student in the courses listed in their record, through the catalog's enrollment
+     * index, and has the index journal promotions from waitlists.
+     *
+     * @param courses  The catalog of parsed courses.
+     * @param students The parsed students.
+     */
+    private static void linkStudentsToCourses(CourseCatalog courses, List<Student> students) {
+        courses.getEnrollments().linkAll(courses, students);
+        courses.getEnrollments().setPromotionListener(Student::journalPromotion);
+    }
+
+    /**
+     * Rewrites the student file from the resident students if the enrollment journal holds any entries.
+     */
+    private static synchronized void compactEnrollmentJournal() {
+        if (Student.getEnrollmentJournal().size() > 0) {
+            Student.compactEnrollmentJournal(students, studentInfoPath);
+        }
+    }
+
+    /**
+     * Loads the resident data from the binary snapshot instead of the text files,
+     * provided the snapshot exists and none of the text files changed since it was written.
+     *
+     * @return true if the data was loaded from the snapshot, false if the text files must be read.
+     */
+    private static boolean loadSnapshot() {
+        DataSnapshot snapshot;
+        try {
+            snapshot = DataSnapshot.readIfFresh(snapshotPath);
+        } catch (IOException e) {
+            System.err.println("Ignoring data snapshot: " + e.getMessage());
+            return false;
+        }
+        if (snapshot == null || !snapshot.getSourceStamps().keySet().containsAll(Arrays.asList(dataFilePaths()))) {
+            return false;
+        }
+
+        try {
+            Student.getEnrollmentJournal().replay(snapshot.getStudents());
+        } catch (IOException e) {
+            System.err.println("Ignoring data snapshot: " + e.getMessage());
+            return false;
+        }
+
+        courses = new CourseCatalog(snapshot.getCourses());
+        if (StudentStore.isSelected()) {
+            students = new StudentStore().residentList();
+            students.addAll(snapshot.getStudents());
+        } else {
+            students = new ResidentList<>(snapshot.getStudents());
+        }
+        professors = new ResidentList<>(snapshot.getProfessors());
+        admins = new ResidentList<>(snapshot.getAdmins());
+        linkCoursesToProfessors(courses, professors);
+        linkStudentsToCourses(courses, students);
+        rebuildLoginIndexes();
+
+        snapshot.getSourceStamps().forEach(changeTracker::markSeen);
+        snapshotStamps = snapshot.getSourceStamps();
+        fileInfoReader = new FileInfoReader(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+        return true;
+    }
+
+    /**
+     * Writes the resident data to the binary snapshot, stamped with the text file states it reflects.
+     * Does nothing when the snapshot on disk is already current.
+     */
+    private static void writeSnapshot() {
+        Map<String, FileStamp> stamps = new LinkedHashMap<>();
+        for (String path : dataFilePaths()) {
+            FileStamp stamp = changeTracker.getSeenStamp(path);
+            if (stamp == null) {
+                return;
             }
+            stamps.put(path, stamp);
+        }
+        if (stamps.equals(snapshotStamps)) {
+            return;
+        }
+
+        try {
+            new DataSnapshot(courses, students, professors, admins, stamps).write(snapshotPath);
+            snapshotStamps = stamps;
+        } catch (IOException e) {
+            System.err.println("Could not write data snapshot: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Brings the resident data up to date with the data files.
+     * Only files whose size or modification time changed since they were last read are parsed again,
+     * and their rows are merged into the existing objects by ID: unchanged rows are left alone,
+     * changed rows are updated in place, and added or removed rows are linked or unlinked.
+     * When nothing changed this does no file I/O beyond four stat calls.
+     */
+    private static synchronized void refreshData() {
+        FileStamp profStamp = changeTracker.changedStamp(profInfoPath);
+        FileStamp courseStamp = changeTracker.changedStamp(courseInfoPath);
+        FileStamp studentStamp = changeTracker.changedStamp(studentInfoPath);
+        FileStamp adminStamp = changeTracker.changedStamp(adminInfoPath);
 
+        try {
+            if (profStamp != null) {
+                // The professor name to ID map used when reading courses is built from this file
+                fileInfoReader = new FileInfoReader(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+                List<Professor> freshProfessors = fileInfoReader.readProfInfo();
+                // Each resident list's monitor is held from the merge through the login index rebuild,
+                // so an admin cannot add or delete a user in between and have it lost
+                synchronized (professors) {
+                    mergeProfessors(freshProfessors);
+                    professorLogins.rebuild(professors);
+                }
+                changeTracker.markSeen(profInfoPath, profStamp);
+            }
+            if (courseStamp != null) {
+                mergeCourses(fileInfoReader.readCourseInfo());
+                changeTracker.markSeen(courseInfoPath, courseStamp);
+            }
+            if (studentStamp != null) {
+                // Read the resident students before the file, so changes made while it is parsed are noticed
+                Map<String, VersionStamp.Snapshot<Student>> residentReads = readResidentStudents();
+                List<Student> freshStudents = readStudentsWithJournal();
+                boolean merged;
+                synchronized (students) {
+                    merged = mergeStudents(residentReads, freshStudents);
+                    studentLogins.rebuild(students);
+                }
+                if (merged) {
+                    // Otherwise the file is merged again on the next refresh, for the students skipped
+                    changeTracker.markSeen(studentInfoPath, studentStamp);
+                }
+            }
+            if (adminStamp != null) {
+                List<Admin> freshAdmins = fileInfoReader.readAdminInfo();
+                synchronized (admins) {
+                    admins.setAll(mergeById(admins, freshAdmins, Admin::getId,
+                            Controller::copyAccountFields, added -> {}, removed -> {}));
+                    adminLogins.rebuild(admins);
+                }
+                changeTracker.markSeen(adminInfoPath, adminStamp);
+            }
         } catch (IOException e) {
-            System.err.println("Error loading data: " + e.getMessage());
-            System.exit(1);
+            System.err.println("Error refreshing data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Merges freshly read records into a resident list, keeping the resident objects for IDs that
+     * still exist so references held elsewhere (sessions, course rosters) stay valid.
+     * The resident list itself is left alone; the caller publishes the merged list in one step with setAll,
+     * so sessions never see it empty or half refilled.
+     *
+     * @param resident     The resident list.
+     * @param fresh        The records just read from the file.
+     * @param idOf         Extracts the record ID.
+     * @param applyChanges Copies changed fields from the fresh record onto the resident one.
+     * @param onAdded      Called for records whose ID was not resident before.
+     * @param onRemoved    Called for resident records whose ID is no longer in the file.
+     * @return The merged records, in file order.
+     */
+    private static <T> List<T> mergeById(List<T> resident, List<T> fresh, Function<T, String> idOf,
+            BiConsumer<T, T> applyChanges, Consumer<T> onAdded, Consumer<T> onRemoved) {
+        Map<String, T> residentById = new HashMap<>();
+        for (T record : resident) {
+            residentById.put(idOf.apply(record), record);
+        }
+
+        List<T> merged = new ArrayList<>(fresh.size());
+        for (T record : fresh) {
+            T existing = residentById.remove(idOf.apply(record));
+            if (existing == null) {
+                merged.add(record);
+                onAdded.accept(record);
+            } else {
+                applyChanges.accept(existing, record);
+                merged.add(existing);
+            }
+        }
+        for (T removed : residentById.values()) {
+            onRemoved.accept(removed);
         }
+
+        return merged;
     }
 
+    /**
+     * @return true if the two users have the same name, username and password.
+     */
+    private static boolean sameAccount(User resident, User fresh) {
+        return Objects.equals(resident.getName(), fresh.getName())
+                && Objects.equals(resident.getUsername(), fresh.getUsername())
+                && Objects.equals(resident.getPassword(), fresh.getPassword());
+    }
 
+    /**
+     * Copies name, username and password from a freshly read user onto the resident one where they differ.
+     */
+    private static <T extends User> void copyAccountFields(T resident, T fresh) {
+        if (!Objects.equals(resident.getName(), fresh.getName())) {
+            resident.setName(fresh.getName());
+        }
+        if (!Objects.equals(resident.getUsername(), fresh.getUsername())) {
+            resident.setUsername(fresh.getUsername());
+        }
+        if (!Objects.equals(resident.getPassword(), fresh.getPassword())) {
+            resident.setPassword(fresh.getPassword());
+        }
+    }
 
+    /**
+     * Merges a fresh read of the professor file into the resident professors. The caller holds the
+     * resident list's monitor.
+     *
+     * @param freshProfessors The professors just read from the file.
+     */
+    private static void mergeProfessors(List<Professor> freshProfessors) {
+        professors.setAll(mergeById(professors, freshProfessors, Professor::getId, Controller::copyAccountFields,
+                added -> {
+                    for (Course course : courses) {
+                        // Same matching rule as linkCoursesToProfessors
+                        if (added.getId().equals(course.getProfessorName())) {
+                            added.getCourses().add(course.getCourseId());
+                        }
+                    }
+                },
+                removed -> {}));
+    }
 
+    /**
+     * Merges a fresh read of the course file into the resident courses.
+     * New courses are linked to their professor and to the students who list them.
+     *
+     * @param freshCourses The courses just read from the file.
+     */
+    private static void mergeCourses(List<Course> freshCourses) {
+        List<Course> addedCourses = new ArrayList<>();
+        List<Course> resized = new ArrayList<>();
+        List<Course> merged = mergeById(courses, freshCourses, Course::getCourseId,
+                (resident, fresh) -> resident.getVersion().update(() -> {
+                    if (!Objects.equals(resident.getCourseName(), fresh.getCourseName())) {
+                        resident.setCourseName(fresh.getCourseName());
+                    }
+                    if (!Objects.equals(resident.getProfessorName(), fresh.getProfessorName())) {
+                        resident.setProfessorName(fresh.getProfessorName());
+                        resident.setProfessorId(fresh.getProfessorId());
+                    }
+                    if (!Objects.equals(resident.getDays(), fresh.getDays())
+                            || !Objects.equals(resident.getStartTime(), fresh.getStartTime())
+                            || !Objects.equals(resident.getEndTime(), fresh.getEndTime())) {
+                        resident.setMeetingTimes(fresh.getDays(), fresh.getStartTime(), fresh.getEndTime());
+                    }
+                    if (resident.getCapacity() != fresh.getCapacity()) {
+                        resident.setCapacity(fresh.getCapacity());
+                        resized.add(resident);
+                    }
+                }),
+                addedCourses::add,
+                removed -> {
+                    removed.getVersion().retire();
+                    for (Professor professor : professors) {
+                        professor.getCourses().remove(removed.getCourseId());
+                    }
+                    courses.getEnrollments().unlinkCourse(removed);
+                });
+        courses.setAll(merged);
+
+        // Seats added by a raised capacity go to the students waiting for them
+        for (Course course : resized) {
+            courses.getEnrollments().fillFreeSeats(course);
+        }
 
+        if (!addedCourses.isEmpty()) {
+            linkCoursesToProfessors(addedCourses, professors);
+            for (Course added : addedCourses) {
+                courses.getEnrollments().linkCourse(added, students);
+            }
+        }
+    }
+
+    /**
+     * Reads every resident student consistently into a detached copy, remembering the version read.
+     * Each read is made as a transaction on the student, so no registration is halfway between
+     * changing the student and journaling the change.
+     *
+     * @return The reads by student ID.
+     */
+    private static Map<String, VersionStamp.Snapshot<Student>> readResidentStudents() {
+        EnrollmentIndex enrollments = courses.getEnrollments();
+        Map<String, VersionStamp.Snapshot<Student>> reads = new HashMap<>();
+        for (Student student : students) {
+            reads.put(student.getId(), enrollments.transact(student, List.of(),
+                    () -> student.getVersion().readSnapshot(() -> new Student(student.getId(), student.getName(),
+                            student.getUsername(), student.getPassword(), new HashMap<>(student.getCourses())))));
+        }
+        return reads;
+    }
+
+    /**
+     * Merges a fresh read of the student file into the resident students,
+     * enrolling or unenrolling course rosters for the course entries that changed.
+     *
+     * The fresh students hold the file with the journal replayed over it, so they include every
+     * change journaled before the file was read. A resident student is only overwritten if they are
+     * still as read before the file was: one changed since, e.g. by a registration not yet in the
+     * journal, is newer than the file and is left alone.
+     *
+     * The caller holds the resident list's monitor. The enrollment index is locked inside it, never
+     * the other way round.
+     *
+     * @param residentReads The resident students as read before the file, by ID.
+     * @param freshStudents The students just read from the file.
+     * @return true if every student was merged, false if some were skipped because they changed meanwhile.
+     */
+    private static boolean mergeStudents(Map<String, VersionStamp.Snapshot<Student>> residentReads,
+            List<Student> freshStudents) {
+        EnrollmentIndex enrollments = courses.getEnrollments();
+        boolean[] skipped = new boolean[1];
+        students.setAll(mergeById(students, freshStudents, Student::getId,
+                (resident, fresh) -> {
+                    VersionStamp.Snapshot<Student> read = residentReads.get(resident.getId());
+                    if (read == null) {
+                        // Added after the resident students were read
+                        skipped[0] = true;
+                        return;
+                    }
+                    Map<String, String> residentCourses = read.get().getCourses();
+                    Map<String, String> freshCourses = fresh.getCourses();
+                    boolean coursesChanged = !residentCourses.equals(freshCourses);
+                    if (!coursesChanged && sameAccount(read.get(), fresh)) {
+                        return;
+                    }
+                    // The rosters are changed outside the version write: the index takes its locks
+                    // before writing a student's version, never while holding one
+                    boolean applied = read.tryUpdate(() -> {
+                        copyAccountFields(resident, fresh);
+                        if (coursesChanged) {
+                            resident.setCourses(freshCourses);
+                        }
+                    });
+                    if (!applied) {
+                        skipped[0] = true;
+                        return;
+                    }
+                    if (!coursesChanged) {
+                        return;
+                    }
+                    for (String courseId : residentCourses.keySet()) {
+                        Course course = courses.findById(courseId);
+                        if (!freshCourses.containsKey(courseId) && course != null) {
+                            enrollments.unlink(resident, course);
+                        }
+                    }
+                    for (String courseId : freshCourses.keySet()) {
+                        Course course = courses.findById(courseId);
+                        if (!residentCourses.containsKey(courseId) && course != null) {
+                            enrollments.link(resident, course);
+                        }
+                    }
+                },
+                added -> {
+                    for (String courseId : added.getCourses().keySet()) {
+                        Course course = courses.findById(courseId);
+                        if (course != null) {
+                            enrollments.link(added, course);
+                        }
+                    }
+                },
+                removed -> {
+                    removed.getVersion().retire();
+                    enrollments.unlinkStudent(removed);
+                }));
+        return !skipped[0];
+    }
 
     /**
      * The main method to start the application.
      * Initializes paths to data files and loads data.
+     * With "--serve [port]" it serves sessions over a local socket instead of the console; see serve.
      *
      * @param args The command-line arguments.
      */
@@ -110,12 +601,43 @@ public class Controller {
         studentInfoPath = "src/studentinfo.txt";
         profInfoPath = "src/profinfo.txt";
         adminInfoPath = "src/admininfo.txt";
+        snapshotPath = "src/data.snapshot";
+        Student.setEnrollmentJournal(new EnrollmentJournal(EnrollmentJournal.pathFor(studentInfoPath)));
+        // The student file is rewritten from the resident data, so there is nothing to merge back in
+        Student.setStudentFileListener(changeTracker::markSeen);
+
+        // Load data, from the binary snapshot when it is still current
+        if (!loadSnapshot()) {
+            loadData(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+            writeSnapshot();
+        }
+        if (RegistrationPipeline.isSelected()) {
+            registrationPipeline = new RegistrationPipeline();
+            Student.setRegistrationPipeline(registrationPipeline);
+        }
 
-        // Load data
-        loadData(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT);
+            return;
+        }
 
         // Main application logic
         try (Scanner scanner = new Scanner(System.in)) {
+            runSession(scanner);
+        }
+        saveOnExit();
+    }
+
+    /**
+     * Runs the main menu for one user until they quit. Used for the console and for every session
+     * of the session server alike.
+     *
+     * @param scanner The user's input.
+     */
+    private static void runSession(Scanner scanner) {
+        // The admin logged in during this session, whose batched saves must be written when it ends
+        Admin sessionAdmin = null;
+        try {
             boolean running = true;
             while (running) {
                 // Display menu
@@ -149,7 +671,10 @@ public class Controller {
                         handleProfessorLogin(scanner, courses, students);
                         break;
                     case 3:
-                        handleAdminLogin(scanner);
+                        Admin admin = handleAdminLogin(scanner);
+                        if (admin != null) {
+                            sessionAdmin = admin;
+                        }
                         break;
                     case 4:
                         System.out.println("Exiting system.");
@@ -159,61 +684,104 @@ public class Controller {
                         System.out.println("Invalid choice. Please enter a number between 1 and 4.");
                 }
             }
+        } finally {
+            if (sessionAdmin != null) {
+                sessionAdmin.flushPendingSaves();
+            }
+        }
+    }
+
+    /**
+     * Writes what is still only in memory before the program ends: applies the registrations still
+     * in the pipeline, merges any outside changes to the data files, folds the enrollment journal
+     * into the student file and leaves a current snapshot behind.
+     */
+    private static synchronized void saveOnExit() {
+        if (registrationPipeline != null) {
+            registrationPipeline.close();
         }
+        refreshData();
+        compactEnrollmentJournal();
+        writeSnapshot();
     }
 
     /**
-     * Generic method to find a user by username and password from a list of users.
-     * This method is flexible and can be used with any user type (e.g., Student, Professor, Admin)
-     * as long as the type has username and password fields.
+     * Serves sessions over a socket on the loopback interface until the server is stopped by typing
+     * "quit" on the console or by shutting the process down. Every connection gets the main menu
+     * on its own thread, and all sessions share the resident data. Clients can be as simple as
+     * "nc localhost 5590".
      *
-     * @param <T>                The type of the user, inferred from the users list.
-     * @param users              The list of users of type T.
-     * @param username           The username to search for.
-     * @param password           The password to search for.
-     * @param usernameExtractor  A function that takes an object of type T and returns its username.
-     *                           This function is used to extract the username from each user object.
-     * @param passwordExtractor  A function that takes an object of type T and returns its password.
-     *                           This function is used to extract the password from each user object.
-     * @return                   The user object of type T if found, null otherwise.
+     * The resident lists are copy-on-write (see ResidentList), so sessions can walk them while an
+     * admin adds or deletes students or a refresh merges the data files.
      *
-     * Example usage:
-     *   User foundUser = findByUsernameAndPassword(usersList, "john_doe", "password123", User::getUsername, User::getPassword);
+     * @param port The port to listen on.
      */
-    private static <T> T findByUsernameAndPassword(
-    	    List<T> users,
-    	    String username,
-    	    String password,
-    	    Function<T, String> usernameExtractor,
-    	    Function<T, String> passwordExtractor) {
-
-    	    return users.stream()
-    	                .filter(user -> usernameExtractor.apply(user).equals(username) && passwordExtractor.apply(user).equals(password))
-    	                .findFirst()
-    	                .orElse(null);
-    	}
+    private static void serve(int port) {
+        SessionServer server;
+        try {
+            server = new SessionServer(port, Controller::runSession);
+        } catch (IOException e) {
+            System.err.println("Could not start session server: " + e.getMessage());
+            return;
+        }
+
+        Thread shutdownHook = new Thread(() -> stopServer(server), "server-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        Thread console = new Thread(() -> {
+            try (Scanner scanner = new Scanner(System.in)) {
+                while (scanner.hasNextLine()) {
+                    if (scanner.nextLine().trim().equalsIgnoreCase("quit")) {
+                        stopServer(server);
+                        return;
+                    }
+                }
+            }
+        }, "server-console");
+        console.setDaemon(true);
+        console.start();
+
+        System.out.println("Serving sessions on port " + server.getPort() + ". Type 'quit' to stop.");
+        try {
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("Session server stopped: " + e.getMessage());
+        }
+        stopServer(server);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Stopped by the shutdown hook, which has already saved
+        }
+        System.out.println("Session server stopped.");
+    }
+
+    /**
+     * Disconnects every session and saves the resident data. Safe to call more than once.
+     */
+    private static void stopServer(SessionServer server) {
+        try {
+            server.close();
+        } catch (IOException e) {
+            System.err.println("Error stopping session server: " + e.getMessage());
+        }
+        saveOnExit();
+    }
 
     /**
      * Handles the student login process.
      *
      * @param scanner    The scanner object for reading user input.
-     * @param allCourses The list of all courses.
+     * @param allCourses The catalog of all courses.
      * @param allStudents The list of all students.
      */
-    private static void handleStudentLogin(Scanner scanner, List<Course> allCourses, List<Student> allStudents) {
-        loadData(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+    private static void handleStudentLogin(Scanner scanner, CourseCatalog allCourses, List<Student> allStudents) {
+        refreshData();
         System.out.println("Enter student username:");
         String username = scanner.next();
         System.out.println("Enter password:");
         String password = scanner.next();
 
-        Student student = findByUsernameAndPassword(
-            allStudents,
-            username,
-            password,
-            Student::getUsername,
-            Student::getPassword
-        );
+        Student student = studentLogins.authenticate(username, password);
 
         if (student != null) {
             System.out.println("Logged in as " + student.getName()); // Add this line to display the login message
@@ -227,23 +795,17 @@ public class Controller {
      * Handles the professor login process.
      *
      * @param scanner    The scanner object for reading user input.
-     * @param allCourses The list of all courses.
+     * @param allCourses The catalog of all courses.
      * @param allStudents The list of all students.
      */
-    private static void handleProfessorLogin(Scanner scanner, List<Course> allCourses, List<Student> allStudents) {
-        loadData(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+    private static void handleProfessorLogin(Scanner scanner, CourseCatalog allCourses, List<Student> allStudents) {
+        refreshData();
         System.out.println("Enter professor username:");
         String username = scanner.next();
         System.out.println("Enter password:");
         String password = scanner.next();
 
-        Professor professor = findByUsernameAndPassword(
-            professors,
-            username,
-            password,
-            Professor::getUsername,
-            Professor::getPassword
-        );
+        Professor professor = professorLogins.authenticate(username, password);
 
         if (professor != null) {
             professor.manageOperations(allCourses, allStudents, scanner);
@@ -256,30 +818,28 @@ public class Controller {
      * Handles the admin login process.
      *
      * @param scanner The scanner object for reading user input.
+     * @return The admin who logged in, or null if the login failed.
      */
-    private static void handleAdminLogin(Scanner scanner) {
-        loadData(courseInfoPath, studentInfoPath, profInfoPath, adminInfoPath);
+    private static Admin handleAdminLogin(Scanner scanner) {
+        refreshData();
         System.out.println("Enter admin username:");
         String username = scanner.next();
         System.out.println("Enter password:");
         String password = scanner.next();
 
-        Admin admin = findByUsernameAndPassword(
-            admins,
-            username,
-            password,
-            Admin::getUsername,
-            Admin::getPassword
-        );
+        Admin admin = adminLogins.authenticate(username, password);
 
         if (admin != null) {
-            adminInstance = admin; // Assuming admin objects are already created in the admins list
-            adminInstance.setCourses(new ArrayList<>(courses)); // Set the courses list
-            adminInstance.setProfessors(professors); // Set the professors list
-            adminInstance.manageAdminOperations(scanner);
+            admin.setCourses(courses); // Share the resident courses list
+            admin.setStudents(students); // Share the resident students list
+            admin.setProfessors(professors); // Share the resident professors list
+            admin.setPersister(adminSaves); // Share one write-behind persister between admin sessions
+            admin.setLoginIndexes(studentLogins, professorLogins); // Keep logins current with admin edits
+            admin.manageAdminOperations(scanner);
         } else {
             System.out.println("Invalid login. Please try again.");
         }
+        return admin;
     }
 
 
@@ -0,0 +1,221 @@
+package main;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+/**
+ * A System.out that prints to the session of the calling thread.
+ *
+ * The menus print with System.out, so to serve several sessions from one process each session
+ * thread binds its own stream, and everything it prints through System.out goes there. Threads
+ * with no session bound, such as the server's main thread, print to the console as before.
+ *
+ * Every PrintStream method is forwarded to the thread's stream, so sessions never share a buffer
+ * or wait on each other's locks.
+ */
+public final class SessionOutput extends PrintStream {
+    private static final ThreadLocal<PrintStream> SESSION = new ThreadLocal<>();
+
+    private final PrintStream console;
+
+    private SessionOutput(PrintStream console) {
+        super(OutputStream.nullOutputStream());
+        this.console = console;
+    }
+
+    /**
+     * Installs the session output as System.out, unless it already is.
+     */
+    public static synchronized void install() {
+        if (!(System.out instanceof SessionOutput)) {
+            System.setOut(new SessionOutput(System.out));
+        }
+    }
+
+    /**
+     * Sends what the calling thread prints to System.out to a session.
+     *
+     * @param out The session's stream, or null to print to the console again.
+     */
+    public static void bind(PrintStream out) {
+        if (out == null) {
+            SESSION.remove();
+        } else {
+            SESSION.set(out);
+        }
+    }
+
+    private PrintStream out() {
+        PrintStream out = SESSION.get();
+        return out != null ? out : console;
+    }
+
+    @Override
+    public void flush() {
+        out().flush();
+    }
+
+    @Override
+    public void close() {
+        out().close();
+    }
+
+    @Override
+    public boolean checkError() {
+        return out().checkError();
+    }
+
+    @Override
+    public void write(int b) {
+        out().write(b);
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        out().write(buf, off, len);
+    }
+
+    @Override
+    public void write(byte[] buf) throws IOException {
+        out().write(buf);
+    }
+
+    @Override
+    public void print(boolean b) {
+        out().print(b);
+    }
+
+    @Override
+    public void print(char c) {
+        out().print(c);
+    }
+
+    @Override
+    public void print(int i) {
+        out().print(i);
+    }
+
+    @Override
+    public void print(long l) {
+        out().print(l);
+    }
+
+    @Override
+    public void print(float f) {
+        out().print(f);
+    }
+
+    @Override
+    public void print(double d) {
+        out().print(d);
+    }
+
+    @Override
+    public void print(char[] s) {
+        out().print(s);
+    }
+
+    @Override
+    public void print(String s) {
+        out().print(s);
+    }
+
+    @Override
+    public void print(Object obj) {
+        out().print(obj);
+    }
+
+    @Override
+    public void println() {
+        out().println();
+    }
+
+    @Override
+    public void println(boolean x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(char x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(int x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(long x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(float x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(double x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(char[] x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(String x) {
+        out().println(x);
+    }
+
+    @Override
+    public void println(Object x) {
+        out().println(x);
+    }
+
+    @Override
+    public PrintStream printf(String format, Object... args) {
+        out().printf(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream printf(Locale l, String format, Object... args) {
+        out().printf(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(String format, Object... args) {
+        out().format(format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream format(Locale l, String format, Object... args) {
+        out().format(l, format, args);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq) {
+        out().append(csq);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(CharSequence csq, int start, int end) {
+        out().append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public PrintStream append(char c) {
+        out().append(c);
+        return this;
+    }
+}
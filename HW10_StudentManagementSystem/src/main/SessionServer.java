@@ -0,0 +1,151 @@
+package main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves interactive sessions over TCP on the loopback interface, so many users can be served by
+ * one process sharing one in-memory model. A session is what the console would be: it reads its
+ * input from the connection, and everything its thread prints to System.out (see SessionOutput)
+ * is sent back over the connection.
+ *
+ * Each connection is handled on its own thread: a virtual thread when the JVM has them, so
+ * thousands of mostly idle sessions cost little, or a pooled platform thread otherwise.
+ */
+public class SessionServer implements Closeable {
+    /**
+     * What a session does with its connection.
+     */
+    public interface Session {
+        void run(Scanner input) throws Exception;
+    }
+
+    private final ServerSocket serverSocket;
+    private final Session session;
+    private final ExecutorService sessions = newSessionExecutor();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Binds the server to a port on the loopback interface.
+     *
+     * @param port    The port, or 0 for any free port.
+     * @param session The session to run for each connection.
+     * @throws IOException If the port cannot be bound.
+     */
+    public SessionServer(int port, Session session) throws IOException {
+        this.serverSocket = new ServerSocket(port, 256, InetAddress.getLoopbackAddress());
+        this.session = session;
+        SessionOutput.install();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return The number of sessions currently connected.
+     */
+    public int getActiveSessions() {
+        return connections.size();
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a session for each.
+     *
+     * @throws IOException If accepting fails for a reason other than the server being closed.
+     */
+    public void serve() throws IOException {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (closed) {
+                    return;
+                }
+                throw e;
+            }
+            connections.add(socket);
+            sessions.execute(() -> handle(socket));
+        }
+    }
+
+    private void handle(Socket socket) {
+        int id = sessionCount.incrementAndGet();
+        try (Socket connection = socket;
+             PrintStream out = new PrintStream(connection.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            SessionOutput.bind(out);
+            session.run(new Scanner(connection.getInputStream(), StandardCharsets.UTF_8));
+        } catch (NoSuchElementException | IOException e) {
+            // The client went away; nothing left to tell it
+        } catch (Exception e) {
+            System.err.println("Session " + id + " failed: " + e);
+        } finally {
+            SessionOutput.bind(null);
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Stops accepting connections, disconnects every session and waits briefly for them to end.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        serverSocket.close();
+        for (Socket connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+        sessions.shutdown();
+        try {
+            sessions.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread, falling back to a cached pool
+     * of daemon platform threads on JVMs without virtual threads.
+     *
+     * @return The executor.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "session-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
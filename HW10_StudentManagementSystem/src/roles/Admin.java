@@ -1,41 +1,104 @@
 package roles;
 import courses.Course;
+import courses.CourseCatalog;
+import courses.MeetingPattern;
+import courses.VersionStamp;
+import files.AtomicFileWriter;
+import files.CourseGradeParser;
+import files.EnrollmentJournal;
+import files.WriteBehindPersister;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class Admin extends User {
-	 private List<Course> courses; // Instance variable declaration
+	 private CourseCatalog courses; // Instance variable declaration
 	 private List<Student> students; // Add this line
 	 private List<Professor> professors; // Add this line
-	 private Map<String, Professor> professorMap;
+	 private WriteBehindPersister persister;
+	 private UsernameIndex<Student> studentLogins;
+	 private UsernameIndex<Professor> professorLogins;
+
+	 private static final String COURSE_FILE = "src/courseinfo.txt";
+	 private static final String STUDENT_FILE = "src/studentinfo.txt";
+	 private static final String PROFESSOR_FILE = "src/profinfo.txt";
+	 private static final double HONOR_ROLL_GPA = 3.5;
+	 // How often an edit is re-applied to a record that keeps changing under it before giving up
+	 private static final int MAX_EDIT_ATTEMPTS = 10;
 	 
 	 public Admin(String id, String name, String username, String password) {
 		    super(id, name, username, password);
-		    this.courses = new ArrayList<>();      // Initialize courses list
+		    this.courses = new CourseCatalog();    // Initialize courses catalog
 		    this.students = new ArrayList<>();     // Initialize students list
 		    this.professors = new ArrayList<>();   // Initialize professors list
-		    this.professorMap = new HashMap<>();
-		    
+		    setPersister(new WriteBehindPersister());
 		}
 
-	 public void setCourses(List<Course> courses) {
+	 /**
+	  * Sets the write-behind persister that batches this admin's file rewrites, e.g. to change
+	  * its window or mutation limit, or to share one between admin sessions so that their batches
+	  * are written together. Anything still pending in the previous persister is written first.
+	  *
+	  * @param persister The persister to use.
+	  */
+	 public synchronized void setPersister(WriteBehindPersister persister) {
+		    if (this.persister != null && this.persister != persister) {
+		        this.persister.flush();
+		    }
+		    persister.register(COURSE_FILE, () -> saveCoursesToFile(COURSE_FILE));
+		    persister.register(STUDENT_FILE, () -> saveStudentsToFile(STUDENT_FILE));
+		    persister.register(PROFESSOR_FILE, () -> saveProfessorsToFile(PROFESSOR_FILE));
+		    this.persister = persister;
+		}
+
+	 public WriteBehindPersister getPersister() {
+		    return persister;
+		}
+
+	 /**
+	  * Writes every data file changed since the last flush. Called when the admin logs out and
+	  * before the program exits.
+	  *
+	  * @return The number of files written.
+	  */
+	 public int flushPendingSaves() {
+		    return persister.flush();
+		}
+
+	 public void setCourses(CourseCatalog courses) {
 		    this.courses = courses;
 		}
+
+	 public void setStudents(List<Student> students) {
+		    this.students = students;
+		}
+
+	 /**
+	  * Sets the login indexes to keep current when students or professors are added, renamed or deleted.
+	  *
+	  * @param studentLogins   The student username index.
+	  * @param professorLogins The professor username index.
+	  */
+	 public void setLoginIndexes(UsernameIndex<Student> studentLogins, UsernameIndex<Professor> professorLogins) {
+		    this.studentLogins = studentLogins;
+		    this.professorLogins = professorLogins;
+		}
 	 
 	 /**
 	  * Manages administrative operations related to courses, students, and professors.
@@ -79,10 +142,12 @@ public class Admin extends User {
 		            scanner.nextLine();
 		        }
 		    }
+		    // Write everything changed during this session at once
+		    flushPendingSaves();
 		}
 
     // Method to get the list of courses
-    private List<Course> getCourses() {
+    private CourseCatalog getCourses() {
         return courses;
     }
 
@@ -148,10 +213,10 @@ public class Admin extends User {
      *
      * @param filePath The path of the file where courses data will be saved.
      */
-    private void saveCoursesToFile(String filePath) {
-        File file = new File(filePath);
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+    public void saveCoursesToFile(String filePath) {
+        // Write to a temporary file and move it into place, so a crash never leaves a half written file
+        try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+            BufferedWriter writer = file.getWriter();
             for (Course course : this.courses) {
                 String line = String.join("; ",
                         course.getCourseId().trim(),
@@ -165,6 +230,7 @@ public class Admin extends User {
                 writer.write(line);
                 writer.newLine();  // Ensures each course starts on a new line
             }
+            file.commit();
         } catch (IOException e) {
             System.out.println("Error writing to file: " + e.getMessage());
         }
@@ -210,6 +276,15 @@ public class Admin extends User {
         String days = scanner.nextLine();
         if ("q".equalsIgnoreCase(days)) return "Operation cancelled by user.";
 
+        MeetingPattern meetingPattern;
+        // Makes sure the days and times are well formed before going any further
+        try {
+            meetingPattern = MeetingPattern.parse(days, startTime, endTime);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return "Error: Invalid course days or times.";
+        }
+
         System.out.println("Please enter the course capacity, or type 'q' to end:");
         String input = scanner.nextLine();
         if ("q".equalsIgnoreCase(input)) return "Operation cancelled by user.";
@@ -233,9 +308,7 @@ public class Admin extends User {
         if ("q".equalsIgnoreCase(lecturerId)) return "Operation cancelled by user.";
 
         // Check if the professor exists in the system using the provided ID.
-        System.out.println("Current professorMap: " + professorMap);
-
-        Professor professor = professorMap.get(lecturerId);
+        Professor professor = findProfessorById(lecturerId);
         if (professor == null) {
             System.out.println("Professor ID not found for lecturerId: " + lecturerId);
 
@@ -245,15 +318,15 @@ public class Admin extends User {
             if (!isProfessorAdded) {
                 return "Error: Professor was not successfully added.";
             }
-            professor = professorMap.get(lecturerId); // Get the newly added professor
+            professor = findProfessorById(lecturerId); // Get the newly added professor
         }
         
-        // Check for time conflicts with existing courses
+        // Check for time conflicts with existing courses, parsing the new course's times only once
         for (Course existingCourse : courses) {
             // Only compare with courses taught by the same professor
             if (existingCourse.getProfessorId().equals(lecturerId)) {
                 // Check if the existing course conflicts with the new course details
-                if (existingCourse.hasTimeConflict(startTime, endTime, days)) {
+                if (existingCourse.hasTimeConflict(meetingPattern)) {
                     System.out.println("Time conflict with another course taught by the same lecturer.");
                     return "Error: Time conflict with another course.";
                 }
@@ -277,8 +350,8 @@ public class Admin extends User {
         this.courses.add(newCourse);
         System.out.println("Course added successfully.");
 
-        // Save the course list to the file
-        saveCoursesToFile("src/courseinfo.txt");
+        // Queue the course file to be rewritten
+        persister.markDirty(COURSE_FILE);
 
         // Return a success message
         return "Course added successfully.";
@@ -290,6 +363,10 @@ public class Admin extends User {
      * Edits an existing course based on user input.
      * Provides options to edit various attributes of a course such as the name, professor, timing, etc.
      *
+     * As for students, the course is read once, nothing is locked while the admin types, and the
+     * changes are applied with a compare-and-set on the course's version, re-applied to the current
+     * course if another admin changed it meanwhile.
+     *
      * @param scanner The scanner object for reading user input.
      */
     private void editCourse(Scanner scanner) {
@@ -307,69 +384,146 @@ public class Admin extends User {
             return;
         }
 
+        // Read the course as it is now into a detached copy, remembering the version read
+        VersionStamp version = course.getVersion();
+        Supplier<Course> reader = () -> new Course(course.getCourseId(), course.getCourseName(),
+                course.getProfessorName(), course.getProfessorId(), course.getDays(),
+                course.getStartTime(), course.getEndTime(), course.getCapacity());
+        VersionStamp.Snapshot<Course> read = version.readSnapshot(reader);
+        String currentName = read.get().getCourseName();
+        String currentProfessorName = read.get().getProfessorName();
+        String currentDays = read.get().getDays();
+        String currentStartTime = read.get().getStartTime();
+        String currentEndTime = read.get().getEndTime();
+        int currentCapacity = read.get().getCapacity();
+
         // Edit course name
-        System.out.println("Current Course Name: " + course.getCourseName());
+        System.out.println("Current Course Name: " + currentName);
         System.out.println("Enter new course name, or press enter to keep current:");
-        String newCourseName = scanner.nextLine();
-        if (!newCourseName.trim().isEmpty()) {
-            course.setCourseName(newCourseName.trim());
-        }
-
+        String newCourseName = scanner.nextLine().trim();
 
         // Edit professor name
-        System.out.println("Current Professor Name: " + course.getProfessorName());
+        System.out.println("Current Professor Name: " + currentProfessorName);
         System.out.println("Enter new professor ID, or press enter to keep current:");
-        String newProfessorId = scanner.nextLine();
-        if (!newProfessorId.trim().isEmpty()) {
-            Professor newProfessor = professorMap.get(newProfessorId.trim());
+        String newProfessorId = scanner.nextLine().trim();
+        Professor newProfessor = null;
+        if (!newProfessorId.isEmpty()) {
+            newProfessor = findProfessorById(newProfessorId);
             if (newProfessor != null) {
-                course.setProfessorName(newProfessor.getName());
-                course.setProfessorId(newProfessorId.trim());
                 System.out.println("Professor updated to: " + newProfessor.getName());
             } else {
                 System.out.println("Professor ID not found. Keeping current professor.");
             }
         }
 
-        // Edit course days
-        System.out.println("Current Course Days: " + course.getDays());
+        // Edit course days, start and end time, each checked together with the others as edited so far
+        String days = currentDays;
+        String startTime = currentStartTime;
+        String endTime = currentEndTime;
+        System.out.println("Current Course Days: " + currentDays);
         System.out.println("Enter new course days, or press enter to keep current:");
-        String newDays = scanner.nextLine();
-        if (!newDays.trim().isEmpty()) {
-            course.setDays(newDays.trim());
+        String newDays = scanner.nextLine().trim();
+        if (!newDays.isEmpty()) {
+            try {
+                MeetingPattern.parse(newDays, startTime, endTime);
+                days = newDays;
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + ". Keeping current days.");
+            }
         }
 
-        // Edit start time
-        System.out.println("Current Start Time: " + course.getStartTime());
+        System.out.println("Current Start Time: " + currentStartTime);
         System.out.println("Enter new start time, or press enter to keep current:");
-        String newStartTime = scanner.nextLine();
-        if (!newStartTime.trim().isEmpty()) {
-            course.setStartTime(newStartTime.trim());
+        String newStartTime = scanner.nextLine().trim();
+        if (!newStartTime.isEmpty()) {
+            try {
+                MeetingPattern.parse(days, newStartTime, endTime);
+                startTime = newStartTime;
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + ". Keeping current start time.");
+            }
         }
 
-        // Edit end time
-        System.out.println("Current End Time: " + course.getEndTime());
+        System.out.println("Current End Time: " + currentEndTime);
         System.out.println("Enter new end time, or press enter to keep current:");
-        String newEndTime = scanner.nextLine();
-        if (!newEndTime.trim().isEmpty()) {
-            course.setEndTime(newEndTime.trim());
+        String newEndTime = scanner.nextLine().trim();
+        if (!newEndTime.isEmpty()) {
+            try {
+                MeetingPattern.parse(days, startTime, newEndTime);
+                endTime = newEndTime;
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + ". Keeping current end time.");
+            }
         }
 
         // Edit course capacity
-        System.out.println("Current Capacity: " + course.getCapacity());
+        System.out.println("Current Capacity: " + currentCapacity);
         System.out.println("Enter new capacity, or press enter to keep current:");
-        String newCapacityStr = scanner.nextLine();
-        if (!newCapacityStr.trim().isEmpty()) {
+        String newCapacityStr = scanner.nextLine().trim();
+        Integer newCapacity = null;
+        if (!newCapacityStr.isEmpty()) {
             try {
-                int newCapacity = Integer.parseInt(newCapacityStr.trim());
-                course.setCapacity(newCapacity);
+                newCapacity = Integer.parseInt(newCapacityStr);
             } catch (NumberFormatException e) {
                 System.out.println("Invalid capacity entered. Keeping current capacity.");
             }
         }
 
+        // Apply the changes if the course is still as read; otherwise read again and re-apply.
+        // Only the fields the admin changed are written, so other changes made meanwhile are kept.
+        String editedDays = days.equals(currentDays) ? null : days;
+        String editedStartTime = startTime.equals(currentStartTime) ? null : startTime;
+        String editedEndTime = endTime.equals(currentEndTime) ? null : endTime;
+        Professor professor = newProfessor;
+        Integer capacity = newCapacity;
+        boolean[] timesKept = new boolean[1];
+        for (int attempt = 1; ; attempt++) {
+            boolean applied = read.tryUpdate(() -> {
+                if (!newCourseName.isEmpty()) {
+                    course.setCourseName(newCourseName);
+                }
+                if (professor != null) {
+                    course.setProfessorName(professor.getName());
+                    course.setProfessorId(newProfessorId);
+                }
+                if (editedDays != null || editedStartTime != null || editedEndTime != null) {
+                    try {
+                        course.setMeetingTimes(editedDays != null ? editedDays : course.getDays(),
+                                editedStartTime != null ? editedStartTime : course.getStartTime(),
+                                editedEndTime != null ? editedEndTime : course.getEndTime());
+                    } catch (IllegalArgumentException e) {
+                        // The new times do not fit times changed meanwhile
+                        timesKept[0] = true;
+                    }
+                }
+                if (capacity != null) {
+                    course.setCapacity(capacity);
+                }
+            });
+            if (applied) {
+                break;
+            }
+            if (version.isRetired()) {
+                System.out.println("Course was deleted while being edited. No changes were made.");
+                return;
+            }
+            if (attempt == MAX_EDIT_ATTEMPTS) {
+                System.out.println("Course keeps changing. No changes were made; please try again.");
+                return;
+            }
+            System.out.println("Course was changed while being edited; applying the changes to the current course.");
+            read = version.readSnapshot(reader);
+        }
+        if (timesKept[0]) {
+            System.out.println("The new days or times do not fit the course's current times. Keeping current times.");
+        }
+        if (capacity != null) {
+            // A raised capacity goes to the students waiting, who enroll would otherwise keep turning away
+            courses.getEnrollments().fillFreeSeats(course);
+        }
+
         System.out.println("Course updated successfully.");
-        saveCoursesToFile("src/courseinfo.txt");
+        persister.markDirty(COURSE_FILE);
     }
 
 
@@ -385,9 +539,12 @@ public class Admin extends User {
         
         Course courseToDelete = findCourseById(courseId);
         if (courseToDelete != null) {
+            // Retire the course first, so no registration still in flight can enroll in it
+            courseToDelete.getVersion().retire();
             this.courses.remove(courseToDelete);
+            this.courses.getEnrollments().unlinkCourse(courseToDelete);
             System.out.println("Course deleted successfully.");
-            saveCoursesToFile("src/courseinfo.txt");
+            persister.markDirty(COURSE_FILE);
         } else {
             System.out.println("Course not found.");
         }
@@ -400,10 +557,7 @@ public class Admin extends User {
      * @return The Course object if found, or null if not found.
      */
     private Course findCourseById(String courseId) {
-        return this.courses.stream()
-                           .filter(course -> course.getCourseId().equals(courseId))
-                           .findFirst()
-                           .orElse(null);
+        return this.courses.findById(courseId);
     }
 
     /**
@@ -412,60 +566,11 @@ public class Admin extends User {
      * @param filePath The file path where the students' data will be saved.
      */
     public void saveStudentsToFile(String filePath) {
-        // Create a new file object with the specified file path.
-        File file = new File(filePath);
-
-        // Use try-with-resources to automatically close the BufferedWriter.
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            // Iterate through each student in the list.
-            for (Student student : this.students) {
-                // Build a string line for each student's data.
-                String line = buildStudentLine(student);
-                // Write the student's data line to the file.
-                writer.write(line);
-                // Add a newline after each student's data.
-                writer.newLine();
-            }
-        } catch (IOException e) {
-            // Handle any IO exceptions that might occur during file writing.
-            System.out.println("Error writing to file: " + e.getMessage());
-        }
+        // The file will hold every journaled enrollment change, so the journal is emptied once it is
+        // written. Both happen under the journal's lock, so no change is appended in between and lost.
+        Student.compactEnrollmentJournal(this.students, filePath);
     }
 
-    /**
-     * Builds a line representing a student's information for file storage.
-     *
-     * @param student The student object to be formatted as a line.
-     * @return A formatted string representing the student's information.
-     */
-    private String buildStudentLine(Student student) {
-        // Initialize a StringBuilder to construct the line.
-        StringBuilder lineBuilder = new StringBuilder();
-        // Append the student's ID, name, username, and password to the line.
-        lineBuilder.append(student.getId())
-                   .append("; ")
-                   .append(student.getName())
-                   .append("; ")
-                   .append(student.getUsername())
-                   .append("; ")
-                   .append(student.getPassword());
-
-        // Check if the student is enrolled in any courses.
-        if (!student.getCourses().isEmpty()) {
-            // Convert the student's courses map into a string representation.
-            String coursesInfo = student.getCourses().entrySet().stream()
-                .map(entry -> entry.getKey() + ": " + entry.getValue())
-                .collect(Collectors.joining(", "));
-            // Append the courses information to the line.
-            lineBuilder.append("; ").append(coursesInfo);
-        }
-        // Return the constructed line as a string.
-        return lineBuilder.toString();
-    }
-
-
-
-
     /**
      * Manages student-related operations such as adding, editing, or deleting a student.
      *
@@ -473,10 +578,15 @@ public class Admin extends User {
      * @param updatedStudents  The list of updated student data.
      */
     public void manageStudents(Scanner scanner, List<Student> updatedStudents) {
+        // Work directly on the list handed in (the Controller's resident students) so changes are
+        // visible to other logins; only go to the file when nothing has been loaded yet.
+        this.students = updatedStudents;
+        if (this.students.isEmpty()) {
+            loadStudentsFromFile(STUDENT_FILE);
+        }
+
         boolean exit = false;
         while (!exit) {
-            loadStudentsFromFile("src/studentinfo.txt");
-            this.students = new ArrayList<>(updatedStudents);
 
             System.out.println("---------------------------");
             System.out.println("Student Management");
@@ -485,6 +595,7 @@ public class Admin extends User {
             System.out.println("2 -- Edit Student");
             System.out.println("3 -- Delete Student");
             System.out.println("4 -- Return to Admin Operations Menu");
+            System.out.println("5 -- View Honor Roll");
             System.out.println("");
             System.out.println("Please enter your option, e.g., '1'.");
 
@@ -504,13 +615,30 @@ public class Admin extends User {
                 case 4:
                     exit = true;
                     break;
+                case 5:
+                    viewHonorRoll();
+                    break;
                 default:
                     System.out.println("Invalid choice.");
             }
         }
     }
 
-    
+
+    /**
+     * Prints the students whose GPA makes the honor roll, best first.
+     */
+    private void viewHonorRoll() {
+        List<Student> honorRoll = Student.honorRoll(students, HONOR_ROLL_GPA);
+        if (honorRoll.isEmpty()) {
+            System.out.println("No students on the honor roll.");
+            return;
+        }
+        for (Student student : honorRoll) {
+            System.out.printf("%s %s: GPA %.2f (%d graded courses)%n", student.getId(), student.getName(), student.getGpa(), student.getGpaCourseCount());
+        }
+    }
+
     /**
      * Prints all students along with their enrolled courses.
      */
@@ -537,6 +665,9 @@ public class Admin extends User {
      * @return true if the username exists, false otherwise.
      */
     private boolean usernameExists(String username) {
+        if (studentLogins != null) {
+            return studentLogins.contains(username);
+        }
         return students.stream().anyMatch(s -> s.getUsername().equals(username));
     }
     
@@ -601,13 +732,30 @@ public class Admin extends User {
             deepCopiedCourses.put(entry.getKey(), entry.getValue());
         }
 
-        // Create a new Student object and add it to the list.
+        // Create a new Student object and add it to the list and the login index, unless another admin
+        // added the ID meanwhile. A refresh holds the list's monitor while it rebuilds the index
         Student newStudent = new Student(id.trim(), name.trim(), username.trim(), password.trim(), deepCopiedCourses);
-        this.students.add(newStudent);
+        synchronized (this.students) {
+            if (idExists(id)) {
+                System.out.println("A student with this ID was added meanwhile. The student was not added.");
+                return;
+            }
+            this.students.add(newStudent);
+            if (studentLogins != null) {
+                studentLogins.add(newStudent);
+            }
+        }
+        // Put the new student on the rosters of the courses they were given
+        for (String courseId : deepCopiedCourses.keySet()) {
+            Course course = findCourseById(courseId);
+            if (course != null) {
+                this.courses.getEnrollments().link(newStudent, course);
+            }
+        }
         // Print the courses and grades of all students for verification.
         printAllStudentsCourses();
-        // Save the updated student list to a file.
-        saveStudentsToFile("src/studentinfo.txt");
+        // Queue the student file to be rewritten.
+        persister.markDirty(STUDENT_FILE);
 
         // Confirm successful addition of the student.
         System.out.println("Student added successfully.");
@@ -618,6 +766,11 @@ public class Admin extends User {
      * Edits an existing student based on user input.
      * Provides options to edit various attributes of a student such as name, username, password, and grades.
      *
+     * The student is read once and nothing is locked while the admin types, so the student's own
+     * session keeps working. The changes are then applied with a compare-and-set on the student's
+     * version; if the student changed meanwhile, e.g. added or dropped a course, the changes are
+     * applied again to the current record, so neither side's changes are lost.
+     *
      * @param scanner The scanner object for reading user input.
      */
     private void editStudent(Scanner scanner) {
@@ -633,57 +786,134 @@ public class Admin extends User {
             return;
         }
 
+        // Read the student as they are now into a detached copy, remembering the version read
+        VersionStamp version = student.getVersion();
+        Supplier<Student> reader = () -> new Student(student.getId(), student.getName(), student.getUsername(),
+                student.getPassword(), new LinkedHashMap<>(student.getCourses()));
+        VersionStamp.Snapshot<Student> read = version.readSnapshot(reader);
+        String currentName = read.get().getName();
+        String currentUsername = read.get().getUsername();
+        Map<String, String> currentCourses = read.get().getCourses();
+
         // Edit the student's name
-        System.out.println("Current Name: " + student.getName());
+        System.out.println("Current Name: " + currentName);
         System.out.println("Enter new name, or press enter to keep current:");
-        String newName = scanner.nextLine();
-        if (!newName.trim().isEmpty()) {
-            // Update the name only if a new name is provided
-            student.setName(capitalizeName(newName.trim()));
-        }
+        String newName = scanner.nextLine().trim();
 
         // Edit the student's username
-        System.out.println("Current Username: " + student.getUsername());
+        System.out.println("Current Username: " + currentUsername);
         System.out.println("Enter new username, or press enter to keep current:");
-        String newUsername = scanner.nextLine();
-        if (!newUsername.trim().isEmpty()) {
-            // Update the username only if a new username is provided
-            student.setUsername(newUsername.trim());
-        }
+        String newUsername = scanner.nextLine().trim();
 
         // Edit the student's password
         System.out.println("Enter new password, or press enter to keep current:");
-        String newPassword = scanner.nextLine();
-        if (!newPassword.trim().isEmpty()) {
-            // Update the password only if a new password is provided
-            student.setPassword(newPassword.trim());
-        }
+        String newPassword = scanner.nextLine().trim();
 
-        // Prompt to edit grades and process accordingly
+        // Prompt to edit grades and collect the new ones
+        Map<String, String> newGrades = new LinkedHashMap<>();
         System.out.println("Do you want to edit grades? (yes/no)");
         String response = scanner.nextLine().trim();
         if (response.equalsIgnoreCase("yes")) {
-            Map<String, String> studentCourses = student.getCourses();
-            // Iterate over each course to possibly update grades
-            studentCourses.forEach((courseId, grade) -> {
+            currentCourses.forEach((courseId, grade) -> {
                 System.out.println("Course ID: " + courseId + ", Current Grade: " + grade);
                 System.out.println("Enter new grade for this course, or press enter to keep current:");
                 String newGrade = scanner.nextLine().trim();
                 if (!newGrade.isEmpty()) {
-                    // Update the grade for the course
-                    studentCourses.put(courseId, newGrade);
+                    newGrades.put(courseId, newGrade);
                 }
             });
-            // Set the updated courses and grades map
-            student.setCourses(studentCourses);
         }
 
-        // Save the updated student information to the file
-        saveStudentsToFile("src/studentinfo.txt");
+        // Apply the changes if the student is still as read; otherwise read again and re-apply
+        boolean accountChanged = !newName.isEmpty() || !newUsername.isEmpty() || !newPassword.isEmpty();
+        List<String> regradedCourses = new ArrayList<>();
+        List<String> droppedCourses = new ArrayList<>();
+        String[] oldUsername = new String[1];
+        boolean[] gradesJournaled = new boolean[1];
+        Runnable edit = () -> {
+            if (!newName.isEmpty()) {
+                student.setName(capitalizeName(newName));
+            }
+            oldUsername[0] = student.getUsername();
+            if (!newUsername.isEmpty()) {
+                student.setUsername(newUsername);
+            }
+            if (!newPassword.isEmpty()) {
+                student.setPassword(newPassword);
+            }
+            // Grades only change for courses the student is still in; a course dropped
+            // meanwhile is not added back
+            Map<String, String> studentCourses = student.getCourses();
+            newGrades.forEach((courseId, grade) -> {
+                if (studentCourses.containsKey(courseId)) {
+                    studentCourses.put(courseId, grade);
+                    regradedCourses.add(courseId);
+                } else {
+                    droppedCourses.add(courseId);
+                }
+            });
+        };
+        for (int attempt = 1; ; attempt++) {
+            VersionStamp.Snapshot<Student> attempted = read;
+            // The grades are journaled before the student's lock is released, as registrations are,
+            // so a refresh never reads the student between the change and its journal entry
+            boolean applied = courses.getEnrollments().transact(student, List.of(), () -> {
+                if (!attempted.tryUpdate(edit)) {
+                    return false;
+                }
+                gradesJournaled[0] = journalGrades(student, regradedCourses);
+                return true;
+            });
+            if (applied) {
+                break;
+            }
+            if (version.isRetired()) {
+                System.out.println("Student was deleted while being edited. No changes were made.");
+                return;
+            }
+            if (attempt == MAX_EDIT_ATTEMPTS) {
+                System.out.println("Student keeps changing. No changes were made; please try again.");
+                return;
+            }
+            System.out.println("Student was changed while being edited; applying the changes to the current record.");
+            read = version.readSnapshot(reader);
+        }
+        if (!newUsername.isEmpty() && studentLogins != null) {
+            studentLogins.rename(student, oldUsername[0]);
+        }
+        for (String courseId : droppedCourses) {
+            System.out.println("Course " + courseId + " was dropped meanwhile; its grade was not changed.");
+        }
+
+        // Save the updated student information: grade changes alone only need journal entries,
+        // until the journal has grown large enough to be compacted into the student file
+        if (accountChanged || !gradesJournaled[0] || Student.getEnrollmentJournal().needsCompaction()) {
+            persister.markDirty(STUDENT_FILE);
+        }
         // Confirm the successful update
         System.out.println("Student updated successfully.");
     }
 
+    /**
+     * Appends GRADE entries to the enrollment journal for the given courses of a student.
+     *
+     * @param student         The student whose grades changed.
+     * @param regradedCourses The IDs of the courses whose grade changed.
+     * @return true if the changes were recorded, false if the student file must be rewritten instead.
+     */
+    private boolean journalGrades(Student student, List<String> regradedCourses) {
+        EnrollmentJournal journal = Student.getEnrollmentJournal();
+        try {
+            for (String courseId : regradedCourses) {
+                journal.append(EnrollmentJournal.Event.GRADE, student.getId(), courseId, student.getCourses().get(courseId));
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing to enrollment journal: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
 
 
  // ... [existing code]
@@ -694,10 +924,9 @@ public class Admin extends User {
      * @param filePath The file path from where to load the students' data.
      */
     private void loadStudentsFromFile(String filePath) {
-        // Clearing the existing students list to refresh data from file
-        this.students.clear();
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        // Read into a list of our own and publish it only if no other session filled the shared list meanwhile
+        List<Student> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath), StandardCharsets.UTF_8))) {
             String line;
             // Iterating through each line of the file
             while ((line = reader.readLine()) != null) {
@@ -710,27 +939,25 @@ public class Admin extends User {
                     String username = parts[2].trim();
                     String password = parts[3].trim();
 
-                    // Initializing a map to store course IDs and grades
-                    Map<String, String> courses = new HashMap<>();
-                    // Splitting the course and grade information
-                    String[] courseGradePairs = parts[4].trim().split(",");
-                    for (String pair : courseGradePairs) {
-                        String[] courseGrade = pair.split(":");
-                        if (courseGrade.length == 2) { // Each pair should have two parts: course ID and grade
-                            // Storing course ID and grade in the map
-                            courses.put(courseGrade[0].trim(), courseGrade[1].trim());
-                        }
-                    }
+                    // Parsing the course and grade information
+                    Map<String, String> courses = CourseGradeParser.parse(parts[4]);
 
                     // Creating a new Student object and adding it to the list
                     Student student = new Student(id, name, username, password, courses);
-                    students.add(student);
+                    loaded.add(student);
                 }
             }
+            // Apply enrollment changes made since the file was last written
+            Student.getEnrollmentJournal().replay(loaded);
         } catch (IOException e) {
             // Handling potential I/O errors
             System.err.println("Error reading from file: " + e.getMessage());
         }
+        synchronized (this.students) {
+            if (this.students.isEmpty()) {
+                this.students.addAll(loaded);
+            }
+        }
     }
 
 
@@ -761,16 +988,22 @@ public class Admin extends User {
         System.out.println("Enter Student ID to delete:");
         String studentId = scanner.nextLine().trim(); // Trimming to remove whitespace
 
-        // Reload students from file to ensure up-to-date information
-        loadStudentsFromFile("src/studentinfo.txt");
-        
         // Find the student to be deleted
         Student studentToDelete = findStudentById(studentId);
         if (studentToDelete != null) {
-            // Remove the student if found
-            this.students.remove(studentToDelete);
-            // Save the updated list back to the file
-            saveStudentsToFile("src/studentinfo.txt");
+            // Retire the student first, so a registration still in flight in their session fails
+            // instead of taking a seat after their seats are freed
+            studentToDelete.getVersion().retire();
+            // Remove the student if found, and free their seats
+            synchronized (this.students) {
+                this.students.remove(studentToDelete);
+                if (studentLogins != null) {
+                    studentLogins.remove(studentToDelete);
+                }
+            }
+            this.courses.getEnrollments().unlinkStudent(studentToDelete);
+            // Queue the student file to be rewritten
+            persister.markDirty(STUDENT_FILE);
             System.out.println("Student deleted successfully.");
         } else {
             // Handle case where student is not found
@@ -783,11 +1016,10 @@ public class Admin extends User {
      *
      * @param filePath The file path where the professors' data will be saved.
      */
-    private void saveProfessorsToFile(String filePath) {
-        File file = new File(filePath);
-
-        // Rewrite the entire file with the current state of professors list
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+    public void saveProfessorsToFile(String filePath) {
+        // Rewrite the entire file with the current state of professors list, replacing it in one step
+        try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+            BufferedWriter writer = file.getWriter();
             for (Professor professor : this.professors) {
                 String line = String.join("; ",
                         professor.getName(),
@@ -798,6 +1030,7 @@ public class Admin extends User {
                 writer.write(line);
                 writer.newLine();
             }
+            file.commit();
         } catch (IOException e) {
             System.out.println("Error writing to file: " + e.getMessage());
         }
@@ -889,19 +1122,23 @@ public class Admin extends User {
             return false;
         }
 
-        // Checking if professor ID already exists
-        if (this.professorMap.containsKey(id)) {
-            System.out.println("Professor ID already exists.");
-            return false;
-        }
-
-        // Creating and adding the new professor to the list and map
+        // Checking if professor ID already exists, and adding the new professor to the list and the login
+        // index, in one step under the list's monitor, so two admins cannot add the same ID and a refresh
+        // rebuilding the index cannot drop the new professor
         Professor newProfessor = new Professor(id.trim(), name.trim(), username.trim(), password.trim(), new ArrayList<>());
-        this.professors.add(newProfessor);
-        this.professorMap.put(id, newProfessor);
+        synchronized (this.professors) {
+            if (findProfessorById(id.trim()) != null) {
+                System.out.println("Professor ID already exists.");
+                return false;
+            }
+            this.professors.add(newProfessor);
+            if (professorLogins != null) {
+                professorLogins.add(newProfessor);
+            }
+        }
 
-        // Saving the updated professor list to file
-        saveProfessorsToFile("src/profinfo.txt");
+        // Queue the professor file to be rewritten
+        persister.markDirty(PROFESSOR_FILE);
         System.out.println("Professor added successfully.");
         return true;
     }
@@ -946,7 +1183,11 @@ public class Admin extends User {
         System.out.println("Enter new username, or press enter to keep current:");
         String newUsername = scanner.nextLine();
         if (!newUsername.trim().isEmpty()) {
+            String oldUsername = professor.getUsername();
             professor.setUsername(newUsername.trim());
+            if (professorLogins != null) {
+                professorLogins.rename(professor, oldUsername);
+            }
         }
 
         // Editing password
@@ -958,8 +1199,8 @@ public class Admin extends User {
 
         // Confirmation of update
         System.out.println("Professor updated successfully.");
-        // Saving updated list to file
-        saveProfessorsToFile("src/profinfo.txt");
+        // Queue the professor file to be rewritten
+        persister.markDirty(PROFESSOR_FILE);
     }
 
 
@@ -967,18 +1208,14 @@ public class Admin extends User {
 
 
     /**
-     * Sets the list of professors and updates the corresponding map.
+     * Sets the list of professors to work on.
      *
-     * @param professors The list of professors to set.
+     * @param professors The list of professors, e.g. the Controller's resident professors, which is
+     *                   shared rather than copied so every admin session and the login index see
+     *                   the same professors.
      */
     public void setProfessors(List<Professor> professors) {
-        // Creating a fresh copy of the list
-        this.professors = new ArrayList<>(professors);
-        // Clearing and updating the professorMap for quick ID-based access
-        this.professorMap.clear();
-        for (Professor p : professors) {
-            this.professorMap.put(p.getId(), p);
-        }
+        this.professors = professors;
     }
 
     
@@ -989,7 +1226,12 @@ public class Admin extends User {
      * @return The Professor object if found, otherwise null.
      */
     private Professor findProfessorById(String professorId) {
-        return professorMap.get(professorId);
+        for (Professor professor : this.professors) {
+            if (professor.getId().equals(professorId)) {
+                return professor;
+            }
+        }
+        return null;
     }
     
     /**
@@ -1003,10 +1245,14 @@ public class Admin extends User {
         Professor professorToDelete = findProfessorById(professorId);
 
         if (professorToDelete != null) {
-            this.professors.remove(professorToDelete);
-            professorMap.remove(professorId);
+            synchronized (this.professors) {
+                this.professors.remove(professorToDelete);
+                if (professorLogins != null) {
+                    professorLogins.remove(professorToDelete);
+                }
+            }
             System.out.println("Professor deleted successfully.");
-            saveProfessorsToFile("src/profinfo.txt"); // Reflect changes in the file
+            persister.markDirty(PROFESSOR_FILE); // Reflect changes in the file
         } else {
             System.out.println("Professor not found.");
         }
@@ -1,8 +1,12 @@
 package roles;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import courses.Course;
+import courses.CourseCatalog;
+import courses.EnrollmentIndex;
 
 public class Professor extends User {
     private List<String> courses; // List of Course IDs
@@ -27,11 +31,11 @@ public class Professor extends User {
      * Manages the operations specific to a professor.
      * Provides a menu to view courses, student lists, and return to the main menu.
      *
-     * @param allCourses  List of all available courses.
+     * @param allCourses  Catalog of all available courses.
      * @param allStudents List of all students.
      * @param scanner     Scanner object to read user input.
      */
-    public void manageOperations(List<Course> allCourses, List<Student> allStudents, Scanner scanner) {
+    public void manageOperations(CourseCatalog allCourses, List<Student> allStudents, Scanner scanner) {
         boolean exit = false;
         while (!exit) {
             System.out.println("---------------------------");
@@ -66,20 +70,18 @@ public class Professor extends User {
      * Prompts the professor to enter a course ID and then displays the list of students enrolled in that course.
      *
      * @param scanner     Scanner object to read user input.
-     * @param allCourses  List of all available courses.
+     * @param allCourses  Catalog of all available courses.
      * @param allStudents List of all students.
      */
  // Method to prompt for course ID and view students
-    private void promptAndViewStudentsInCourse(Scanner scanner, List<Course> allCourses, List<Student> allStudents) {
+    private void promptAndViewStudentsInCourse(Scanner scanner, CourseCatalog allCourses, List<Student> allStudents) {
         // Display courses taught by the professor
         if (this.courses.isEmpty()) {
             System.out.println("You are not teaching any courses.");
             return; // Exit the method if the professor has no courses
         } else {
             System.out.println("Courses you teach:");
-            this.courses.forEach(courseId -> allCourses.stream()
-                                                       .filter(course -> course.getCourseId().equals(courseId))
-                                                       .forEach(course -> System.out.println("Course ID: " + course.getCourseId() + ", Name: " + course.getCourseName())));
+            printTaughtCourses(allCourses);
         }
 
         // Ask for the course ID
@@ -95,31 +97,24 @@ public class Professor extends User {
      * Displays the students enrolled in a specific course.
      *
      * @param courseId    The ID of the course for which to view students.
-     * @param allCourses  List of all available courses.
+     * @param allCourses  Catalog of all available courses.
      * @param allStudents List of all students.
      */
-    public void viewStudentsInCourse(String selectedCourseId, List<Course> allCourses, List<Student> allStudents) {
+    public void viewStudentsInCourse(String selectedCourseId, CourseCatalog allCourses, List<Student> allStudents) {
         // First, display all courses taught by the professor
         System.out.println("Courses you teach:");
-        this.courses.forEach(courseId -> allCourses.stream()
-                                                   .filter(course -> course.getCourseId().equals(courseId))
-                                                   .forEach(course -> System.out.println("Course ID: " + course.getCourseId() + ", Name: " + course.getCourseName())));
+        printTaughtCourses(allCourses);
 
         // Check if the professor teaches the specified course
         if (this.courses.contains(selectedCourseId)) {
             // Find the specific course and display enrolled students
-            allCourses.stream()
-                      .filter(c -> c.getCourseId().equals(selectedCourseId))
-                      .findFirst()
-                      .ifPresent(course -> {
-                          System.out.println("Students in " + selectedCourseId + ":");
-                          for (String studentId : course.getEnrolledStudents()) {
-                              allStudents.stream()
-                                         .filter(s -> s.getId().equals(studentId))
-                                         .findFirst()
-                                         .ifPresent(student -> System.out.println("Student ID: " + student.getId() + ", Name: " + student.getName()));
-                          }
-                      });
+            Course course = allCourses.findById(selectedCourseId);
+            if (course != null) {
+                System.out.println("Students in " + selectedCourseId + ":");
+                for (Student student : rosterOf(course, allCourses, allStudents)) {
+                    System.out.println("Student ID: " + student.getId() + ", Name: " + student.getName());
+                }
+            }
         } else {
             // Message if the professor does not teach the course
             System.out.println("You do not teach this course.");
@@ -129,12 +124,54 @@ public class Professor extends User {
 
 
 
+    /**
+     * Finds the students enrolled in a course, straight from the enrollment index when it tracks the
+     * course, or by resolving the roster's student IDs through one ID lookup table otherwise.
+     *
+     * @param course      The course.
+     * @param allCourses  Catalog of all available courses.
+     * @param allStudents List of all students.
+     * @return The enrolled students.
+     */
+    private static List<Student> rosterOf(Course course, CourseCatalog allCourses, List<Student> allStudents) {
+        EnrollmentIndex enrollments = allCourses.getEnrollments();
+        if (enrollments.tracks(course)) {
+            return enrollments.getStudents(course);
+        }
+        Map<String, Student> studentsById = new HashMap<>();
+        for (Student student : allStudents) {
+            studentsById.putIfAbsent(student.getId(), student);
+        }
+        List<Student> roster = new ArrayList<>();
+        for (String studentId : course.getRosterSnapshot()) {
+            Student student = studentsById.get(studentId);
+            if (student != null) {
+                roster.add(student);
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Prints the ID and name of each course the professor teaches.
+     *
+     * @param allCourses Catalog of all available courses.
+     */
+    private void printTaughtCourses(CourseCatalog allCourses) {
+        for (String courseId : this.courses) {
+            Course course = allCourses.findById(courseId);
+            if (course != null) {
+                System.out.println("Course ID: " + course.getCourseId() + ", Name: " + course.getCourseName());
+            }
+        }
+    }
+
     /**
      * Displays the list of courses taught by the professor.
      *
-     * @param allCourses List of all available courses.
+     * @param allCourses Catalog of all available courses.
      */
-    public void viewProfessorCourses(List<Course> allCourses) {
+    public void viewProfessorCourses(CourseCatalog allCourses) {
         // Check if the professor teaches any courses
         if (this.courses.isEmpty()) {
             System.out.println("You are not teaching any courses.");
@@ -142,13 +179,14 @@ public class Professor extends User {
             // Debugging line displaying all course IDs
             System.out.println("Your Course IDs: " + this.courses);
             // Counting and displaying each course taught by the professor
-            long count = this.courses.stream()
-                                     .filter(courseId -> allCourses.stream().anyMatch(c -> c.getCourseId().equals(courseId)))
-                                     .peek(courseId -> allCourses.stream()
-                                                                 .filter(c -> c.getCourseId().equals(courseId))
-                                                                 .findFirst()
-                                                                 .ifPresent(course -> System.out.println("Course ID: " + courseId + ", Course Name: " + course.getCourseName())))
-                                     .count();
+            long count = 0;
+            for (String courseId : this.courses) {
+                Course course = allCourses.findById(courseId);
+                if (course != null) {
+                    System.out.println("Course ID: " + courseId + ", Course Name: " + course.getCourseName());
+                    count++;
+                }
+            }
             // Handling the case where no courses are found
             if (count == 0) {
                 System.out.println("No courses found for your ID. Please check your course list.");
@@ -0,0 +1,224 @@
+package roles;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+
+/**
+ * Applies adds and drops on a single writer thread instead of on the threads of the students asking
+ * for them, for registration windows where many students want the same few courses at once.
+ *
+ * Students submit their request to a bounded ring buffer and get a future for the message to show
+ * them. The writer drains the ring in batches and applies each request with the same checks and
+ * the same enrollment index as a direct add or drop, so the locks of a popular course are only
+ * ever taken by one thread and never contended by other registrations. The batch's journal entries
+ * are then written with a single write, and only after that are the futures completed, so a
+ * student is never told about a change that was not saved.
+ *
+ * The pipeline is used when the system property "sis.registration" is "pipeline"; swaps, grading
+ * and admin edits take the direct path either way.
+ */
+public class RegistrationPipeline implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    // How long the writer sleeps when idle before looking again, in case a wakeup was missed
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    // How long a producer backs off when the ring is full
+    private static final long FULL_PARK_NANOS = 50_000L;
+
+    /**
+     * One submitted request.
+     */
+    private static final class Command {
+        final Supplier<Student.RegistrationResult> action;
+        final List<Student> allStudents;
+        final String filePath;
+        final CompletableFuture<String> result = new CompletableFuture<>();
+
+        Command(Supplier<Student.RegistrationResult> action, List<Student> allStudents, String filePath) {
+            this.action = action;
+            this.allStudents = allStudents;
+            this.filePath = filePath;
+        }
+    }
+
+    private final RegistrationRing<Command> ring;
+    private final int batchSize;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean writerParked;
+    // Producers between checking closed and publishing their command
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+
+    public RegistrationPipeline() {
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param capacity  How many requests may wait in the ring; producers wait while it is full.
+     * @param batchSize The most requests applied and saved together.
+     */
+    public RegistrationPipeline(int capacity, int batchSize) {
+        this.ring = new RegistrationRing<>(capacity);
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::run, "registration-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * @return true if the system property "sis.registration" selects the pipeline.
+     */
+    public static boolean isSelected() {
+        return "pipeline".equalsIgnoreCase(System.getProperty("sis.registration", "locks").trim());
+    }
+
+    /**
+     * Submits adding a course to a student's schedule.
+     *
+     * @param student     The student.
+     * @param allCourses  The catalog of all available courses.
+     * @param allStudents All students, saved if the change cannot be journaled.
+     * @param course      The course to add.
+     * @param filePath    The path of the student data file.
+     * @return The message for the student, once the add is applied and saved.
+     */
+    public CompletableFuture<String> submitAdd(Student student, CourseCatalog allCourses, List<Student> allStudents,
+            Course course, String filePath) {
+        return submit(new Command(() -> student.tryAddCourse(allCourses, course), allStudents, filePath));
+    }
+
+    /**
+     * Submits dropping a course from a student's schedule.
+     *
+     * @param student     The student.
+     * @param allCourses  The catalog of all available courses.
+     * @param allStudents All students, saved if the change cannot be journaled.
+     * @param courseId    The course to drop.
+     * @param filePath    The path of the student data file.
+     * @return The message for the student, once the drop is applied and saved.
+     */
+    public CompletableFuture<String> submitDrop(Student student, CourseCatalog allCourses, List<Student> allStudents,
+            String courseId, String filePath) {
+        return submit(new Command(() -> student.tryDropCourse(allCourses, courseId), allStudents, filePath));
+    }
+
+    private CompletableFuture<String> submit(Command command) {
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("The registration pipeline is closed."));
+            }
+            while (!ring.offer(command)) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        } finally {
+            submitting.decrementAndGet();
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return command.result;
+    }
+
+    /**
+     * @return The number of batches applied so far.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * @return The number of requests applied so far.
+     */
+    public long getAppliedCount() {
+        return applied.get();
+    }
+
+    /**
+     * Stops taking requests, lets the writer apply the ones already submitted and waits for it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Command> batch = new ArrayList<>(batchSize);
+        while (true) {
+            if (ring.drainTo(batch, batchSize) > 0) {
+                apply(batch);
+                batch.clear();
+                continue;
+            }
+            if (closed && submitting.get() == 0 && ring.isEmpty()) {
+                return;
+            }
+            writerParked = true;
+            if (ring.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    /**
+     * Applies a batch of requests, saves their changes together and then completes their futures.
+     */
+    private void apply(List<Command> batch) {
+        Student.RegistrationResult[] results = new Student.RegistrationResult[batch.size()];
+        EnrollmentJournal journal = Student.getEnrollmentJournal();
+        boolean changed = false;
+        boolean journaled = true;
+        journal.beginBatch();
+        try {
+            for (int i = 0; i < results.length; i++) {
+                try {
+                    results[i] = batch.get(i).action.get();
+                    changed |= results[i].changed;
+                    journaled &= !results[i].changed || results[i].journaled;
+                } catch (RuntimeException e) {
+                    batch.get(i).result.completeExceptionally(e);
+                }
+            }
+        } finally {
+            try {
+                journal.commitBatch();
+            } catch (IOException e) {
+                System.out.println("Error writing to enrollment journal: " + e.getMessage());
+                journaled = false;
+            }
+        }
+        if (changed) {
+            Command last = batch.get(batch.size() - 1);
+            Student.saveRegistrationChanges(journaled, last.allStudents, last.filePath);
+        }
+        batches.incrementAndGet();
+        applied.addAndGet(results.length);
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) {
+                batch.get(i).result.complete(results[i].message);
+            }
+        }
+    }
+}
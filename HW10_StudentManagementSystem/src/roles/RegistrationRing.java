@@ -0,0 +1,91 @@
+package roles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded ring buffer that many threads offer to and one thread drains, without locks.
+ *
+ * Every slot carries a sequence number saying whose turn it is. A producer claims the next slot by
+ * moving the tail forward with compare-and-set, stores its item and then bumps the slot's sequence
+ * to publish it. The consumer takes items in slot order once they are published, and bumps the
+ * sequence again to hand the slot back to producers one lap later.
+ *
+ * @param <T> The items.
+ */
+final class RegistrationRing<T> {
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only read and written by the consumer
+    private long head;
+
+    /**
+     * @param capacity The number of slots; rounded up to a power of two.
+     */
+    RegistrationRing(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        items = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an item at the tail, unless the ring is full.
+     *
+     * @param item The item.
+     * @return true if the item was added, false if every slot is taken.
+     */
+    boolean offer(T item) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.get(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[slot] = item;
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves published items from the head of the ring to a list. Only called by the consumer.
+     *
+     * @param into The list to add them to.
+     * @param max  The most items to take.
+     * @return The number of items taken.
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<T> into, int max) {
+        int taken = 0;
+        while (taken < max) {
+            int slot = (int) (head & mask);
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            into.add((T) items[slot]);
+            items[slot] = null;
+            sequences.set(slot, head + items.length);
+            head++;
+            taken++;
+        }
+        return taken;
+    }
+
+    /**
+     * @return true if no published item is waiting. Only called by the consumer.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,209 @@
+package roles;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A list of resident records, e.g. the students, shared by every session.
+ *
+ * The list is copy-on-write: every change builds a new array and publishes it with one volatile
+ * write, so readers and iterators never lock and never see a change half made. setAll replaces the
+ * whole contents the same way, so a refresh never shows a session, or a save, a list that is empty
+ * or half refilled. Iterators walk the contents as of when they were created and do not support
+ * remove.
+ *
+ * Changes are made one at a time under the list's monitor. A caller that checks the list before
+ * changing it, e.g. for a duplicate ID, holds the monitor around both.
+ *
+ * Every record added can first be passed through an admit function, e.g. to move a student into the
+ * columnar StudentStore (see StudentStore.residentList).
+ *
+ * @param <T> The type of record.
+ */
+public final class ResidentList<T> extends AbstractList<T> implements RandomAccess {
+    private final UnaryOperator<T> admit;
+    private volatile Object[] elements;
+
+    /**
+     * @param records The records the list starts with, in order.
+     */
+    public ResidentList(Collection<? extends T> records) {
+        this(records, UnaryOperator.identity());
+    }
+
+    /**
+     * @param records The records the list starts with, in order.
+     * @param admit   Applied to every record before it is added, including the first ones; returns
+     *                the record to hold.
+     */
+    public ResidentList(Collection<? extends T> records, UnaryOperator<T> admit) {
+        this.admit = admit;
+        this.elements = admitAll(records);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public synchronized T set(int index, T record) {
+        Object[] current = elements;
+        Objects.checkIndex(index, current.length);
+        Object[] copy = current.clone();
+        copy[index] = admit.apply(record);
+        elements = copy;
+        @SuppressWarnings("unchecked")
+        T previous = (T) current[index];
+        return previous;
+    }
+
+    @Override
+    public synchronized void add(int index, T record) {
+        Object[] current = elements;
+        if (index < 0 || index > current.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.length);
+        }
+        Object[] copy = new Object[current.length + 1];
+        System.arraycopy(current, 0, copy, 0, index);
+        copy[index] = admit.apply(record);
+        System.arraycopy(current, index, copy, index + 1, current.length - index);
+        elements = copy;
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends T> records) {
+        Object[] added = admitAll(records);
+        if (added.length == 0) {
+            return false;
+        }
+        Object[] current = elements;
+        Object[] copy = Arrays.copyOf(current, current.length + added.length);
+        System.arraycopy(added, 0, copy, current.length, added.length);
+        elements = copy;
+        return true;
+    }
+
+    @Override
+    public synchronized T remove(int index) {
+        Object[] current = elements;
+        Objects.checkIndex(index, current.length);
+        Object[] copy = new Object[current.length - 1];
+        System.arraycopy(current, 0, copy, 0, index);
+        System.arraycopy(current, index + 1, copy, index, current.length - index - 1);
+        elements = copy;
+        @SuppressWarnings("unchecked")
+        T removed = (T) current[index];
+        return removed;
+    }
+
+    @Override
+    public synchronized boolean remove(Object record) {
+        int index = indexOf(record);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super T> filter) {
+        Object[] current = elements;
+        Object[] kept = new Object[current.length];
+        int size = 0;
+        for (Object element : current) {
+            @SuppressWarnings("unchecked")
+            T record = (T) element;
+            if (!filter.test(record)) {
+                kept[size++] = element;
+            }
+        }
+        if (size == current.length) {
+            return false;
+        }
+        elements = Arrays.copyOf(kept, size);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> records) {
+        Objects.requireNonNull(records);
+        return removeIf(records::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> records) {
+        Objects.requireNonNull(records);
+        return removeIf(record -> !records.contains(record));
+    }
+
+    @Override
+    public synchronized void clear() {
+        elements = new Object[0];
+    }
+
+    /**
+     * Replaces the whole contents in one step: readers see either the old records or the new ones.
+     *
+     * @param records The records the list is to hold, in order.
+     */
+    public synchronized void setAll(Collection<? extends T> records) {
+        elements = admitAll(records);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] current = elements;
+        return Arrays.copyOf(current, current.length);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        return snapshot().listIterator(index);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(elements, Spliterator.IMMUTABLE | Spliterator.ORDERED);
+    }
+
+    /**
+     * @return The current contents as a read-only list that later changes do not affect.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> snapshot() {
+        return Collections.unmodifiableList(Arrays.asList((T[]) elements));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object[] admitAll(Collection<? extends T> records) {
+        Object[] admitted = records.toArray();
+        for (int i = 0; i < admitted.length; i++) {
+            admitted[i] = admit.apply((T) admitted[i]);
+        }
+        return admitted;
+    }
+}
@@ -1,19 +1,44 @@
 package roles;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.function.Consumer;
 import courses.Course;
+import courses.CourseCatalog;
+import courses.CourseGradeMap;
+import courses.EnrollmentIndex;
+import courses.Grade;
+import courses.WeeklySchedule;
+import courses.VersionStamp;
+import files.AtomicFileWriter;
+import files.EnrollmentJournal;
 
 public class Student extends User {
-    private Map<String, String> courses; // Course ID and Grade
+    private CourseGradeMap courses; // Course ID and Grade, stored as dictionary codes
+    private ScheduleCache scheduleCache; // Union of the weekly slots of the courses, built on demand
+    // Set when this student is a view of a row in a columnar StudentStore; the fields above and in User are then unused
+    private StudentStore store;
+    private int row = -1;
+    // Version of the account and course map, for optimistic edits; retired when the student is deleted
+    private final VersionStamp version = new VersionStamp();
+
+    // Enrollment changes are appended here instead of rewriting studentinfo.txt on every add/drop
+    private static EnrollmentJournal enrollmentJournal = new EnrollmentJournal(EnrollmentJournal.pathFor("src/studentinfo.txt"));
+    private static final String ACCOUNT_DELETED = "This account has been deleted.";
+    // Set when adds and drops are applied by a single writer thread; see RegistrationPipeline
+    private static volatile RegistrationPipeline registrationPipeline;
+    // Told the path of every student file written, so the data it holds is not merged back in as a change
+    private static volatile Consumer<String> studentFileListener = filePath -> {};
     
     /**
      * Represents a student user in the system.
@@ -22,18 +47,49 @@ public class Student extends User {
      */
     public Student(String id, String name, String username, String password, Map<String, String> courses) {
         super(id, name, username, password);
-        this.courses = courses;
+        this.courses = compact(courses);
+    }
+
+    /**
+     * Creates a view of a row in a columnar store.
+     */
+    Student(StudentStore store, int row) {
+        super(null, null, null, null);
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
+     * Turns this student into a view of a store row that already holds its data, releasing its own copy.
+     */
+    void bind(StudentStore store, int row) {
+        this.store = store;
+        this.row = row;
+        this.id = null;
+        this.name = null;
+        this.username = null;
+        this.password = null;
+        this.courses = null;
+        this.scheduleCache = null;
+    }
+
+    StudentStore getStore() {
+        return store;
+    }
+
+    int getRow() {
+        return row;
     }
 
     /**
      * Manages student-specific operations, providing options to view courses, add or drop courses, view grades, and return to the main menu.
      * Utilizes a menu-driven approach to handle different student operations.
      *
-     * @param allCourses   A list of all available courses.
+     * @param allCourses   The catalog of all available courses.
      * @param allStudents  A list of all students for potential operations that require it.
      * @param scanner      Scanner object to read user input.
      */
-    public void manageOperations(List<Course> allCourses, List<Student> allStudents, Scanner scanner) {
+    public void manageOperations(CourseCatalog allCourses, List<Student> allStudents, Scanner scanner) {
         boolean exit = false;
         while (!exit) {
             // Display menu
@@ -45,6 +101,7 @@ public class Student extends User {
             System.out.println("3 -- Drop Course");
             System.out.println("4 -- View Grades");
             System.out.println("5 -- Return to Main Menu");
+            System.out.println("6 -- Swap Course");
             System.out.println("");
             System.out.println("Please enter your option, e.g., '1'.");
 
@@ -62,7 +119,7 @@ public class Student extends User {
             // Process the user's choice
             switch (choice) {
                 case 1:
-                    viewCourses();
+                    viewCourses(allCourses);
                     break;
                 case 2:
                     addCourse(allCourses, allStudents, scanner);
@@ -76,133 +133,391 @@ public class Student extends User {
                 case 5:
                     exit = true;
                     break;
+                case 6:
+                    swapCourse(allCourses, scanner, allStudents, "src/studentinfo.txt");
+                    break;
                 default:
-                    System.out.println("Invalid choice. Please enter a number between 1 and 5.");
+                    System.out.println("Invalid choice. Please enter a number between 1 and 6.");
             }
         }
     }
 
 
     /**
-     * Displays the courses currently enrolled by the student along with their grades.
-     * Iterates over the courses map and prints each course ID and corresponding grade.
+     * Displays the courses currently enrolled by the student along with their grades,
+     * followed by the courses the student is waiting for and their place in each line.
+     *
+     * @param allCourses The catalog of all available courses.
      */
-    private void viewCourses() {
-        courses.forEach((courseId, grade) -> System.out.println("Course ID: " + courseId + ", Grade: " + grade));
+    private void viewCourses(CourseCatalog allCourses) {
+        getCourses().forEach((courseId, grade) -> System.out.println("Course ID: " + courseId + ", Grade: " + grade));
+        EnrollmentIndex enrollments = allCourses.getEnrollments();
+        for (Course course : enrollments.getWaitlistedCourses(this)) {
+            int position = enrollments.getWaitlistPosition(this, course);
+            if (position > 0) {
+                System.out.println("Waitlisted: " + course.getCourseId() + " (position " + position + ")");
+            }
+        }
     }
 
     /**
      * Adds a course to the student's schedule after checking for course existence and potential scheduling conflicts.
      * Ensures the student is not already enrolled in the course and that no time conflicts occur with existing courses.
+     * If the course is full, the student is put on its waitlist and gets the next free seat in turn.
      *
-     * @param allCourses   A list of all available courses to check against.
+     * @param allCourses   The catalog of all available courses to check against.
      * @param allStudents  A list of all students, used for saving data after modification.
      * @param scanner      Scanner object to read user input.
      */
-    private void addCourse(List<Course> allCourses, List<Student> allStudents, Scanner scanner) {
+    private void addCourse(CourseCatalog allCourses, List<Student> allStudents, Scanner scanner) {
         System.out.println("Enter Course ID to add:");
         String courseId = scanner.nextLine().trim();
-        Course courseToAdd = allCourses.stream()
-                                       .filter(c -> c.getCourseId().equals(courseId))
-                                       .findFirst()
-                                       .orElse(null);
+        System.out.println(addCourse(allCourses, allStudents, courseId));
+    }
 
+    /**
+     * Adds a course to the student's schedule, through the registration pipeline when one is set.
+     *
+     * @param allCourses  The catalog of all available courses.
+     * @param allStudents A list of all students, used for saving data after modification.
+     * @param courseId    The course to add.
+     * @return The message for the student.
+     */
+    public String addCourse(CourseCatalog allCourses, List<Student> allStudents, String courseId) {
+        Course courseToAdd = allCourses.findById(courseId);
         if (courseToAdd == null) {
-            System.out.println("Course not found.");
-            return;
+            return "Course not found.";
         }
-
-        if (courses.containsKey(courseId)) {
-            System.out.println("You are already enrolled in this course.");
-            return;
+        RegistrationPipeline pipeline = registrationPipeline;
+        if (pipeline != null) {
+            return pipeline.submitAdd(this, allCourses, allStudents, courseToAdd, "src/studentinfo.txt").join();
         }
+        return finishRegistration(tryAddCourse(allCourses, courseToAdd), allStudents, "src/studentinfo.txt");
+    }
 
-        // Check for time conflicts
-        for (String existingCourseId : courses.keySet()) {
-            Course existingCourse = allCourses.stream()
-                                              .filter(c -> c.getCourseId().equals(existingCourseId))
-                                              .findFirst()
-                                              .orElse(null);
+    /**
+     * Checks and enrolls as one transaction, so no other registration of this student or for this
+     * course can slip in between the checks and the enrollment. The change is journaled but the
+     * journal is not compacted.
+     *
+     * @param allCourses  The catalog of all available courses.
+     * @param courseToAdd The course to add.
+     * @return The outcome.
+     */
+    RegistrationResult tryAddCourse(CourseCatalog allCourses, Course courseToAdd) {
+        String courseId = courseToAdd.getCourseId();
+        EnrollmentIndex enrollments = allCourses.getEnrollments();
+        return enrollments.transact(this, List.of(courseToAdd), () -> {
+            if (version.isRetired()) {
+                return RegistrationResult.rejected(ACCOUNT_DELETED);
+            }
+            if (getCourses().containsKey(courseId)) {
+                return RegistrationResult.rejected("You are already enrolled in this course.");
+            }
+            Course conflict = findConflict(allCourses, courseToAdd, null);
+            if (conflict != null) {
+                return RegistrationResult.rejected("Cannot add course due to a schedule conflict with " + conflict.getCourseId());
+            }
+            if (!enrollments.enroll(this, courseToAdd, Grade.NOT_GRADED.getLabel())) {
+                int position = enrollments.joinWaitlist(this, courseToAdd);
+                if (position == 0) {
+                    return RegistrationResult.rejected("The course is full. You are already on its waitlist.");
+                }
+                return RegistrationResult.rejected("The course is full. You have been added to its waitlist (position " + position + ").");
+            }
+            boolean journaled = appendToJournal(EnrollmentJournal.Event.ADD, courseId, Grade.NOT_GRADED.getLabel());
+            return RegistrationResult.done("Course added successfully.", journaled);
+        });
+    }
 
-            if (existingCourse != null && existingCourse.hasTimeConflict(courseToAdd.getStartTime(), courseToAdd.getEndTime(), courseToAdd.getDays())) {
-                System.out.println("Cannot add course due to a schedule conflict with " + existingCourse.getCourseId());
-                return;
+    /**
+     * Finds a course of the student that meets at the same time as another one.
+     * Only looks for it if the other course shares a slot with the student's weekly schedule.
+     *
+     * @param allCourses The catalog of all available courses.
+     * @param course     The course to check.
+     * @param ignored    A course of the student to leave out, e.g. one being swapped out, or null.
+     * @return The conflicting course, or null if there is none.
+     */
+    private Course findConflict(CourseCatalog allCourses, Course course, Course ignored) {
+        if (!getWeeklySchedule(allCourses).intersects(course.getWeeklySchedule())) {
+            return null;
+        }
+        for (String existingCourseId : getCourses().keySet()) {
+            Course existingCourse = allCourses.findById(existingCourseId);
+            if (existingCourse != null && existingCourse != ignored && existingCourse.hasTimeConflict(course)) {
+                return existingCourse;
             }
         }
+        return null;
+    }
 
-        if (courseToAdd.addStudent(this.getId())) {
-            courses.put(courseId, "Not Graded");
-            System.out.println("Course added successfully.");
-            Student.saveStudentsToFile(allStudents, "src/studentinfo.txt"); // Save changes to file
-        } else {
-            System.out.println("Could not add course. It may be full.");
+    /**
+     * The outcome of a registration transaction: what to tell the student, and whether anything changed.
+     */
+    static final class RegistrationResult {
+        final String message;
+        final boolean changed;
+        final boolean journaled;
+
+        private RegistrationResult(String message, boolean changed, boolean journaled) {
+            this.message = message;
+            this.changed = changed;
+            this.journaled = journaled;
+        }
+
+        static RegistrationResult rejected(String message) {
+            return new RegistrationResult(message, false, false);
+        }
+
+        static RegistrationResult done(String message, boolean journaled) {
+            return new RegistrationResult(message, true, journaled);
+        }
+    }
+
+    /**
+     * Makes sure the outcome of a registration transaction is saved if it changed anything, and
+     * returns what to tell the student. Done after the transaction's locks are released, since
+     * saving may write the whole student file.
+     */
+    private static String finishRegistration(RegistrationResult result, List<Student> allStudents, String filePath) {
+        if (result.changed) {
+            saveRegistrationChanges(result.journaled, allStudents, filePath);
+        }
+        return result.message;
+    }
+
+    /**
+     * Saves registration changes that were applied: by compacting the journal once it has grown
+     * large enough, or by rewriting the student file if the changes could not be journaled.
+     *
+     * @param journaled   Whether every change made it into the journal.
+     * @param allStudents All students.
+     * @param filePath    The path of the student data file.
+     */
+    static void saveRegistrationChanges(boolean journaled, List<Student> allStudents, String filePath) {
+        if (!journaled) {
+            Student.saveStudentsToFile(allStudents, filePath);
+        } else if (enrollmentJournal.needsCompaction()) {
+            compactEnrollmentJournal(allStudents, filePath);
+        }
+    }
+
+    /**
+     * Journals the enrollment of a student promoted from a waitlist. Set as the promotion listener of
+     * the resident enrollment index, so promotions survive a restart like any other add; if the
+     * journal cannot be written, the enrollment is saved with the student file on exit.
+     *
+     * @param student The promoted student.
+     * @param course  The course they got a seat in.
+     */
+    public static void journalPromotion(Student student, Course course) {
+        student.appendToJournal(EnrollmentJournal.Event.ADD, course.getCourseId(), Grade.NOT_GRADED.getLabel());
+    }
+
+    /**
+     * Appends an enrollment change to the enrollment journal. Called inside the registration
+     * transaction, so the journal lists the changes of a student in the order they were made.
+     *
+     * @param event    The kind of change.
+     * @param courseId The course that was added, dropped or graded.
+     * @param grade    The new grade, or null for a drop.
+     * @return true if the change was journaled, false if the student file has to be rewritten instead.
+     */
+    private boolean appendToJournal(EnrollmentJournal.Event event, String courseId, String grade) {
+        try {
+            enrollmentJournal.append(event, this.getId(), courseId, grade);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing to enrollment journal: " + e.getMessage());
+            return false;
         }
     }
 
 
 
+    /**
+     * Rewrites the student file from the given students and empties the enrollment journal.
+     *
+     * @param allStudents The students to write; must include every journaled change.
+     * @param filePath    The path of the student data file.
+     * @return true if the journal was compacted.
+     */
+    public static boolean compactEnrollmentJournal(List<Student> allStudents, String filePath) {
+        return enrollmentJournal.compact(() -> saveStudentsToFile(allStudents, filePath));
+    }
+
     /**
      * Saves the updated list of students to a file.
      * Formats each student's information into a string and writes to the specified file.
+     * Every rewrite of the student file goes through here, and the student file listener is told
+     * once the new file is in place.
      *
      * @param students   The list of students to be saved.
      * @param filePath   The path of the file to save the student data.
+     * @return true if the file was written successfully.
      */
-    private static void saveStudentsToFile(List<Student> students, String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (Student student : students) {
-                String studentData = student.getId() + "; " + 
+    static boolean saveStudentsToFile(List<Student> students, String filePath) {
+        // The resident list is copy-on-write, so the copy is one version of it, never a half merged one.
+        // Its monitor is not taken: a refresh holds it while locking enrollments, and this can be
+        // called under the journal's lock, which registrations take while holding enrollment locks
+        List<Student> toWrite = new ArrayList<>(students);
+        try (AtomicFileWriter file = new AtomicFileWriter(filePath)) {
+            BufferedWriter writer = file.getWriter();
+            for (Student student : toWrite) {
+                // Read under the student's version, so a concurrent registration cannot tear the line
+                String studentData = student.getVersion().read(() ->
+                                     student.getId() + "; " + 
                                      student.getName() + "; " + 
                                      student.getUsername() + "; " + 
                                      student.getPassword() + "; " +
                                      student.getCourses().entrySet().stream()
                                             .map(entry -> entry.getKey() + ": " + entry.getValue())
-                                            .collect(Collectors.joining(", "));
+                                            .collect(Collectors.joining(", ")));
                 writer.write(studentData);
                 writer.newLine();
             }
+            file.commit();
         } catch (IOException e) {
             System.out.println("Error writing to file: " + e.getMessage());
+            return false;
         }
+        studentFileListener.accept(filePath);
+        return true;
     }
 
     
     /**
      * Drops a course from the student's schedule.
      * Checks if the course is in the student's current schedule before removing it.
+     * A student waiting for the course is taken off its waitlist instead.
      *
      * @param scanner      Scanner object to read user input.
      * @param allStudents  A list of all students, used for saving data after modification.
      * @param filePath     The path of the file to save the student data.
      */
-    private void dropCourse(List<Course> allCourses, Scanner scanner, List<Student> allStudents, String studentInfoFilePath) {
+    private void dropCourse(CourseCatalog allCourses, Scanner scanner, List<Student> allStudents, String studentInfoFilePath) {
         System.out.println("Enter Course ID to drop:");
         String courseId = scanner.nextLine().trim();
+        System.out.println(dropCourse(allCourses, allStudents, courseId, studentInfoFilePath));
+    }
 
-        if (!courses.containsKey(courseId)) {
-            System.out.println("You are not enrolled in this course.");
-            return;
+    /**
+     * Drops a course from the student's schedule, through the registration pipeline when one is set.
+     *
+     * @param allCourses          The catalog of all available courses.
+     * @param allStudents         A list of all students, used for saving data after modification.
+     * @param courseId            The course to drop.
+     * @param studentInfoFilePath The path of the file to save the student data.
+     * @return The message for the student.
+     */
+    public String dropCourse(CourseCatalog allCourses, List<Student> allStudents, String courseId, String studentInfoFilePath) {
+        RegistrationPipeline pipeline = registrationPipeline;
+        if (pipeline != null) {
+            return pipeline.submitDrop(this, allCourses, allStudents, courseId, studentInfoFilePath).join();
         }
+        return finishRegistration(tryDropCourse(allCourses, courseId), allStudents, studentInfoFilePath);
+    }
 
-        String grade = courses.get(courseId);
-        if (!grade.equals("Not Graded")) {
-            System.out.println("Cannot drop a course that has already been graded.");
-            return;
+    /**
+     * Checks and drops as one transaction; the change is journaled but the journal is not compacted.
+     *
+     * @param allCourses The catalog of all available courses.
+     * @param courseId   The course to drop.
+     * @return The outcome.
+     */
+    RegistrationResult tryDropCourse(CourseCatalog allCourses, String courseId) {
+        Course course = allCourses.findById(courseId);
+        EnrollmentIndex enrollments = allCourses.getEnrollments();
+        return enrollments.transact(this, course == null ? List.of() : List.of(course), () -> {
+            if (version.isRetired()) {
+                return RegistrationResult.rejected(ACCOUNT_DELETED);
+            }
+            if (course != null && !getCourses().containsKey(courseId) && enrollments.leaveWaitlist(this, course)) {
+                return RegistrationResult.rejected("You have left the waitlist for " + courseId + ".");
+            }
+            String rejection = checkDroppable(courseId);
+            if (rejection != null) {
+                return RegistrationResult.rejected(rejection);
+            }
+            if (course == null) {
+                return RegistrationResult.rejected("Error: Course not found.");
+            }
+            if (!enrollments.drop(this, course)) {
+                return RegistrationResult.rejected(ACCOUNT_DELETED);
+            }
+            boolean journaled = appendToJournal(EnrollmentJournal.Event.DROP, courseId, null);
+            return RegistrationResult.done("Course dropped successfully.", journaled);
+        });
+    }
+
+    /**
+     * @param courseId A course ID.
+     * @return Why the student cannot drop the course, or null if they can.
+     */
+    private String checkDroppable(String courseId) {
+        Map<String, String> courses = getCourses();
+        if (!courses.containsKey(courseId)) {
+            return "You are not enrolled in this course.";
         }
+        if (Grade.parse(courses.get(courseId)) != Grade.NOT_GRADED) {
+            return "Cannot drop a course that has already been graded.";
+        }
+        return null;
+    }
 
-        Course course = allCourses.stream()
-                                  .filter(c -> c.getCourseId().equals(courseId))
-                                  .findFirst()
-                                  .orElse(null);
+    /**
+     * Swaps one of the student's courses for another in one step: the student keeps the old course
+     * unless they get a seat in the new one, so a full course never costs them the seat they had.
+     * The same checks as for a drop and an add apply, except that the course being dropped does
+     * not count as a schedule conflict.
+     *
+     * @param allCourses          The catalog of all available courses.
+     * @param scanner             Scanner object to read user input.
+     * @param allStudents         A list of all students, used for saving data after modification.
+     * @param studentInfoFilePath The path of the file to save the student data.
+     */
+    private void swapCourse(CourseCatalog allCourses, Scanner scanner, List<Student> allStudents, String studentInfoFilePath) {
+        System.out.println("Enter Course ID to drop:");
+        String dropId = scanner.nextLine().trim();
+        System.out.println("Enter Course ID to add:");
+        String addId = scanner.nextLine().trim();
 
-        if (course != null) {
-            course.removeStudent(this.getId());
-            courses.remove(courseId);
-            System.out.println("Course dropped successfully.");
-            Student.saveStudentsToFile(allStudents, studentInfoFilePath); // Save changes to file
-        } else {
+        Course from = allCourses.findById(dropId);
+        Course to = allCourses.findById(addId);
+        if (to == null) {
+            System.out.println("Course not found.");
+            return;
+        }
+        if (from == null) {
             System.out.println("Error: Course not found.");
+            return;
         }
+
+        EnrollmentIndex enrollments = allCourses.getEnrollments();
+        RegistrationResult result = enrollments.transact(this, List.of(from, to), () -> {
+            if (version.isRetired()) {
+                return RegistrationResult.rejected(ACCOUNT_DELETED);
+            }
+            String rejection = checkDroppable(dropId);
+            if (rejection != null) {
+                return RegistrationResult.rejected(rejection);
+            }
+            if (getCourses().containsKey(addId)) {
+                return RegistrationResult.rejected("You are already enrolled in this course.");
+            }
+            Course conflict = findConflict(allCourses, to, from);
+            if (conflict != null) {
+                return RegistrationResult.rejected("Cannot add course due to a schedule conflict with " + conflict.getCourseId());
+            }
+            if (!enrollments.swap(this, from, to, Grade.NOT_GRADED.getLabel())) {
+                return RegistrationResult.rejected("Could not add course. It may be full.");
+            }
+            boolean journaled = appendToJournal(EnrollmentJournal.Event.DROP, dropId, null)
+                    && appendToJournal(EnrollmentJournal.Event.ADD, addId, Grade.NOT_GRADED.getLabel());
+            return RegistrationResult.done("Swapped " + dropId + " for " + addId + ".", journaled);
+        });
+        System.out.println(finishRegistration(result, allStudents, studentInfoFilePath));
     }
 
 
@@ -213,14 +528,11 @@ public class Student extends User {
      * Displays the grades for each course the student is enrolled in.
      * Iterates over the courses map and prints the grade for each course.
      *
-     * @param allCourses A list of all available courses to find course names.
+     * @param allCourses The catalog of all available courses to find course names.
      */
-    private void viewGrades(List<Course> allCourses) {
-        courses.forEach((courseId, grade) -> {
-            Course course = allCourses.stream()
-                                      .filter(c -> c.getCourseId().equals(courseId))
-                                      .findFirst()
-                                      .orElse(null);
+    private void viewGrades(CourseCatalog allCourses) {
+        getCourses().forEach((courseId, grade) -> {
+            Course course = allCourses.findById(courseId);
 
             if (course != null) {
                 System.out.println("Grade of" + course.getCourseName() + " (" + courseId + "): " + grade);
@@ -228,16 +540,221 @@ public class Student extends User {
                 System.out.println("Course ID: " + courseId + " not found");
             }
         });
+        if (getGpaCourseCount() > 0) {
+            System.out.printf("GPA: %.2f (%d graded courses)%n", getGpa(), getGpaCourseCount());
+        }
+    }
+
+    /**
+     * @return The student's GPA over the courses whose grade counts toward it, or 0 if there are none.
+     */
+    public double getGpa() {
+        return store != null ? store.getGpa(row) : courses.getGpa();
+    }
+
+    /**
+     * @return The number of the student's courses whose grade counts toward the GPA.
+     */
+    public int getGpaCourseCount() {
+        return store != null ? store.getGpaCourseCount(row) : courses.getGpaCourseCount();
+    }
+
+    /**
+     * Finds the students on the honor roll.
+     *
+     * @param students   The students to consider.
+     * @param minimumGpa The lowest GPA that makes the honor roll.
+     * @return The students with at least one graded course and a GPA of at least minimumGpa, best GPA first.
+     */
+    public static List<Student> honorRoll(Collection<Student> students, double minimumGpa) {
+        List<Student> honorRoll = new ArrayList<>();
+        for (Student student : students) {
+            if (student.getGpaCourseCount() > 0 && student.getGpa() >= minimumGpa) {
+                honorRoll.add(student);
+            }
+        }
+        honorRoll.sort(Comparator.comparingDouble(Student::getGpa).reversed());
+        return honorRoll;
     }
 
 
     // Getters and setters
     public Map<String, String> getCourses() {
-        return courses;
+        return store != null ? store.getCourses(row) : courses;
     }
 
     public void setCourses(Map<String, String> courses) {
-        this.courses = courses;
+        if (store != null) {
+            store.setCourses(row, courses);
+        } else {
+            this.courses = compact(courses);
+        }
+    }
+
+    @Override
+    public String getId() {
+        return store != null ? store.getId(row) : super.getId();
+    }
+
+    @Override
+    public String getName() {
+        return store != null ? store.getName(row) : super.getName();
+    }
+
+    @Override
+    public String getUsername() {
+        return store != null ? store.getUsername(row) : super.getUsername();
+    }
+
+    @Override
+    public String getPassword() {
+        return store != null ? store.getPassword(row) : super.getPassword();
+    }
+
+    @Override
+    public void setId(String id) {
+        if (store != null) {
+            store.setId(row, id);
+        } else {
+            super.setId(id);
+        }
+    }
+
+    @Override
+    public void setName(String name) {
+        if (store != null) {
+            store.setName(row, name);
+        } else {
+            super.setName(name);
+        }
+    }
+
+    @Override
+    public void setUsername(String username) {
+        if (store != null) {
+            store.setUsername(row, username);
+        } else {
+            super.setUsername(username);
+        }
+    }
+
+    @Override
+    public void setPassword(String password) {
+        if (store != null) {
+            store.setPassword(row, password);
+        } else {
+            super.setPassword(password);
+        }
+    }
+
+    @Override
+    public boolean checkPassword(String inputPassword) {
+        return store != null ? store.checkPassword(row, inputPassword) : super.checkPassword(inputPassword);
+    }
+
+    /**
+     * Stores a course map as a CourseGradeMap, copying it unless it already is one.
+     */
+    private static CourseGradeMap compact(Map<String, String> courses) {
+        return courses instanceof CourseGradeMap ? (CourseGradeMap) courses : new CourseGradeMap(courses);
+    }
+
+    /**
+     * Returns the weekly slots taken by the student's courses. The union is cached and rebuilt only
+     * after the student's courses, the catalog or a meeting time changed.
+     *
+     * @param allCourses The catalog of all available courses.
+     * @return The union of the weekly slots of the student's courses found in the catalog.
+     */
+    public WeeklySchedule getWeeklySchedule(CourseCatalog allCourses) {
+        ScheduleCache cache = scheduleCache;
+        if (cache == null || !cache.isCurrent(allCourses, coursesSource(), coursesVersion())) {
+            WeeklySchedule schedule = WeeklySchedule.EMPTY;
+            for (String courseId : getCourses().keySet()) {
+                Course course = allCourses.findById(courseId);
+                if (course != null) {
+                    schedule = schedule.union(course.getWeeklySchedule());
+                }
+            }
+            cache = new ScheduleCache(schedule, allCourses, coursesSource(), coursesVersion());
+            scheduleCache = cache;
+        }
+        return cache.schedule;
+    }
+
+    /**
+     * @return What the student's courses are read from: their course map, or the store they are a view of.
+     */
+    private Object coursesSource() {
+        return store != null ? store : courses;
+    }
+
+    /**
+     * @return A number that changes whenever a course is added to or removed from the student.
+     */
+    private int coursesVersion() {
+        return store != null ? store.getCoursesVersion() : courses.getModCount();
+    }
+
+    /**
+     * A schedule union together with what it was built from.
+     */
+    private static final class ScheduleCache {
+        final WeeklySchedule schedule;
+        final CourseCatalog catalog;
+        final int catalogVersion;
+        final Object coursesSource;
+        final int coursesVersion;
+        final int meetingTimesVersion;
+
+        ScheduleCache(WeeklySchedule schedule, CourseCatalog catalog, Object coursesSource, int coursesVersion) {
+            this.schedule = schedule;
+            this.catalog = catalog;
+            this.catalogVersion = catalog.getVersion();
+            this.coursesSource = coursesSource;
+            this.coursesVersion = coursesVersion;
+            this.meetingTimesVersion = Course.getMeetingTimesVersion();
+        }
+
+        boolean isCurrent(CourseCatalog catalog, Object coursesSource, int coursesVersion) {
+            return this.catalog == catalog && catalogVersion == catalog.getVersion()
+                    && this.coursesSource == coursesSource && this.coursesVersion == coursesVersion
+                    && meetingTimesVersion == Course.getMeetingTimesVersion();
+        }
+    }
+
+    /**
+     * @return The version of the student's account and course map, for optimistic edits.
+     */
+    public VersionStamp getVersion() {
+        return version;
+    }
+
+    public static EnrollmentJournal getEnrollmentJournal() {
+        return enrollmentJournal;
+    }
+
+    public static void setEnrollmentJournal(EnrollmentJournal journal) {
+        enrollmentJournal = journal;
+    }
+
+    /**
+     * Routes the adds and drops of every student through a registration pipeline.
+     *
+     * @param pipeline The pipeline, or null to apply them on the calling thread again.
+     */
+    public static void setRegistrationPipeline(RegistrationPipeline pipeline) {
+        registrationPipeline = pipeline;
+    }
+
+    /**
+     * Sets who is told after the student file has been rewritten from the resident students, e.g. to
+     * record its new size and modification time as already seen.
+     *
+     * @param listener Called with the path of the file written.
+     */
+    public static void setStudentFileListener(Consumer<String> listener) {
+        studentFileListener = listener;
     }
 
     // Additional methods can be implemented as needed
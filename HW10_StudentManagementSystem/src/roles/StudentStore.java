@@ -0,0 +1,689 @@
+package roles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import courses.CourseGradeMap;
+import courses.Grade;
+import courses.IdDictionary;
+
+/**
+ * Students stored column by column instead of as one object graph each: the ID, name, username
+ * and password of every student are packed as UTF-8 into one byte array, and all enrollments sit
+ * in an int array of course ID codes and a byte array of Grade codes, each student owning one
+ * contiguous range of them. The GPA totals of each row are worked out once, when it is added.
+ *
+ * The Student objects handed out are flyweight views that hold only their row number; their
+ * getters and setters read and write the columns. A Student created on its own and then added
+ * to the store's list is turned into such a view in place, so references to it held elsewhere
+ * (login indexes, course rosters) stay valid. Each row has at most one view, so students can still
+ * be compared by identity.
+ *
+ * The store only appends. Changing a text field appends the new bytes and leaves the old ones
+ * behind, and the first change to a student's courses moves that student's enrollments into a
+ * CourseGradeMap of their own, which then keeps the GPA totals; so does a student added with a
+ * grade that is not a known Grade. Rows taken out of the list stay in the store. All of this is
+ * reclaimed the next time the students are loaded.
+ *
+ * Reads of the columns are optimistic: they run without a lock and are checked against a
+ * StampedLock afterwards, falling back to its shared read lock only when a write got in the way.
+ * Sessions reading students therefore never wait for each other; only changes, which append, take
+ * the write lock.
+ *
+ * The columnar store is used when the system property "sis.studentStore" is "columnar"; see
+ * isSelected.
+ */
+public class StudentStore {
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int USERNAME = 2;
+    private static final int PASSWORD = 3;
+    private static final int FIELDS = 4;
+
+    private byte[] text = new byte[1024];
+    private int textLength;
+    // Start and end in text of each field, FIELDS entries per row; start -1 for a null field
+    private int[] fieldStart = new int[16 * FIELDS];
+    private int[] fieldEnd = new int[16 * FIELDS];
+
+    // Enrollments of row r are courseCodes/gradeCodes[enrollmentStart[r] .. + enrollmentCount[r]]
+    private int[] enrollmentStart = new int[16];
+    private int[] enrollmentCount = new int[16];
+    private int[] courseCodes = new int[64];
+    private byte[] gradeCodes = new byte[64];
+    private int enrollmentLength;
+    // GPA totals of each row's enrollments, as in CourseGradeMap
+    private int[] gpaCourses = new int[16];
+    private int[] gpaPoints = new int[16];
+    // Rows whose courses changed since they were added, with their current courses; concurrent, so an
+    // optimistic read racing a write sees some map or none rather than a broken one
+    private final Map<Integer, CourseGradeMap> changedCourses = new ConcurrentHashMap<>();
+    private int coursesVersion;
+
+    private Student[] views = new Student[16];
+    private int rows;
+
+    private final Rows list = new Rows();
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @return true if the system property "sis.studentStore" selects the columnar store.
+     */
+    public static boolean isSelected() {
+        return "columnar".equalsIgnoreCase(System.getProperty("sis.studentStore", "objects").trim());
+    }
+
+    /**
+     * Creates a store holding the given students, which become views over it.
+     *
+     * @param students The students, in list order.
+     * @return The store's list of students.
+     */
+    public static List<Student> listOf(Collection<Student> students) {
+        StudentStore store = new StudentStore();
+        store.list.addAll(students);
+        return store.list;
+    }
+
+    /**
+     * @return The students in the store, as a mutable list. Adding a Student that is not a view of
+     *         this store copies it into the store and turns it into a view.
+     */
+    public List<Student> asList() {
+        return list;
+    }
+
+    /**
+     * Wraps the students in the store in a ResidentList, for sharing between sessions. Students added
+     * to it later are copied into the store and turned into views, as with asList.
+     *
+     * @return A copy-on-write list of the students now in the store's list.
+     */
+    public ResidentList<Student> residentList() {
+        return new ResidentList<>(list, this::adopt);
+    }
+
+    /**
+     * Copies a student into the store and turns it into a view, unless it already is a view of it.
+     * The student is not added to the store's list.
+     *
+     * @param student The student.
+     * @return The same student.
+     */
+    public Student adopt(Student student) {
+        if (student.getStore() != this) {
+            append(student);
+        }
+        return student;
+    }
+
+    /**
+     * @return The number of rows, including rows no longer in the list.
+     */
+    public int getRowCount() {
+        return readInt(() -> rows);
+    }
+
+    String getField(int row, int field) {
+        return read(() -> {
+            int slot = row * FIELDS + field;
+            int start = fieldStart[slot];
+            return start < 0 ? null : new String(text, start, fieldEnd[slot] - start, StandardCharsets.UTF_8);
+        });
+    }
+
+    void setField(int row, int field, String value) {
+        long stamp = lock.writeLock();
+        try {
+            writeField(row * FIELDS + field, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    boolean fieldEquals(int row, int field, String value) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        return read(() -> {
+            int slot = row * FIELDS + field;
+            int start = fieldStart[slot];
+            if (start < 0 || bytes == null) {
+                return start < 0 && bytes == null;
+            }
+            return Arrays.equals(text, start, fieldEnd[slot], bytes, 0, bytes.length);
+        });
+    }
+
+    String getId(int row) {
+        return getField(row, ID);
+    }
+
+    void setId(int row, String id) {
+        setField(row, ID, id);
+    }
+
+    String getName(int row) {
+        return getField(row, NAME);
+    }
+
+    void setName(int row, String name) {
+        setField(row, NAME, name);
+    }
+
+    String getUsername(int row) {
+        return getField(row, USERNAME);
+    }
+
+    void setUsername(int row, String username) {
+        setField(row, USERNAME, username);
+    }
+
+    String getPassword(int row) {
+        return getField(row, PASSWORD);
+    }
+
+    void setPassword(int row, String password) {
+        setField(row, PASSWORD, password);
+    }
+
+    boolean checkPassword(int row, String password) {
+        return fieldEquals(row, PASSWORD, password);
+    }
+
+    /**
+     * @param row A row.
+     * @return The courses and grades of the row, read and written through to the store.
+     */
+    Map<String, String> getCourses(int row) {
+        return new RowCourses(row);
+    }
+
+    void setCourses(int row, Map<String, String> courses) {
+        // Copied before locking: the courses may be a view of this store, which reads it
+        CourseGradeMap copy = new CourseGradeMap(courses);
+        long stamp = lock.writeLock();
+        try {
+            changedCourses.put(row, copy);
+            coursesVersion++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int getGpaCourseCount(int row) {
+        return readInt(() -> {
+            CourseGradeMap changed = changedCourses.get(row);
+            return changed != null ? changed.getGpaCourseCount() : gpaCourses[row];
+        });
+    }
+
+    double getGpa(int row) {
+        return read(() -> {
+            CourseGradeMap changed = changedCourses.get(row);
+            return changed != null ? changed.getGpa() : Grade.gpa(gpaPoints[row], gpaCourses[row]);
+        });
+    }
+
+    /**
+     * @return A number that changes whenever the courses of any row change.
+     */
+    int getCoursesVersion() {
+        return readInt(() -> coursesVersion);
+    }
+
+    /**
+     * Reads the columns without locking and checks afterwards that no write happened meanwhile;
+     * if one did, reads again under the read lock. A read torn by a write, e.g. one that grew an
+     * array, may fail, and is then read again too. The reader must not change anything.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Like read, for an int, without boxing it.
+     */
+    private int readInt(IntSupplier reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int result = reader.getAsInt();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies a student into a new row and makes the student a view of it.
+     */
+    private int append(Student student) {
+        // Everything is read from the student before locking, in case it is a view of another store
+        String id = student.getId();
+        String name = student.getName();
+        String username = student.getUsername();
+        String password = student.getPassword();
+        CourseGradeMap courses = new CourseGradeMap(student.getCourses());
+        long stamp = lock.writeLock();
+        try {
+            return append(student, id, name, username, password, courses);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int append(Student student, String id, String name, String username, String password,
+            CourseGradeMap courses) {
+        int row = rows;
+        ensureRowCapacity(row + 1);
+        writeField(row * FIELDS + ID, id);
+        writeField(row * FIELDS + NAME, name);
+        writeField(row * FIELDS + USERNAME, username);
+        writeField(row * FIELDS + PASSWORD, password);
+
+        enrollmentStart[row] = enrollmentLength;
+        if (hasOnlyKnownGrades(courses)) {
+            ensureEnrollmentCapacity(enrollmentLength + courses.size());
+            int count = 0;
+            for (Map.Entry<String, String> entry : courses.entrySet()) {
+                Grade grade = Grade.parse(entry.getValue());
+                courseCodes[enrollmentLength] = IdDictionary.COURSE_IDS.intern(entry.getKey());
+                gradeCodes[enrollmentLength] = grade == null ? -1 : grade.getCode();
+                if (grade != null && grade.countsTowardGpa()) {
+                    gpaCourses[row]++;
+                    gpaPoints[row] += grade.getPoints();
+                }
+                enrollmentLength++;
+                count++;
+            }
+            enrollmentCount[row] = count;
+        } else {
+            changedCourses.put(row, courses);
+        }
+
+        rows++;
+        views[row] = student;
+        student.bind(this, row);
+        return row;
+    }
+
+    private Student view(int row) {
+        Student view = read(() -> views[row]);
+        if (view != null) {
+            return view;
+        }
+        long stamp = lock.writeLock();
+        try {
+            return viewLocked(row);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the view of a row, creating it if there is none yet; the caller holds the write lock.
+     */
+    private Student viewLocked(int row) {
+        Student view = views[row];
+        if (view == null) {
+            view = new Student(this, row);
+            views[row] = view;
+        }
+        return view;
+    }
+
+    private static boolean hasOnlyKnownGrades(Map<String, String> courses) {
+        for (String grade : courses.values()) {
+            if (grade != null && Grade.parse(grade) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeField(int slot, String value) {
+        if (value == null) {
+            fieldStart[slot] = -1;
+            fieldEnd[slot] = -1;
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (textLength + bytes.length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + bytes.length));
+        }
+        System.arraycopy(bytes, 0, text, textLength, bytes.length);
+        fieldStart[slot] = textLength;
+        fieldEnd[slot] = textLength + bytes.length;
+        textLength += bytes.length;
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (capacity > views.length) {
+            int grown = Math.max(capacity, views.length * 2);
+            views = Arrays.copyOf(views, grown);
+            enrollmentStart = Arrays.copyOf(enrollmentStart, grown);
+            enrollmentCount = Arrays.copyOf(enrollmentCount, grown);
+            gpaCourses = Arrays.copyOf(gpaCourses, grown);
+            gpaPoints = Arrays.copyOf(gpaPoints, grown);
+            fieldStart = Arrays.copyOf(fieldStart, grown * FIELDS);
+            fieldEnd = Arrays.copyOf(fieldEnd, grown * FIELDS);
+        }
+    }
+
+    private void ensureEnrollmentCapacity(int capacity) {
+        if (capacity > courseCodes.length) {
+            int grown = Math.max(capacity, courseCodes.length * 2);
+            courseCodes = Arrays.copyOf(courseCodes, grown);
+            gradeCodes = Arrays.copyOf(gradeCodes, grown);
+        }
+    }
+
+    private static String grade(byte gradeCode) {
+        return gradeCode < 0 ? null : Grade.ofCode(gradeCode).getLabel();
+    }
+
+    /**
+     * The students of the store in list order, as row numbers.
+     */
+    private final class Rows extends AbstractList<Student> implements RandomAccess {
+        private int[] order = new int[16];
+        private int size;
+
+        @Override
+        public Student get(int index) {
+            return view(readInt(() -> {
+                checkIndex(index, size);
+                return order[index];
+            }));
+        }
+
+        @Override
+        public int size() {
+            return readInt(() -> size);
+        }
+
+        @Override
+        public Student set(int index, Student student) {
+            int row = rowOf(student);
+            long stamp = lock.writeLock();
+            try {
+                checkIndex(index, size);
+                Student previous = viewLocked(order[index]);
+                order[index] = row;
+                return previous;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void add(int index, Student student) {
+            int row = rowOf(student);
+            long stamp = lock.writeLock();
+            try {
+                checkIndex(index, size + 1);
+                if (size == order.length) {
+                    order = Arrays.copyOf(order, size * 2);
+                }
+                System.arraycopy(order, index, order, index + 1, size - index);
+                order[index] = row;
+                size++;
+                modCount++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public Student remove(int index) {
+            long stamp = lock.writeLock();
+            try {
+                checkIndex(index, size);
+                Student removed = viewLocked(order[index]);
+                System.arraycopy(order, index + 1, order, index, size - index - 1);
+                size--;
+                modCount++;
+                return removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void clear() {
+            long stamp = lock.writeLock();
+            try {
+                size = 0;
+                modCount++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * The row of a student, copying the student into the store first if it is not a view of it.
+         * Called before taking the write lock, since copying takes it too.
+         */
+        private int rowOf(Student student) {
+            return student.getStore() == StudentStore.this ? student.getRow() : append(student);
+        }
+
+        private void checkIndex(int index, int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
+    }
+
+    /**
+     * The courses of one row. Reads come from the enrollment columns until the first change, which
+     * moves the row's courses into a CourseGradeMap of their own.
+     */
+    private final class RowCourses extends AbstractMap<String, String> {
+        private final int row;
+
+        RowCourses(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public int size() {
+            return readInt(() -> {
+                CourseGradeMap changed = changedCourses.get(row);
+                return changed != null ? changed.size() : enrollmentCount[row];
+            });
+        }
+
+        @Override
+        public boolean containsKey(Object courseId) {
+            return read(() -> {
+                CourseGradeMap changed = changedCourses.get(row);
+                return changed != null ? changed.containsKey(courseId) : indexOf(courseId) >= 0;
+            });
+        }
+
+        @Override
+        public String get(Object courseId) {
+            return read(() -> {
+                CourseGradeMap changed = changedCourses.get(row);
+                if (changed != null) {
+                    return changed.get(courseId);
+                }
+                int index = indexOf(courseId);
+                return index < 0 ? null : grade(gradeCodes[index]);
+            });
+        }
+
+        @Override
+        public String put(String courseId, String grade) {
+            long stamp = lock.writeLock();
+            try {
+                coursesVersion++;
+                return changed().put(courseId, grade);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public String remove(Object courseId) {
+            long stamp = lock.writeLock();
+            try {
+                coursesVersion++;
+                return changed().remove(courseId);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void clear() {
+            long stamp = lock.writeLock();
+            try {
+                coursesVersion++;
+                changed().clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super String, ? super String> action) {
+            for (Map.Entry<String, String> entry : entrySet()) {
+                action.accept(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<Map.Entry<String, String>>() {
+                @Override
+                public int size() {
+                    return RowCourses.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    // Iterate over a copy, so the row's courses may change while iterating
+                    List<Map.Entry<String, String>> entries = snapshot();
+                    return new Iterator<Map.Entry<String, String>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < entries.size();
+                        }
+
+                        @Override
+                        public Map.Entry<String, String> next() {
+                            if (next >= entries.size()) {
+                                throw new NoSuchElementException();
+                            }
+                            return entries.get(next++);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (next == 0) {
+                                throw new IllegalStateException();
+                            }
+                            RowCourses.this.remove(entries.get(next - 1).getKey());
+                        }
+                    };
+                }
+            };
+        }
+
+        private List<Map.Entry<String, String>> snapshot() {
+            return read(() -> {
+                CourseGradeMap changed = changedCourses.get(row);
+                List<Map.Entry<String, String>> entries = new ArrayList<>();
+                if (changed != null) {
+                    for (Map.Entry<String, String> entry : changed.entrySet()) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+                    }
+                } else {
+                    int start = enrollmentStart[row];
+                    for (int i = start; i < start + enrollmentCount[row]; i++) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(IdDictionary.COURSE_IDS.name(courseCodes[i]), grade(gradeCodes[i])));
+                    }
+                }
+                return entries;
+            });
+        }
+
+        private int indexOf(Object courseId) {
+            if (!(courseId instanceof String)) {
+                return -1;
+            }
+            int courseCode = IdDictionary.COURSE_IDS.lookup((String) courseId);
+            int start = enrollmentStart[row];
+            for (int i = start; courseCode >= 0 && i < start + enrollmentCount[row]; i++) {
+                if (courseCodes[i] == courseCode) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * The row's own CourseGradeMap, moving its enrollments into one first; the caller holds the write lock.
+         */
+        private CourseGradeMap changed() {
+            CourseGradeMap changed = changedCourses.get(row);
+            if (changed == null) {
+                changed = new CourseGradeMap(enrollmentCount[row]);
+                int start = enrollmentStart[row];
+                for (int i = start; i < start + enrollmentCount[row]; i++) {
+                    changed.put(IdDictionary.COURSE_IDS.name(courseCodes[i]), grade(gradeCodes[i]));
+                }
+                changedCourses.put(row, changed);
+            }
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package roles;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index from username to the users of one role, so a login is one lookup and one password
+ * check instead of a scan over every user.
+ *
+ * Usernames are expected to be unique, but the data files do not enforce it. When several users
+ * share a username they are kept in list order, and authenticate returns the first one whose
+ * password matches, exactly like the linear search it replaces.
+ *
+ * The index does not watch the users it holds: whoever adds, removes or renames a user must call
+ * add, remove or rename.
+ *
+ * @param <T> The user role indexed.
+ */
+public class UsernameIndex<T extends User> {
+    private final Map<String, T> firstByUsername = new HashMap<>();
+    // Users whose username was already taken, by username, in list order; empty for clean data
+    private final Map<String, List<T>> duplicatesByUsername = new HashMap<>();
+
+    public UsernameIndex() {
+    }
+
+    /**
+     * Creates an index over the given users.
+     *
+     * @param users The users, in list order.
+     */
+    public UsernameIndex(Collection<? extends T> users) {
+        rebuild(users);
+    }
+
+    /**
+     * Replaces the contents of the index.
+     *
+     * @param users The users, in list order.
+     */
+    public synchronized void rebuild(Collection<? extends T> users) {
+        firstByUsername.clear();
+        duplicatesByUsername.clear();
+        for (T user : users) {
+            add(user);
+        }
+    }
+
+    /**
+     * Adds a user after all users already indexed.
+     *
+     * @param user The user to add.
+     */
+    public synchronized void add(T user) {
+        T first = firstByUsername.putIfAbsent(user.getUsername(), user);
+        if (first != null) {
+            duplicatesByUsername.computeIfAbsent(user.getUsername(), username -> new ArrayList<>()).add(user);
+        }
+    }
+
+    /**
+     * Removes a user.
+     *
+     * @param user The user to remove, indexed under its current username.
+     */
+    public synchronized void remove(T user) {
+        remove(user, user.getUsername());
+    }
+
+    /**
+     * Moves a user whose username was just changed.
+     *
+     * @param user        The user, already carrying its new username.
+     * @param oldUsername The username it was indexed under.
+     */
+    public synchronized void rename(T user, String oldUsername) {
+        remove(user, oldUsername);
+        add(user);
+    }
+
+    private void remove(T user, String username) {
+        List<T> duplicates = duplicatesByUsername.get(username);
+        if (firstByUsername.get(username) == user) {
+            if (duplicates == null) {
+                firstByUsername.remove(username);
+                return;
+            }
+            firstByUsername.put(username, duplicates.remove(0));
+        } else if (duplicates != null) {
+            duplicates.remove(user);
+        }
+        if (duplicates != null && duplicates.isEmpty()) {
+            duplicatesByUsername.remove(username);
+        }
+    }
+
+    /**
+     * Finds the user to log in.
+     *
+     * @param username The username entered.
+     * @param password The password entered.
+     * @return The first user with this username and password, or null if there is none.
+     */
+    public synchronized T authenticate(String username, String password) {
+        T first = firstByUsername.get(username);
+        if (first == null) {
+            return null;
+        }
+        if (first.checkPassword(password)) {
+            return first;
+        }
+        List<T> duplicates = duplicatesByUsername.get(username);
+        if (duplicates != null) {
+            for (T user : duplicates) {
+                if (user.checkPassword(password)) {
+                    return user;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param username A username.
+     * @return true if a user with this username is indexed.
+     */
+    public synchronized boolean contains(String username) {
+        return firstByUsername.containsKey(username);
+    }
+
+    /**
+     * @return The number of users indexed.
+     */
+    public synchronized int size() {
+        int size = firstByUsername.size();
+        for (List<T> duplicates : duplicatesByUsername.values()) {
+            size += duplicates.size();
+        }
+        return size;
+    }
+}
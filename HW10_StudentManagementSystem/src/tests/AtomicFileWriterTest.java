@@ -0,0 +1,61 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import files.AtomicFileWriter;
+import files.AtomicFileWriter.Durability;
+
+class AtomicFileWriterTest {
+
+    private Path tempDir;
+    private Path target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("testAtomicFileWriter");
+        target = Files.write(tempDir.resolve("profinfo.txt"), List.of("Clayton Greenberg; 001; Greenberg; password590"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.walk(tempDir)
+             .sorted(Comparator.reverseOrder())
+             .map(Path::toFile)
+             .forEach(File::delete);
+    }
+
+    @Test
+    void testCommitReplacesFileInEveryMode() throws IOException {
+        for (Durability durability : Durability.values()) {
+            try (AtomicFileWriter file = new AtomicFileWriter(target.toString(), durability)) {
+                file.getWriter().write("Harry Smith; 002; Smith; " + durability);
+                file.getWriter().newLine();
+                file.commit();
+            }
+            assertEquals(List.of("Harry Smith; 002; Smith; " + durability), Files.readAllLines(target));
+        }
+        assertEquals(1, Files.list(tempDir).count(), "No temporary files should be left behind");
+    }
+
+    @Test
+    void testUncommittedWriteLeavesTargetUntouched() throws IOException {
+        try (AtomicFileWriter file = new AtomicFileWriter(target.toString(), Durability.NONE)) {
+            file.getWriter().write("partial");
+            file.getWriter().flush();
+            // Simulates a failure before commit
+        }
+        assertEquals(List.of("Clayton Greenberg; 001; Greenberg; password590"), Files.readAllLines(target));
+        assertEquals(1, Files.list(tempDir).count(), "The temporary file should be deleted");
+    }
+}
@@ -0,0 +1,50 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same work on several threads at once, for the concurrency tests.
+ */
+final class ConcurrentWorkers {
+    interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private ConcurrentWorkers() {
+    }
+
+    /**
+     * Starts the given number of threads, releases them together and waits for all of them,
+     * rethrowing the first failure.
+     *
+     * @param threads The number of threads.
+     * @param worker  The work of each thread, told its number from 0.
+     */
+    static void run(int threads, Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
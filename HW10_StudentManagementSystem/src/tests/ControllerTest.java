@@ -25,8 +25,8 @@ public class ControllerTest {
 
         // Set up mock data
         courses = new ArrayList<>();
-        courses.add(new Course("CIT591", "Introduction to Software Development", "Arvind Bhusnurmath", "MW", "12:00", "13:30", null, 120));
-        courses.add(new Course("CIT592", "Mathematical Foundations of Computer Science", "Clayton Greenberg", "TR", "10:00", "11:00", null, 72));
+        courses.add(new Course("CIT591", "Introduction to Software Development", "Arvind Bhusnurmath", "002", "MW", "12:00", "13:30", 120));
+        courses.add(new Course("CIT592", "Mathematical Foundations of Computer Science", "Clayton Greenberg", "001", "TR", "10:00", "11:00", 72));
 
         professors = new HashMap<>();
         professors.put("001", new Professor("001", "Clayton Greenberg", "Greenberg", "password590", new ArrayList<>()));
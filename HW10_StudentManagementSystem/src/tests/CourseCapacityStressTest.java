@@ -0,0 +1,74 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+
+class CourseCapacityStressTest {
+    private static final int THREADS = 16;
+    private static final int CAPACITY = 50;
+    private static final int STUDENTS = 400;
+
+    @Test
+    void testConcurrentAddsFillExactlyTheSeats() throws Exception {
+        Course course = new Course("CIT590", "Programming Languages", "Prof", "P1", "MW", "16:30", "18:00", CAPACITY);
+        AtomicInteger seated = new AtomicInteger();
+
+        ConcurrentWorkers.run(THREADS, thread -> {
+            // Every thread tries every student, so each seat is fought over by all threads
+            for (int i = 0; i < STUDENTS; i++) {
+                if (course.addStudent("S" + ((i + thread * 7) % STUDENTS))) {
+                    seated.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(CAPACITY, seated.get(), "Exactly one add per seat should succeed");
+        assertEquals(CAPACITY, course.getCurrentEnrollment());
+        assertEquals(CAPACITY, new HashSet<>(course.getRosterSnapshot()).size(), "No student should be seated twice");
+    }
+
+    @Test
+    void testNeverExceedsCapacityUnderAddsAndDrops() throws Exception {
+        Course course = new Course("CIT591", "Intro", "Prof", "P1", "TR", "9:00", "10:30", CAPACITY);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger largestSeen = new AtomicInteger();
+        Thread observer = new Thread(() -> {
+            while (running.get()) {
+                largestSeen.accumulateAndGet(course.getRosterSnapshot().size(), Math::max);
+            }
+        });
+        observer.start();
+        AtomicInteger net = new AtomicInteger();
+
+        try {
+            ConcurrentWorkers.run(THREADS, thread -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    String studentId = "S" + random.nextInt(STUDENTS);
+                    if (random.nextBoolean()) {
+                        if (course.addStudent(studentId)) {
+                            net.incrementAndGet();
+                        }
+                    } else if (course.removeStudent(studentId)) {
+                        net.decrementAndGet();
+                    }
+                }
+            });
+        } finally {
+            running.set(false);
+            observer.join();
+        }
+
+        assertTrue(largestSeen.get() <= CAPACITY, "Roster grew to " + largestSeen.get());
+        assertEquals(net.get(), course.getCurrentEnrollment(), "Every successful add and drop should be counted once");
+        assertEquals(course.getCurrentEnrollment(), new HashSet<>(course.getRosterSnapshot()).size());
+    }
+}
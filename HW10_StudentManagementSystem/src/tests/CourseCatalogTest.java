@@ -0,0 +1,59 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import courses.CourseCatalog;
+
+class CourseCatalogTest {
+
+    private Course cit591;
+    private Course cit592;
+    private CourseCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        cit591 = new Course("CIT591", "Introduction to Software Development", "Arvind Bhusnurmath", "002", "MW", "12:00", "13:30", 120);
+        cit592 = new Course("CIT592", "Mathematical Foundations of Computer Science", "Clayton Greenberg", "001", "TR", "10:00", "11:00", 72);
+        catalog = new CourseCatalog(List.of(cit591, cit592));
+    }
+
+    @Test
+    void testFindByIdFollowsAddAndRemove() {
+        assertSame(cit592, catalog.findById("CIT592"));
+        assertNull(catalog.findById("CIT593"));
+
+        Course cit593 = new Course("CIT593", "Introduction to Computer Systems", "Clayton Greenberg", "001", "MW", "14:00", "15:30", 80);
+        catalog.add(cit593);
+        assertSame(cit593, catalog.findById("CIT593"));
+
+        catalog.remove(cit591);
+        assertFalse(catalog.containsId("CIT591"));
+        assertEquals(List.of(cit592, cit593), catalog);
+
+        catalog.clear();
+        assertNull(catalog.findById("CIT592"));
+    }
+
+    @Test
+    void testDuplicateIdsResolveToFirstInOrder() {
+        Course duplicate = new Course("CIT591", "Duplicate", "Harry Smith", "003", "F", "09:00", "10:00", 10);
+        catalog.add(duplicate);
+        assertSame(cit591, catalog.findById("CIT591"));
+
+        catalog.remove(cit591);
+        assertSame(duplicate, catalog.findById("CIT591"), "The next course with the same ID should take over");
+    }
+
+    @Test
+    void testChangeCourseIdMovesIndexEntry() {
+        catalog.changeCourseId(cit591, "CIT594");
+        assertNull(catalog.findById("CIT591"));
+        assertSame(cit591, catalog.findById("CIT594"));
+    }
+}
@@ -0,0 +1,77 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import courses.CourseGradeMap;
+import courses.Grade;
+
+class CourseGradeMapTest {
+
+    @Test
+    void testBehavesLikeHashMap() {
+        Map<String, String> expected = new HashMap<>();
+        expected.put("CIT592", "A");
+        expected.put("CIT593", "Not Graded");
+
+        Map<String, String> courses = new CourseGradeMap(expected);
+        assertEquals(expected, courses);
+        assertEquals(expected.hashCode(), courses.hashCode());
+
+        assertEquals("Not Graded", courses.put("CIT593", "B+"));
+        assertEquals("B+", courses.get("CIT593"));
+        assertNull(courses.get("NEVER-SEEN"));
+        assertEquals("A", courses.remove("CIT592"));
+        assertEquals(Map.of("CIT593", "B+"), courses);
+    }
+
+    @Test
+    void testKeepsInsertionOrderAndWritesThroughEntries() {
+        Map<String, String> courses = new CourseGradeMap();
+        courses.put("CIS191", "A");
+        courses.put("CIT590", "Not Graded");
+        courses.put("CIS320", "B");
+        assertEquals(List.of("CIS191", "CIT590", "CIS320"), List.copyOf(courses.keySet()));
+
+        for (Map.Entry<String, String> entry : courses.entrySet()) {
+            if (entry.getKey().equals("CIT590")) {
+                entry.setValue("A-");
+            }
+        }
+        assertEquals("A-", courses.get("CIT590"));
+
+        Iterator<String> keys = courses.keySet().iterator();
+        keys.next();
+        keys.remove();
+        assertEquals(List.of("CIT590", "CIS320"), List.copyOf(courses.keySet()));
+    }
+
+    @Test
+    void testKeepsGpaTotalsAndUnknownGradesThroughChanges() {
+        CourseGradeMap courses = new CourseGradeMap(1);
+        courses.put("CIT591", "A");
+        courses.put("CIT592", "Pass");
+        courses.put("CIT593", "Not Graded");
+        courses.put("CIT594", "B");
+        assertEquals(2, courses.getGpaCourseCount());
+        assertEquals(700, courses.getGradePoints());
+        assertEquals("Pass", courses.get("CIT592"));
+        assertNull(courses.getGrade("CIT592"));
+
+        courses.put("CIT593", "A-");
+        courses.remove("CIT592");
+        assertEquals(Map.of("CIT591", "A", "CIT593", "A-", "CIT594", "B"), courses);
+        assertEquals(Grade.A_MINUS, courses.getGrade("CIT593"));
+        assertEquals((400 + 370 + 300) / 300.0, courses.getGpa(), 1e-9);
+
+        courses.clear();
+        assertEquals(0, courses.getGpaCourseCount());
+        assertEquals(0, courses.getGpa());
+    }
+}
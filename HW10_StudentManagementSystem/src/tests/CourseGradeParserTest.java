@@ -0,0 +1,37 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import files.CourseGradeParser;
+
+class CourseGradeParserTest {
+
+    @Test
+    void testParsesAndTrimsEntries() {
+        Map<String, String> courses = CourseGradeParser.parse(" CIS191: A, CIS320:A-,CIS111: Not Graded ");
+        assertEquals(3, courses.size());
+        assertEquals("A", courses.get("CIS191"));
+        assertEquals("A-", courses.get("CIS320"));
+        assertEquals("Not Graded", courses.get("CIS111"));
+    }
+
+    @Test
+    void testSkipsMalformedEntriesLikeSplit() {
+        // No colon, two colons and a missing grade are skipped; an empty column gives an empty map
+        Map<String, String> courses = CourseGradeParser.parse("CIT590, CIT591: A: B, CIT592:, CIT593: B+");
+        assertEquals(Map.of("CIT593", "B+"), courses);
+        assertTrue(CourseGradeParser.parse("").isEmpty());
+    }
+
+    @Test
+    void testResultIsMutable() {
+        Map<String, String> courses = CourseGradeParser.parse("CIT592: A");
+        courses.put("CIT593", "Not Graded");
+        courses.remove("CIT592");
+        assertEquals(Map.of("CIT593", "Not Graded"), courses);
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 import courses.Course;
 
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 class CourseTest {
 
@@ -135,6 +138,35 @@ class CourseTest {
         assertTrue(enrolledStudents.contains(studentId), "Enrolled students should contain the added student ID");
     }
 
+    @Test
+    void testRosterSnapshotIsSharedAndStable() {
+        course.enrollStudent("12345");
+        List<String> snapshot = course.getRosterSnapshot();
+        assertSame(snapshot, course.getRosterSnapshot(), "An unchanged roster should hand out the same snapshot");
+
+        course.enrollStudent("67890");
+        assertEquals(List.of("12345"), snapshot, "A snapshot should not see later enrollments");
+        assertEquals(Set.of("12345", "67890"), new HashSet<>(course.getRosterSnapshot()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add("11111"));
+    }
+
+    @Test
+    void testRosterViewIsReadOnlyAndIteratesASnapshot() {
+        Set<String> roster = course.getRoster();
+        course.enrollStudent("12345");
+        assertEquals(1, roster.size());
+        assertTrue(roster.contains("12345"));
+
+        Iterator<String> iterator = roster.iterator();
+        course.enrollStudent("67890");
+        course.removeStudent("12345");
+        assertEquals("12345", iterator.next(), "An iterator should walk the roster as it was when created");
+        assertFalse(iterator.hasNext());
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+        assertThrows(UnsupportedOperationException.class, () -> roster.add("11111"));
+        assertEquals(Set.of("67890"), roster);
+    }
+
     @Test
     void testIsStudentEnrolled() {
         String studentId = "12345";
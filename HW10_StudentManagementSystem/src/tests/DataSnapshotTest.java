@@ -0,0 +1,115 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import files.DataSnapshot;
+import files.FileChangeTracker.FileStamp;
+import roles.Admin;
+import roles.Professor;
+import roles.Student;
+
+class DataSnapshotTest {
+
+    private Path tempDir;
+    private Path studentInfoPath;
+    private String snapshotPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("testDataSnapshot");
+        studentInfoPath = Files.write(tempDir.resolve("studentinfo.txt"), List.of("001; Student One; student01; password590; CIT592: A"));
+        snapshotPath = tempDir.resolve("data.snapshot").toString();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.walk(tempDir)
+             .sorted(Comparator.reverseOrder())
+             .map(Path::toFile)
+             .forEach(File::delete);
+    }
+
+    private DataSnapshot createSnapshot() {
+        List<Course> courses = new ArrayList<>();
+        courses.add(new Course("CIT592", " Mathematical Foundations", "Clayton Greenberg", null, " TR", " 10:00", " 11:00", 72));
+
+        Map<String, String> grades = new HashMap<>();
+        grades.put("CIT592", "A");
+        grades.put("CIT593", "Not Graded");
+        List<Student> students = new ArrayList<>();
+        students.add(new Student("001", "Student One", "student01", "password590", grades));
+        students.add(new Student("002", "Zo\u00eb \u00dcnicode", "student02", "password590", new HashMap<>()));
+
+        List<Professor> professors = new ArrayList<>();
+        professors.add(new Professor("001", "Clayton Greenberg", "Greenberg", "password590", new ArrayList<>()));
+        List<Admin> admins = new ArrayList<>();
+        admins.add(new Admin("001", "admin", "admin01", "password590"));
+
+        Map<String, FileStamp> stamps = new LinkedHashMap<>();
+        stamps.put(studentInfoPath.toString(), FileStamp.of(studentInfoPath.toString()));
+        return new DataSnapshot(courses, students, professors, admins, stamps);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        createSnapshot().write(snapshotPath);
+
+        DataSnapshot snapshot = DataSnapshot.readIfFresh(snapshotPath);
+
+        assertNotNull(snapshot, "A snapshot whose source files are unchanged should be read");
+        Course course = snapshot.getCourses().get(0);
+        assertEquals("CIT592", course.getCourseId());
+        assertEquals(" Mathematical Foundations", course.getCourseName(), "Values should round-trip untouched");
+        assertNull(course.getProfessorId(), "Null values should round-trip");
+        assertEquals(72, course.getCapacity());
+
+        assertEquals(2, snapshot.getStudents().size());
+        assertEquals("Not Graded", snapshot.getStudents().get(0).getCourses().get("CIT593"));
+        assertEquals("Zo\u00eb \u00dcnicode", snapshot.getStudents().get(1).getName());
+        assertEquals("Clayton Greenberg", snapshot.getProfessors().get(0).getName());
+        assertEquals("admin01", snapshot.getAdmins().get(0).getUsername());
+    }
+
+    @Test
+    void testStaleSnapshotIsIgnored() throws IOException {
+        createSnapshot().write(snapshotPath);
+
+        Files.write(studentInfoPath, List.of("001; Student One; student01; password590; CIT592: A, CIT593: B"));
+        Files.setLastModifiedTime(studentInfoPath, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertNull(DataSnapshot.readIfFresh(snapshotPath), "A snapshot should be ignored once a source file changed");
+    }
+
+    @Test
+    void testMissingSnapshot() throws IOException {
+        assertNull(DataSnapshot.readIfFresh(snapshotPath));
+    }
+
+    @Test
+    void testCorruptSnapshotIsReported() throws IOException {
+        createSnapshot().write(snapshotPath);
+        byte[] bytes = Files.readAllBytes(Path.of(snapshotPath));
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(Path.of(snapshotPath), truncated);
+
+        assertThrows(IOException.class, () -> DataSnapshot.readIfFresh(snapshotPath));
+    }
+}
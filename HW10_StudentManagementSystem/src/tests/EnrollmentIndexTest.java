@@ -0,0 +1,161 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import courses.CourseCatalog;
+import courses.EnrollmentIndex;
+import roles.Student;
+
+class EnrollmentIndexTest {
+
+    private Course cit591;
+    private Course cit592;
+    private CourseCatalog catalog;
+    private EnrollmentIndex enrollments;
+    private Student alice;
+    private Student bob;
+
+    @BeforeEach
+    void setUp() {
+        cit591 = new Course("CIT591", "Introduction to Software Development", "Arvind Bhusnurmath", "002", "MW", "12:00", "13:30", 1);
+        cit592 = new Course("CIT592", "Mathematical Foundations of Computer Science", "Clayton Greenberg", "001", "TR", "10:00", "11:00", 72);
+        catalog = new CourseCatalog(List.of(cit591, cit592));
+        enrollments = catalog.getEnrollments();
+
+        Map<String, String> aliceCourses = new HashMap<>();
+        aliceCourses.put("CIT592", "A");
+        alice = new Student("S001", "Alice", "alice", "password590", aliceCourses);
+        bob = new Student("S002", "Bob", "bob", "password590", new HashMap<>());
+    }
+
+    @Test
+    void testEnrollAndDropUpdateBothDirections() {
+        assertTrue(enrollments.enroll(bob, cit591, "Not Graded"));
+        assertEquals(List.of(bob), enrollments.getStudents(cit591));
+        assertEquals(List.of(cit591), enrollments.getCourses(bob));
+        assertEquals("Not Graded", bob.getCourses().get("CIT591"));
+        assertTrue(cit591.getEnrolledStudents().contains("S002"));
+
+        assertFalse(enrollments.enroll(alice, cit591, "Not Graded"), "The only seat is taken");
+        assertFalse(alice.getCourses().containsKey("CIT591"));
+
+        List<Student> roster = enrollments.getStudents(cit591);
+        assertSame(roster, enrollments.getStudents(cit591), "An unchanged roster should not be copied again");
+
+        assertTrue(enrollments.drop(bob, cit591));
+        assertEquals(List.of(bob), roster, "A roster handed out earlier should not change");
+        assertTrue(enrollments.getStudents(cit591).isEmpty());
+        assertTrue(enrollments.getCourses(bob).isEmpty());
+        assertFalse(bob.getCourses().containsKey("CIT591"));
+        assertEquals(0, cit591.getCurrentEnrollment());
+    }
+
+    @Test
+    void testLinkAllFollowsStudentRecords() {
+        enrollments.linkAll(catalog, List.of(alice, bob));
+        assertEquals(List.of(alice), enrollments.getStudents(cit592));
+        assertEquals(List.of(cit592), enrollments.getCourses(alice));
+        assertEquals("A", alice.getCourses().get("CIT592"), "Linking must not touch grades");
+        assertTrue(enrollments.tracks(cit592));
+        assertFalse(enrollments.tracks(cit591));
+    }
+
+    @Test
+    void testUnlinkStudentFreesEverySeat() {
+        enrollments.linkAll(catalog, List.of(alice));
+        enrollments.enroll(alice, cit591, "Not Graded");
+
+        enrollments.unlinkStudent(alice);
+        assertEquals(0, cit591.getCurrentEnrollment());
+        assertEquals(0, cit592.getCurrentEnrollment());
+        assertTrue(enrollments.getStudents(cit592).isEmpty());
+        assertTrue(enrollments.getCourses(alice).isEmpty());
+    }
+
+    @Test
+    void testSwapKeepsTheOldSeatWhenTheNewCourseIsFull() {
+        enrollments.linkAll(catalog, List.of(alice));
+        enrollments.enroll(bob, cit591, "Not Graded");
+
+        assertFalse(enrollments.swap(alice, cit592, cit591, "Not Graded"), "CIT591's only seat is taken");
+        assertEquals(List.of(cit592), enrollments.getCourses(alice));
+        assertEquals("A", alice.getCourses().get("CIT592"));
+
+        enrollments.drop(bob, cit591);
+        assertTrue(enrollments.swap(alice, cit592, cit591, "Not Graded"));
+        assertEquals(List.of(cit591), enrollments.getCourses(alice));
+        assertEquals(Map.of("CIT591", "Not Graded"), alice.getCourses());
+        assertEquals(0, cit592.getCurrentEnrollment());
+        assertTrue(enrollments.getStudents(cit592).isEmpty());
+    }
+
+    @Test
+    void testDropPromotesTheFirstInLine() {
+        Student carol = new Student("S003", "Carol", "carol", "password590", new HashMap<>());
+        assertTrue(enrollments.enroll(bob, cit591, "Not Graded"));
+        assertEquals(1, enrollments.joinWaitlist(alice, cit591));
+        assertEquals(2, enrollments.joinWaitlist(carol, cit591));
+        assertEquals(0, enrollments.joinWaitlist(carol, cit591), "Already waiting");
+        assertEquals(0, enrollments.joinWaitlist(bob, cit591), "Already enrolled");
+
+        List<String> promoted = new ArrayList<>();
+        enrollments.setPromotionListener((student, course) -> promoted.add(student.getId() + " " + course.getCourseId()));
+        assertTrue(enrollments.drop(bob, cit591));
+        assertEquals(List.of("S001 CIT591"), promoted);
+        assertEquals(List.of(alice), enrollments.getStudents(cit591));
+        assertEquals("Not Graded", alice.getCourses().get("CIT591"));
+        assertEquals(List.of(), enrollments.getWaitlistedCourses(alice));
+        assertEquals(1, enrollments.getWaitlistPosition(carol, cit591));
+
+        assertFalse(enrollments.enroll(bob, cit591, "Not Graded"), "A newcomer cannot pass the line");
+        assertTrue(enrollments.leaveWaitlist(carol, cit591));
+        assertEquals(0, enrollments.getWaitlistSize(cit591));
+        assertTrue(enrollments.drop(alice, cit591));
+        assertEquals(List.of("S001 CIT591"), promoted, "No one was left waiting");
+        assertTrue(enrollments.enroll(bob, cit591, "Not Graded"));
+    }
+
+    @Test
+    void testPromotionSkipsStudentsWithAConflict() {
+        Course cis120 = new Course("CIS120", "Programming Languages and Techniques I", "Swapneel Sheth", "004", "MW", "12:30", "13:30", 10);
+        Student carol = new Student("S003", "Carol", "carol", "password590", new HashMap<>());
+        assertTrue(enrollments.enroll(bob, cit591, "Not Graded"));
+        enrollments.joinWaitlist(alice, cit591);
+        enrollments.joinWaitlist(carol, cit591);
+        assertTrue(enrollments.enroll(alice, cis120, "Not Graded"), "Alice took a course at the same time meanwhile");
+
+        enrollments.drop(bob, cit591);
+        assertEquals(List.of(carol), enrollments.getStudents(cit591));
+        assertFalse(alice.getCourses().containsKey("CIT591"));
+        assertEquals(0, enrollments.getWaitlistSize(cit591));
+    }
+
+    @Test
+    void testRaisingTheCapacitySeatsTheWaiters() {
+        Student carol = new Student("S003", "Carol", "carol", "password590", new HashMap<>());
+        Student dave = new Student("S004", "Dave", "dave", "password590", new HashMap<>());
+        assertTrue(enrollments.enroll(bob, cit591, "Not Graded"));
+        enrollments.joinWaitlist(alice, cit591);
+        enrollments.joinWaitlist(carol, cit591);
+        enrollments.joinWaitlist(dave, cit591);
+
+        cit591.setCapacity(3);
+        enrollments.fillFreeSeats(cit591);
+        assertEquals(List.of(bob, alice, carol), enrollments.getStudents(cit591));
+        assertEquals("Not Graded", carol.getCourses().get("CIT591"));
+        assertEquals(1, enrollments.getWaitlistPosition(dave, cit591), "Only the new seats are handed out");
+
+        enrollments.fillFreeSeats(cit591);
+        assertEquals(3, cit591.getCurrentEnrollment(), "No seat is free");
+        assertEquals(1, enrollments.getWaitlistSize(cit591));
+    }
+}
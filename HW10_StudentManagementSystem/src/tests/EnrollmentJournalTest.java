@@ -0,0 +1,82 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import files.EnrollmentJournal;
+import files.EnrollmentJournal.Event;
+import roles.Student;
+
+class EnrollmentJournalTest {
+
+    private Path tempDir;
+    private EnrollmentJournal journal;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("testEnrollmentJournal");
+        journal = new EnrollmentJournal(tempDir.resolve("studentinfo.journal").toString(), 3);
+
+        Map<String, String> courses = new HashMap<>();
+        courses.put("CIS191", "A");
+        students = new ArrayList<>();
+        students.add(new Student("001", "StudentName1", "testStudent01", "password590", courses));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.walk(tempDir)
+             .sorted(Comparator.reverseOrder())
+             .map(Path::toFile)
+             .forEach(File::delete);
+    }
+
+    @Test
+    void testReplayAppliesEntriesInOrder() throws IOException {
+        journal.append(Event.ADD, "001", "CIT590", "Not Graded");
+        journal.append(Event.DROP, "001", "CIS191", null);
+        journal.append(Event.GRADE, "001", "CIT590", "B+");
+
+        assertEquals(3, journal.replay(students));
+        Map<String, String> courses = students.get(0).getCourses();
+        assertEquals(1, courses.size());
+        assertEquals("B+", courses.get("CIT590"));
+    }
+
+    @Test
+    void testReplayIsIdempotent() throws IOException {
+        journal.append(Event.ADD, "001", "CIT590", "Not Graded");
+        journal.replay(students);
+        journal.replay(students);
+        assertEquals(2, students.get(0).getCourses().size(), "Replaying twice should not change the result");
+    }
+
+    @Test
+    void testCompactTruncatesOnlyAfterSuccessfulRewrite() throws IOException {
+        journal.append(Event.ADD, "001", "CIT590", "Not Graded");
+        journal.append(Event.ADD, "001", "CIT591", "Not Graded");
+        journal.append(Event.ADD, "001", "CIT592", "Not Graded");
+        assertTrue(journal.needsCompaction());
+
+        assertFalse(journal.compact(() -> false));
+        assertEquals(3, journal.size(), "A failed rewrite should leave the journal intact");
+
+        assertTrue(journal.compact(() -> true));
+        assertEquals(0, journal.size());
+        assertEquals(0, Files.size(tempDir.resolve("studentinfo.journal")));
+    }
+}
@@ -0,0 +1,62 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import files.FileChangeTracker;
+
+class FileChangeTrackerTest {
+
+    private Path tempDir;
+    private FileChangeTracker tracker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("testFileChangeTracker");
+        tracker = new FileChangeTracker();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.walk(tempDir)
+             .sorted(Comparator.reverseOrder())
+             .map(Path::toFile)
+             .forEach(File::delete);
+    }
+
+    @Test
+    void testUnseenFileCountsAsChanged() throws IOException {
+        Path file = Files.write(tempDir.resolve("adminInfo.txt"), List.of("001; admin; admin01; password590"));
+        assertTrue(tracker.hasChanged(file.toString()), "A file that was never marked as seen should count as changed");
+    }
+
+    @Test
+    void testUnchangedFileIsNotReported() throws IOException {
+        Path file = Files.write(tempDir.resolve("adminInfo.txt"), List.of("001; admin; admin01; password590"));
+        tracker.markSeen(file.toString());
+        assertFalse(tracker.hasChanged(file.toString()), "An untouched file should not be reported as changed");
+        assertNull(tracker.changedStamp(file.toString()));
+    }
+
+    @Test
+    void testRewrittenFileIsReported() throws IOException {
+        Path file = Files.write(tempDir.resolve("adminInfo.txt"), List.of("001; admin; admin01; password590"));
+        tracker.markSeen(file.toString());
+
+        Files.write(file, List.of("001; admin; admin01; password590", "002; admin; admin02; password590"));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertTrue(tracker.hasChanged(file.toString()), "A rewritten file should be reported as changed");
+    }
+}
@@ -11,6 +11,8 @@ import java.io.*;
 import java.nio.file.*;
 import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -158,5 +160,108 @@ public class FileInfoReaderTest {
         assertEquals("A001", admins.get(0).getId());
     }
 
+    @Test
+    void testMappedModeMatchesBufferedMode() throws IOException {
+        Path courseInfoPath = Files.createFile(tempDir.resolve("courseInfo.txt"));
+        Path studentInfoPath = Files.createFile(tempDir.resolve("studentInfo.txt"));
+        Path profInfoPath = Files.createFile(tempDir.resolve("profInfo.txt"));
+        Path adminInfoPath = Files.createFile(tempDir.resolve("adminInfo.txt"));
+        Files.write(courseInfoPath, List.of(
+                "CIT590; Programming Languages and Techniques; Brandon L Krakowsky; MW; 16:30; 18:00; 110",
+                "CIT592; Mathematical Foundations; Unknown Professor; TR; 10:00; 11:00; 72",
+                "malformed line"
+        ));
+        Files.write(studentInfoPath, List.of(
+                "001; New Studentname1; nteststudent01; password590; CIS191: A, CIS320: A, CIS111: Not Graded",
+                "002; Nstudentname2; testStudent02; password590; CIT592: A, CIT593: A-",
+                "003; Too Short; short03"
+        ));
+        Files.write(profInfoPath, List.of(
+                "Brandon L Krakowsky; 001; Krakowsky; password590",
+                "Harry Smith; 002; Smith; password590"
+        ));
+        Files.write(adminInfoPath, List.of("001; admin; admin01; password590"));
+
+        FileInfoReader buffered = new FileInfoReader(courseInfoPath.toString(), studentInfoPath.toString(),
+                profInfoPath.toString(), adminInfoPath.toString(), FileInfoReader.ReadMode.BUFFERED);
+        FileInfoReader mapped = new FileInfoReader(courseInfoPath.toString(), studentInfoPath.toString(),
+                profInfoPath.toString(), adminInfoPath.toString(), FileInfoReader.ReadMode.MAPPED);
+
+        List<Course> bufferedCourses = buffered.readCourseInfo();
+        List<Course> mappedCourses = mapped.readCourseInfo();
+        assertEquals(1, mappedCourses.size());
+        assertEquals(bufferedCourses.get(0).toString(), mappedCourses.get(0).toString());
+        assertEquals(bufferedCourses.get(0).getCourseName(), mappedCourses.get(0).getCourseName());
+        assertEquals("001", mappedCourses.get(0).getProfessorId());
+        assertEquals(110, mappedCourses.get(0).getCapacity());
+
+        List<Student> bufferedStudents = buffered.readStudentInfo();
+        List<Student> mappedStudents = mapped.readStudentInfo();
+        assertEquals(2, mappedStudents.size());
+        for (int i = 0; i < bufferedStudents.size(); i++) {
+            assertEquals(bufferedStudents.get(i).getId(), mappedStudents.get(i).getId());
+            assertEquals(bufferedStudents.get(i).getName(), mappedStudents.get(i).getName());
+            assertEquals(bufferedStudents.get(i).getPassword(), mappedStudents.get(i).getPassword());
+            assertEquals(bufferedStudents.get(i).getCourses(), mappedStudents.get(i).getCourses());
+        }
+        assertEquals("A-", mappedStudents.get(1).getCourses().get("CIT593"));
+
+        List<Professor> mappedProfessors = mapped.readProfInfo();
+        assertEquals(buffered.readProfInfo().get(1).getName(), mappedProfessors.get(1).getName());
+        assertEquals("Harry Smith", mappedProfessors.get(1).getName());
+        assertEquals("002", mappedProfessors.get(1).getId());
+
+        List<Admin> mappedAdmins = mapped.readAdminInfo();
+        assertEquals(1, mappedAdmins.size());
+        assertEquals("admin01", mappedAdmins.get(0).getUsername());
+    }
+
+    @Test
+    void testMappedModeHandlesCrLfAndMissingTrailingNewline() throws IOException {
+        Path adminInfoPath = tempDir.resolve("adminInfo.txt");
+        Files.write(adminInfoPath, "A001;Admin One;admin1;adminpass1\r\nA002;Admin Two;admin2;adminpass2".getBytes());
+
+        FileInfoReader fileInfoReader = new FileInfoReader("", "", "", adminInfoPath.toString(), FileInfoReader.ReadMode.MAPPED);
+        List<Admin> admins = fileInfoReader.readAdminInfo();
+
+        assertEquals(2, admins.size());
+        assertEquals("adminpass1", admins.get(0).getPassword());
+        assertEquals("adminpass2", admins.get(1).getPassword());
+    }
+
+    @Test
+    void testStreamAndVisitStudents() throws IOException {
+        Path studentInfoPath = Files.createFile(tempDir.resolve("studentInfo.txt"));
+        Files.write(studentInfoPath, List.of(
+                "S001;John Student;studentj;pass123;CIS101:A,CIS102:B",
+                "S002;Too Short;short02",
+                "S003;Jane Learner;learnerj;pass456;CIS101:B"
+        ));
+
+        for (FileInfoReader.ReadMode mode : FileInfoReader.ReadMode.values()) {
+            FileInfoReader fileInfoReader = new FileInfoReader("", studentInfoPath.toString(), "", "", mode);
+
+            try (Stream<Student> students = fileInfoReader.streamStudents()) {
+                assertEquals(List.of("S001", "S003"), students.map(Student::getId).collect(Collectors.toList()));
+            }
+
+            // Returning false from the visitor stops the scan after the first student
+            int visited = fileInfoReader.visitStudents(student -> false);
+            assertEquals(1, visited);
+
+            // The raw view passes malformed lines on and only decodes the columns asked for
+            int[] shortLines = new int[1];
+            int lines = fileInfoReader.visitRecords(FileInfoReader.DataFile.STUDENTS, record -> {
+                if (record.fieldCount() < 5) {
+                    shortLines[0]++;
+                    assertEquals("short02", record.field(2));
+                }
+                return true;
+            });
+            assertEquals(3, lines);
+            assertEquals(1, shortLines[0]);
+        }
+    }
+
     // Additional tests for readStudentInfo, readProfInfo, readAdminInfo
 }
@@ -0,0 +1,56 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import courses.Grade;
+import roles.Student;
+import roles.StudentStore;
+
+class GradeTest {
+
+    @Test
+    void testParsesLabelsAndRoundTripsCodes() {
+        assertEquals(Grade.A_MINUS, Grade.parse("A-"));
+        assertEquals(Grade.NOT_GRADED, Grade.parse("Not Graded"));
+        assertNull(Grade.parse("Pass"));
+        assertNull(Grade.parse(null));
+        for (Grade grade : Grade.values()) {
+            assertEquals(grade, Grade.ofCode(grade.getCode()));
+            assertEquals(grade, Grade.parse(grade.getLabel()));
+        }
+        assertFalse(Grade.NOT_GRADED.countsTowardGpa());
+        assertEquals(370, Grade.A_MINUS.getPoints());
+    }
+
+    @Test
+    void testHonorRollUsesGpaOfObjectAndColumnarStudents() {
+        Map<String, String> strong = new HashMap<>();
+        strong.put("CIT591", "A");
+        strong.put("CIT592", "A-");
+        strong.put("CIT593", "Not Graded");
+        Map<String, String> weak = new HashMap<>();
+        weak.put("CIT591", "C");
+        weak.put("CIT594", "Pass");
+        Student one = new Student("001", "One", "one", "pw", strong);
+        Student two = new Student("002", "Two", "two", "pw", weak);
+        Student none = new Student("003", "Three", "three", "pw", Map.of("CIT593", "Not Graded"));
+
+        assertEquals(3.85, one.getGpa(), 1e-9);
+        assertEquals(2, one.getGpaCourseCount());
+        assertEquals(0, none.getGpaCourseCount());
+        assertEquals(List.of(one), Student.honorRoll(List.of(two, none, one), 3.5));
+
+        List<Student> columnar = StudentStore.listOf(List.of(one, two, none));
+        assertEquals(3.85, columnar.get(0).getGpa(), 1e-9);
+        assertEquals(2.0, columnar.get(1).getGpa(), 1e-9);
+        columnar.get(0).getCourses().put("CIT593", "B");
+        assertEquals(3, columnar.get(0).getGpaCourseCount());
+        assertEquals(List.of(one, two), Student.honorRoll(columnar, 2.0));
+    }
+}
@@ -0,0 +1,48 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import courses.IntSet;
+
+class IntSetTest {
+
+    @Test
+    void testAddRemoveContains() {
+        IntSet set = new IntSet();
+        assertTrue(set.add(7));
+        assertFalse(set.add(7), "Adding the same value twice should return false");
+        assertTrue(set.contains(7));
+        assertFalse(set.contains(8));
+        assertTrue(set.remove(7));
+        assertFalse(set.remove(7));
+        assertTrue(set.isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> set.add(-1));
+    }
+
+    @Test
+    void testMatchesHashSetUnderRandomChurn() {
+        // Removal shifts probe runs back, so mix adds and removes heavily to exercise it
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), values);
+    }
+}
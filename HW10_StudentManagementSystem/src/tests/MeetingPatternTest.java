@@ -0,0 +1,41 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import courses.MeetingPattern;
+
+class MeetingPatternTest {
+
+    @Test
+    void testParsesDaysAndTimes() {
+        MeetingPattern pattern = MeetingPattern.parse(" TR", " 9:00", "10:30 ");
+        assertEquals(0b0001010, pattern.getDayMask());
+        assertEquals(9 * 60, pattern.getStartMinute());
+        assertEquals(10 * 60 + 30, pattern.getEndMinute());
+        assertEquals(0b0010101, MeetingPattern.parseDays("MWF"));
+        assertEquals(MeetingPattern.parseDays("TR"), MeetingPattern.parseDays("TTh"));
+    }
+
+    @Test
+    void testRejectsMalformedInput() {
+        for (String time : new String[] {"", "9", "9:0", "24:00", "12:60", "ab:cd", "1200", "12:00pm", "-1:30"}) {
+            assertThrows(IllegalArgumentException.class, () -> MeetingPattern.parseTime(time), time);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MeetingPattern.parseDays("Mon"));
+        assertThrows(IllegalArgumentException.class, () -> MeetingPattern.parseDays("  "));
+        assertThrows(IllegalArgumentException.class, () -> new Course("CIS101", "Intro", "Dr. Smith", "", "MWF", "10:00", "11", 30));
+    }
+
+    @Test
+    void testSetterRejectsMalformedTimeAndKeepsCourse() {
+        Course course = new Course("CIS101", "Intro", "Dr. Smith", "", "MWF", "10:00", "11:00", 30);
+        Course overlapping = new Course("CIS102", "Data Structures", "Dr. Smith", "", "F", "10:30", "11:30", 30);
+        assertThrows(IllegalArgumentException.class, () -> course.setStartTime("10h00"));
+        assertEquals("10:00", course.getStartTime());
+        assertTrue(course.hasTimeConflict(overlapping));
+        assertTrue(course.hasTimeConflict(overlapping.getMeetingPattern()));
+    }
+}
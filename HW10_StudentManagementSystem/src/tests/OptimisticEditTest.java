@@ -0,0 +1,134 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+import roles.Admin;
+import roles.Student;
+
+class OptimisticEditTest {
+
+    @TempDir
+    Path dir;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private EnrollmentJournal originalJournal;
+    private CourseCatalog catalog;
+    private List<Student> students;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        originalJournal = Student.getEnrollmentJournal();
+        // A large threshold keeps the journal from being compacted into src/studentinfo.txt
+        Student.setEnrollmentJournal(new EnrollmentJournal(dir.resolve("students.journal").toString(), Integer.MAX_VALUE));
+        System.setOut(new PrintStream(output));
+
+        catalog = new CourseCatalog(List.of(
+                new Course("CIT591", "Software Development", "Prof", "P1", "MW", "9:00", "10:30", 10),
+                new Course("CIT592", "Mathematical Foundations", "Prof", "P1", "TR", "9:00", "10:30", 10),
+                new Course("CIT593", "Computer Systems", "Prof", "P1", "F", "9:00", "10:30", 10)));
+        Map<String, String> courses = new HashMap<>();
+        courses.put("CIT591", "Not Graded");
+        courses.put("CIT592", "Not Graded");
+        student = new Student("S1", "Student", "student", "pw", courses);
+        students = new ArrayList<>(List.of(student));
+        catalog.getEnrollments().linkAll(catalog, students);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Student.setEnrollmentJournal(originalJournal);
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void testAdminGradesAndStudentRegistrationsDoNotOverwriteEachOther() {
+        Admin admin = new Admin("admin01", "Admin", "admin", "password");
+        admin.setCourses(catalog);
+        // The admin opens the student for editing; while they type, the student drops CIT592 and adds CIT593
+        InputStream input = new ScriptedInput(List.of("2\nS1\n", "\n\n\nyes\nA\nA\n4\n"), () -> {
+            student.dropCourse(catalog, students, "CIT592", dir.resolve("students.txt").toString());
+            student.addCourse(catalog, students, "CIT593");
+        });
+        admin.manageStudents(new Scanner(input, StandardCharsets.UTF_8), students);
+
+        String printed = output.toString();
+        assertTrue(printed.contains("Student was changed while being edited"), printed);
+        assertTrue(printed.contains("Course CIT592 was dropped meanwhile"), printed);
+        assertEquals("A", student.getCourses().get("CIT591"));
+        assertFalse(student.getCourses().containsKey("CIT592"), "A dropped course must not come back");
+        assertEquals("Not Graded", student.getCourses().get("CIT593"), "The student's add must not be lost");
+        assertEquals(0, catalog.findById("CIT592").getCurrentEnrollment());
+    }
+
+    @Test
+    void testDeletedStudentCannotRegister() {
+        student.getVersion().retire();
+        catalog.getEnrollments().unlinkStudent(student);
+
+        assertEquals("This account has been deleted.", student.addCourse(catalog, students, "CIT593"));
+        assertEquals(0, catalog.findById("CIT593").getCurrentEnrollment());
+        assertFalse(catalog.getEnrollments().enroll(student, catalog.findById("CIT593"), "Not Graded"));
+    }
+
+    /**
+     * Hands out its chunks one read at a time and runs an action before the second, so something
+     * can happen between two prompts.
+     */
+    private static final class ScriptedInput extends InputStream {
+        private final List<String> chunks;
+        private final Runnable between;
+        private int next;
+        private byte[] current = new byte[0];
+        private int position;
+
+        ScriptedInput(List<String> chunks, Runnable between) {
+            this.chunks = chunks;
+            this.between = between;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position == current.length) {
+                if (next == chunks.size()) {
+                    return -1;
+                }
+                if (next == 1) {
+                    between.run();
+                }
+                current = chunks.get(next++).getBytes(StandardCharsets.UTF_8);
+                position = 0;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.*;
 import roles.Professor;
 import roles.Student;
 import courses.Course;
+import courses.CourseCatalog;
 
 class ProfessorTest {
     private Professor professor;
@@ -35,7 +36,7 @@ class ProfessorTest {
         System.setIn(testIn);
         Scanner scanner = new Scanner(System.in);
 
-        List<Course> mockCourses = createMockCourses();
+        CourseCatalog mockCourses = createMockCourses();
         List<Student> mockStudents = createMockStudents();
 
         try {
@@ -63,7 +64,7 @@ class ProfessorTest {
 
     @Test
     void testViewStudentsInCourse() {
-        List<Course> courses = createMockCourses();
+        CourseCatalog courses = createMockCourses();
         List<Student> students = createMockStudents();
 
         professor.viewStudentsInCourse("CIS101", courses, students);
@@ -76,7 +77,7 @@ class ProfessorTest {
 
     @Test
     void testViewStudentsInNonTaughtCourse() {
-        List<Course> courses = createMockCourses();
+        CourseCatalog courses = createMockCourses();
         List<Student> students = createMockStudents();
 
         professor.viewStudentsInCourse("CIS103", courses, students);
@@ -85,14 +86,14 @@ class ProfessorTest {
         Assertions.assertTrue(capturedOutput.contains("You do not teach this course."));
     }
 
-    private List<Course> createMockCourses() {
+    private CourseCatalog createMockCourses() {
         Course course1 = new Course("CIS101", "Introduction to Computer Science", "Professor", "prof01", "MW", "09:00", "10:30", 30);
         course1.addStudent("S001");
         course1.addStudent("S002");
 
         Course course2 = new Course("CIS102", "Data Structures", "Professor", "prof01", "TR", "11:00", "12:30", 25);
 
-        return Arrays.asList(course1, course2);
+        return new CourseCatalog(Arrays.asList(course1, course2));
     }
 
     private List<Student> createMockStudents() {
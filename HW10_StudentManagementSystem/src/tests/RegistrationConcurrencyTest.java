@@ -0,0 +1,103 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Scanner;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+import roles.Student;
+
+class RegistrationConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @TempDir
+    Path dir;
+
+    private final PrintStream originalOut = System.out;
+    private EnrollmentJournal originalJournal;
+
+    @BeforeEach
+    void setUp() {
+        originalJournal = Student.getEnrollmentJournal();
+        // A large threshold keeps the journal from being compacted into src/studentinfo.txt
+        Student.setEnrollmentJournal(new EnrollmentJournal(dir.resolve("students.journal").toString(), Integer.MAX_VALUE));
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Student.setEnrollmentJournal(originalJournal);
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void testConflictingAddsOfOneStudentCannotBothSucceed() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            Course morning = new Course("CIS101", "Morning", "Prof", "P1", "MW", "9:00", "10:30", 10);
+            Course overlapping = new Course("CIS102", "Overlapping", "Prof", "P1", "M", "10:00", "11:00", 10);
+            CourseCatalog catalog = new CourseCatalog(List.of(morning, overlapping));
+            Student student = new Student("S1", "Student", "student", "pw", new HashMap<>());
+            List<Student> students = List.of(student);
+
+            ConcurrentWorkers.run(THREADS, thread -> student.manageOperations(catalog, students,
+                    new Scanner("2\n" + (thread % 2 == 0 ? "CIS101" : "CIS102") + "\n5\n")));
+
+            assertEquals(1, student.getCourses().size(), "The second add must see the first and be rejected as a conflict");
+            assertEquals(1, morning.getCurrentEnrollment() + overlapping.getCurrentEnrollment());
+        }
+    }
+
+    @Test
+    void testConcurrentSwapsAndAddsKeepRostersAndRecordsInStep() throws Exception {
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            // Different days, so no two courses conflict
+            courses.add(new Course("CIS" + c, "Course " + c, "Prof", "P1", String.valueOf("MTWR".charAt(c)), "9:00", "10:00", 5));
+        }
+        CourseCatalog catalog = new CourseCatalog(courses);
+        List<Student> students = new ArrayList<>();
+        for (int s = 0; s < 40; s++) {
+            students.add(new Student("S" + s, "Student " + s, "student" + s, "pw", new HashMap<>()));
+        }
+
+        ConcurrentWorkers.run(THREADS, thread -> {
+            for (int s = thread; s < students.size(); s += THREADS) {
+                StringBuilder input = new StringBuilder();
+                for (int c = 0; c < 4; c++) {
+                    input.append("2\nCIS").append(c).append('\n');
+                    input.append("6\nCIS").append(c).append("\nCIS").append((c + s) % 4).append('\n');
+                }
+                students.get(s).manageOperations(catalog, students, new Scanner(input + "5\n"));
+            }
+        });
+
+        int seated = 0;
+        for (Course course : courses) {
+            assertTrue(course.getCurrentEnrollment() <= course.getCapacity());
+            for (Student student : catalog.getEnrollments().getStudents(course)) {
+                assertTrue(student.getCourses().containsKey(course.getCourseId()));
+                assertTrue(course.isStudentEnrolled(student.getId()));
+            }
+            seated += course.getCurrentEnrollment();
+        }
+        int listed = 0;
+        for (Student student : students) {
+            listed += student.getCourses().size();
+            assertEquals(student.getCourses().size(), catalog.getEnrollments().getCourses(student).size());
+        }
+        assertEquals(seated, listed, "Every seat should belong to a student who lists the course, and the other way round");
+    }
+}
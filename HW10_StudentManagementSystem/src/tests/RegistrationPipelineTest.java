@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import courses.Course;
+import courses.CourseCatalog;
+import files.EnrollmentJournal;
+import roles.RegistrationPipeline;
+import roles.Student;
+
+class RegistrationPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    private EnrollmentJournal originalJournal;
+    private EnrollmentJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        originalJournal = Student.getEnrollmentJournal();
+        // A large threshold keeps the journal from being compacted into src/studentinfo.txt
+        journal = new EnrollmentJournal(dir.resolve("students.journal").toString(), Integer.MAX_VALUE);
+        Student.setEnrollmentJournal(journal);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Student.setRegistrationPipeline(null);
+        Student.setEnrollmentJournal(originalJournal);
+    }
+
+    @Test
+    void testBurstOfAddsFillsTheCourseOnceAndJournalsInBatches() throws Exception {
+        Course popular = new Course("CIT590", "Popular", "Prof", "P1", "MW", "16:30", "18:00", 50);
+        CourseCatalog catalog = new CourseCatalog(List.of(popular));
+        catalog.getEnrollments().setPromotionListener(Student::journalPromotion);
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            students.add(new Student(String.format("S%03d", i), "Student " + i, "student" + i, "pw", new HashMap<>()));
+        }
+
+        // A small ring makes the producers wait for the writer and wrap around many times
+        RegistrationPipeline pipeline = new RegistrationPipeline(16, 8);
+        Student.setRegistrationPipeline(pipeline);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> messages = new ArrayList<>();
+        for (Student student : students) {
+            messages.add(executor.submit(() -> student.addCourse(catalog, students, "CIT590")));
+        }
+        int added = 0;
+        int waitlisted = 0;
+        for (Future<String> message : messages) {
+            String text = message.get(30, TimeUnit.SECONDS);
+            if (text.equals("Course added successfully.")) {
+                added++;
+            } else if (text.startsWith("The course is full. You have been added to its waitlist")) {
+                waitlisted++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(50, added);
+        assertEquals(350, waitlisted);
+        assertEquals(50, popular.getCurrentEnrollment());
+        assertEquals(350, catalog.getEnrollments().getWaitlistSize(popular));
+        assertEquals(50, journal.size());
+        assertEquals(400, pipeline.getAppliedCount());
+        assertTrue(pipeline.getBatchCount() < 400, "Requests waiting together should be applied together");
+
+        // A drop promotes the first in line, and both end up in the journal in the same batch
+        Student seated = catalog.getEnrollments().getStudents(popular).get(0);
+        assertEquals("Course dropped successfully.", seated.dropCourse(catalog, students, "CIT590", dir.resolve("students.txt").toString()));
+        assertEquals(50, popular.getCurrentEnrollment());
+        assertEquals(349, catalog.getEnrollments().getWaitlistSize(popular));
+        List<String> lines = Files.readAllLines(Path.of(journal.getPath()));
+        assertEquals(52, lines.size());
+        assertEquals("DROP;" + seated.getId() + ";CIT590", lines.get(50));
+        assertTrue(lines.get(51).startsWith("ADD;"));
+
+        pipeline.close();
+        CompletableFuture<String> late = pipeline.submitAdd(seated, catalog, students, popular, "unused");
+        assertTrue(late.isCompletedExceptionally(), "A closed pipeline takes no more requests");
+    }
+}
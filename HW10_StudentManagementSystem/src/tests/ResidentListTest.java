@@ -0,0 +1,68 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import roles.ResidentList;
+import roles.Student;
+import roles.StudentStore;
+
+class ResidentListTest {
+
+    @Test
+    void testIteratorsKeepTheContentsTheyStartedWith() {
+        ResidentList<String> list = new ResidentList<>(List.of("a", "b", "c"));
+        Iterator<String> before = list.iterator();
+        list.remove("b");
+        list.add("d");
+        list.setAll(List.of("x"));
+
+        List<String> walked = new ArrayList<>();
+        before.forEachRemaining(walked::add);
+        assertEquals(List.of("a", "b", "c"), walked);
+        assertEquals(List.of("x"), list);
+        assertThrows(UnsupportedOperationException.class, () -> list.iterator().remove());
+    }
+
+    @Test
+    void testReadersNeverSeeAHalfReplacedList() throws Exception {
+        List<String> first = List.of("a", "b", "c", "d");
+        List<String> second = List.of("w", "x", "y", "z");
+        ResidentList<String> list = new ResidentList<>(first);
+        AtomicBoolean done = new AtomicBoolean();
+
+        ConcurrentWorkers.run(4, thread -> {
+            if (thread == 0) {
+                for (int i = 0; i < 20_000; i++) {
+                    list.setAll(i % 2 == 0 ? second : first);
+                }
+                done.set(true);
+                return;
+            }
+            while (!done.get()) {
+                List<String> seen = new ArrayList<>(list);
+                assertTrue(seen.equals(first) || seen.equals(second), "Saw " + seen);
+            }
+        });
+    }
+
+    @Test
+    void testStudentsAddedToAColumnarListMoveIntoTheStore() {
+        StudentStore store = new StudentStore();
+        ResidentList<Student> students = store.residentList();
+        Student alice = new Student("001", "Alice", "alice", "password590", new HashMap<>());
+        students.add(alice);
+        students.setAll(List.of(alice));
+
+        assertSame(alice, students.get(0));
+        assertEquals(1, store.getRowCount(), "A student already in the store is not copied again");
+        assertEquals("Alice", alice.getName());
+    }
+}
@@ -0,0 +1,72 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import main.SessionServer;
+
+class SessionServerTest {
+    private final PrintStream originalOut = System.out;
+
+    @AfterEach
+    void restoreOut() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void testConcurrentSessionsGetTheirOwnInputAndOutput() throws Exception {
+        int clients = 20;
+        // Every session waits until all are connected, so they really run at the same time
+        CountDownLatch allConnected = new CountDownLatch(clients);
+        SessionServer server = new SessionServer(0, input -> {
+            String name = input.nextLine();
+            allConnected.countDown();
+            allConnected.await(10, TimeUnit.SECONDS);
+            System.out.println("Hello " + name);
+            System.out.printf("Bye %s%n", name);
+        });
+        Thread acceptor = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        acceptor.start();
+
+        try {
+            List<Socket> sockets = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8).println("client" + i);
+                sockets.add(socket);
+            }
+            for (int i = 0; i < clients; i++) {
+                try (Socket socket = sockets.get(i);
+                     BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                    assertEquals("Hello client" + i, reader.readLine());
+                    assertEquals("Bye client" + i, reader.readLine());
+                    assertNull(reader.readLine(), "The session should end after its last line");
+                }
+            }
+        } finally {
+            server.close();
+            acceptor.join(10_000);
+        }
+        assertFalse(acceptor.isAlive(), "serve should return once the server is closed");
+    }
+}
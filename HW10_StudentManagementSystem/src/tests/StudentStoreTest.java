@@ -0,0 +1,73 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import roles.Student;
+import roles.StudentStore;
+
+class StudentStoreTest {
+
+    private Student alice;
+    private Student bob;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, String> aliceCourses = new HashMap<>();
+        aliceCourses.put("CIT592", "A");
+        aliceCourses.put("CIT593", "Not Graded");
+        alice = new Student("001", "Zoë Alice", "alice", "password590", aliceCourses);
+        bob = new Student("002", "Bob", "bob", "password590", new HashMap<>());
+        students = StudentStore.listOf(List.of(alice, bob));
+    }
+
+    @Test
+    void testStudentsBecomeViewsInPlace() {
+        assertSame(alice, students.get(0), "The list should hand out the same object that was added");
+        assertEquals("001", alice.getId());
+        assertEquals("Zoë Alice", alice.getName());
+        assertTrue(alice.checkPassword("password590"));
+        assertFalse(alice.checkPassword("password591"));
+        assertEquals(Map.of("CIT592", "A", "CIT593", "Not Graded"), alice.getCourses());
+
+        alice.setUsername("alice2");
+        assertEquals("alice2", students.get(0).getUsername());
+        assertEquals("bob", bob.getUsername(), "Other rows are untouched");
+    }
+
+    @Test
+    void testCourseChangesWriteThrough() {
+        alice.getCourses().put("CIT590", "Not Graded");
+        alice.getCourses().remove("CIT592");
+        alice.getCourses().put("CIT593", "B+");
+        assertEquals(Map.of("CIT590", "Not Graded", "CIT593", "B+"), students.get(0).getCourses());
+        assertTrue(bob.getCourses().isEmpty());
+
+        bob.setCourses(Map.of("CIS191", "A"));
+        assertEquals("A", bob.getCourses().get("CIS191"));
+    }
+
+    @Test
+    void testListKeepsRowsAcrossClearAndRefill() {
+        Student carol = new Student("003", "Carol", "carol", "password590", new HashMap<>());
+        students.add(carol);
+        assertEquals(3, students.size());
+
+        students.remove(bob);
+        assertEquals(List.of(alice, carol), students);
+
+        // The merge after a reload clears the list and adds the resident students back
+        List<Student> resident = List.copyOf(students);
+        students.clear();
+        students.addAll(resident);
+        assertEquals(List.of(alice, carol), students);
+        assertEquals("Carol", students.get(1).getName());
+    }
+}
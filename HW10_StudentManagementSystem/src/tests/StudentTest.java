@@ -6,13 +6,14 @@ import java.util.*;
 
 import roles.Student;
 import courses.Course;
+import courses.CourseCatalog;
 
 class StudentTest {
     private Student student;
     private final ByteArrayOutputStream output = new ByteArrayOutputStream();
     private final PrintStream originalOut = System.out;
     private ByteArrayInputStream testIn;
-    private List<Course> mockCourses;
+    private CourseCatalog mockCourses;
     private List<Student> mockStudents;
 
     @BeforeEach
@@ -43,10 +44,10 @@ class StudentTest {
     }
 
 
-    private List<Course> createMockCourses() {
+    private CourseCatalog createMockCourses() {
         Course course1 = new Course("CIS101", "Introduction to Computer Science", "Professor", "prof01", "MW", "09:00", "10:30", 30);
         Course course2 = new Course("CIS102", "Data Structures", "Professor", "prof02", "TR", "11:00", "12:30", 25);
-        return Arrays.asList(course1, course2);
+        return new CourseCatalog(Arrays.asList(course1, course2));
     }
 
     private List<Student> createMockStudents() {
@@ -0,0 +1,57 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import roles.Student;
+import roles.UsernameIndex;
+
+class UsernameIndexTest {
+
+    private Student student1;
+    private Student student2;
+    private UsernameIndex<Student> index;
+
+    @BeforeEach
+    void setUp() {
+        student1 = new Student("001", "StudentName1", "testStudent01", "password590", new HashMap<>());
+        student2 = new Student("002", "StudentName2", "testStudent02", "password590", new HashMap<>());
+        index = new UsernameIndex<>(List.of(student1, student2));
+    }
+
+    @Test
+    void testAuthenticateChecksPassword() {
+        assertSame(student2, index.authenticate("testStudent02", "password590"));
+        assertNull(index.authenticate("testStudent02", "wrong"));
+        assertNull(index.authenticate("nobody", "password590"));
+    }
+
+    @Test
+    void testRenameAndRemoveKeepIndexCurrent() {
+        student1.setUsername("renamed01");
+        index.rename(student1, "testStudent01");
+        assertNull(index.authenticate("testStudent01", "password590"));
+        assertSame(student1, index.authenticate("renamed01", "password590"));
+
+        index.remove(student2);
+        assertFalse(index.contains("testStudent02"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testDuplicateUsernamesMatchFirstWithPassword() {
+        Student duplicate = new Student("003", "StudentName3", "testStudent01", "other", new HashMap<>());
+        index.add(duplicate);
+        assertSame(student1, index.authenticate("testStudent01", "password590"));
+        assertSame(duplicate, index.authenticate("testStudent01", "other"));
+
+        index.remove(student1);
+        assertSame(duplicate, index.authenticate("testStudent01", "other"));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,68 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import courses.VersionStamp;
+
+class VersionStampTest {
+
+    @Test
+    void testCompareAndSetFailsAfterAnotherWrite() {
+        VersionStamp version = new VersionStamp();
+        long stamp = version.readStamp();
+        assertTrue(version.validate(stamp));
+
+        assertTrue(version.update(() -> { }));
+        assertFalse(version.validate(stamp));
+        assertFalse(version.tryUpdate(stamp, () -> fail("A stale stamp must not write")));
+
+        long fresh = version.readStamp();
+        assertTrue(version.tryUpdate(fresh, () -> { }));
+        assertFalse(version.tryUpdate(fresh, () -> { }), "Each stamp writes once");
+
+        assertTrue(version.retire());
+        assertTrue(version.isRetired());
+        assertFalse(version.retire());
+        assertFalse(version.update(() -> fail("A retired record must not be written")));
+        assertFalse(version.tryUpdate(version.readStamp(), () -> fail("A retired record must not be written")));
+    }
+
+    @Test
+    void testReadersNeverSeeATornRecord() throws Exception {
+        VersionStamp version = new VersionStamp();
+        long[] pair = new long[2];
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < 2; w++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    version.update(() -> {
+                        pair[0]++;
+                        pair[1]--;
+                    });
+                }
+            }));
+        }
+        long[] torn = new long[1];
+        threads.add(new Thread(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                long sum = version.read(() -> pair[0] + pair[1]);
+                if (sum != 0) {
+                    torn[0]++;
+                }
+            }
+        }));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, torn[0]);
+        assertEquals(200_000, pair[0], "No write may be lost");
+    }
+}
@@ -0,0 +1,56 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import courses.Waitlist;
+
+class WaitlistTest {
+
+    @Test
+    void testFirstComeFirstServed() {
+        Waitlist<String> waitlist = new Waitlist<>();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(waitlist.join("S" + i));
+        }
+        assertFalse(waitlist.join("S42"));
+        assertEquals(5000, waitlist.size());
+        assertEquals(43, waitlist.positionOf("S42"));
+
+        List<String> served = new ArrayList<>();
+        String next;
+        while ((next = waitlist.peek()) != null) {
+            assertTrue(waitlist.pollIf(next));
+            served.add(next);
+        }
+        assertEquals(5000, served.size());
+        assertEquals("S0", served.get(0));
+        assertEquals("S4999", served.get(4999));
+        assertTrue(waitlist.isEmpty());
+    }
+
+    @Test
+    void testLeavingAndRejoiningGoesToTheBack() {
+        Waitlist<String> waitlist = new Waitlist<>();
+        waitlist.join("S1");
+        waitlist.join("S2");
+        waitlist.join("S3");
+
+        assertTrue(waitlist.leave("S1"));
+        assertFalse(waitlist.leave("S1"));
+        assertTrue(waitlist.join("S1"));
+        assertEquals(3, waitlist.positionOf("S1"));
+        assertEquals(0, waitlist.positionOf("S4"));
+
+        assertFalse(waitlist.pollIf("S1"), "Only the first in line can be taken off");
+        assertEquals("S2", waitlist.peek());
+        assertTrue(waitlist.pollIf("S2"));
+        assertTrue(waitlist.pollIf("S3"));
+        assertTrue(waitlist.pollIf("S1"));
+        assertNull(waitlist.peek());
+    }
+}
@@ -0,0 +1,37 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import courses.Course;
+import courses.MeetingPattern;
+import courses.WeeklySchedule;
+
+class WeeklyScheduleTest {
+
+    @Test
+    void testIntersectsOnlyOnSharedDayAndSlot() {
+        WeeklySchedule mwfMorning = WeeklySchedule.of(MeetingPattern.parseDays("MWF"), 9 * 60, 10 * 60);
+        WeeklySchedule trMorning = WeeklySchedule.of(MeetingPattern.parseDays("TR"), 9 * 60, 10 * 60);
+        WeeklySchedule mAfternoon = WeeklySchedule.of(MeetingPattern.parseDays("M"), 14 * 60, 15 * 60);
+        WeeklySchedule fNextHour = WeeklySchedule.of(MeetingPattern.parseDays("F"), 10 * 60, 11 * 60);
+
+        assertFalse(mwfMorning.intersects(trMorning));
+        assertFalse(mwfMorning.intersects(mAfternoon));
+        assertTrue(mwfMorning.intersects(fNextHour), "Back-to-back meetings share their boundary slot");
+        assertTrue(trMorning.union(mAfternoon).intersects(mwfMorning.union(trMorning)));
+        assertTrue(WeeklySchedule.EMPTY.isEmpty());
+    }
+
+    @Test
+    void testCourseConflictConfirmsExactTimes() {
+        Course morning = new Course("CIT591", "Intro", "Dr. Smith", "", "MW", "09:00", "10:02", 10);
+        Course later = new Course("CIT592", "Math", "Dr. Smith", "", "W", "10:03", "11:00", 10);
+        assertTrue(morning.getWeeklySchedule().intersects(later.getWeeklySchedule()), "Both touch the 10:00 slot");
+        assertFalse(morning.hasTimeConflict(later), "The exact times do not overlap");
+
+        later.setStartTime("10:00");
+        assertTrue(morning.hasTimeConflict(later), "The parsed times follow the setter");
+    }
+}
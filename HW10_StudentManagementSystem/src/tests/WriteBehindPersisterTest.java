@@ -0,0 +1,67 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import files.WriteBehindPersister;
+
+class WriteBehindPersisterTest {
+
+    private List<String> written;
+
+    @BeforeEach
+    void setUp() {
+        written = new ArrayList<>();
+    }
+
+    private WriteBehindPersister persister(long windowMillis, int maxPendingMutations) {
+        WriteBehindPersister persister = new WriteBehindPersister(windowMillis, maxPendingMutations);
+        persister.register("courses", () -> written.add("courses"));
+        persister.register("students", () -> written.add("students"));
+        return persister;
+    }
+
+    @Test
+    void testChangesAreCoalescedUntilFlush() {
+        WriteBehindPersister persister = persister(60_000, 1000);
+        for (int i = 0; i < 200; i++) {
+            persister.markDirty("students");
+        }
+        persister.markDirty("courses");
+        assertTrue(written.isEmpty(), "Nothing should be written before the window or limit is reached");
+        assertTrue(persister.isDirty("students"));
+
+        assertEquals(2, persister.flush());
+        assertEquals(List.of("students", "courses"), written);
+        assertEquals(0, persister.flush(), "A second flush has nothing left to write");
+    }
+
+    @Test
+    void testMutationLimitTriggersFlush() {
+        WriteBehindPersister persister = persister(60_000, 3);
+        persister.markDirty("students");
+        persister.markDirty("students");
+        assertTrue(written.isEmpty());
+        persister.markDirty("students");
+        assertEquals(List.of("students"), written);
+        assertEquals(0, persister.getPendingMutations());
+    }
+
+    @Test
+    void testElapsedWindowTriggersFlush() {
+        WriteBehindPersister persister = persister(0, 1000);
+        persister.markDirty("courses");
+        assertEquals(List.of("courses"), written);
+        assertEquals(1, persister.getFlushCount());
+    }
+
+    @Test
+    void testUnknownFileIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> persister(0, 1).markDirty("grades"));
+    }
+}